@@ -16,13 +16,14 @@
 package org.eclipse.zest.core.viewers;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.SWTError;
@@ -76,51 +77,20 @@ public abstract class AbstractStructuredGraphViewer extends AbstractZoomableView
 	private Map<Object, GraphConnection> connectionsMap = new HashMap<>();
 
 	/**
-	 * The constraint adapters
+	 * If true, a new input is reconciled with the current graph instead of
+	 * rebuilding it.
 	 */
-	private final List<ConstraintAdapter> constraintAdapters = new ArrayList<>();
+	private boolean reconcileInput = false;
 
 	/**
-	 * A simple graph comparator that orders graph elements based on their type
-	 * (connection or node), and their unique object identification.
+	 * If true, the content of a new input is loaded in the background.
 	 */
-	private class SimpleGraphComparator implements Comparator<GraphItem> {
-		Set<String> storedStrings;
-
-		/**
-		 *
-		 */
-		public SimpleGraphComparator() {
-			this.storedStrings = new TreeSet<>();
-		}
-
-		/*
-		 * (non-Javadoc)
-		 *
-		 * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
-		 */
-		@Override
-		public int compare(GraphItem arg0, GraphItem arg1) {
-			if (arg0 instanceof GraphNode && arg1 instanceof GraphConnection) {
-				return 1;
-			}
-			if (arg0 instanceof GraphConnection && arg1 instanceof GraphNode) {
-				return -1;
-			}
-			if (arg0.equals(arg1)) {
-				return 0;
-			}
-			return getObjectString(arg0).compareTo(getObjectString(arg1));
-		}
+	private boolean deferredContent = false;
 
-		private String getObjectString(Object o) {
-			String s = o.getClass().getName() + '@' + Integer.toHexString(o.hashCode());
-			while (storedStrings.contains(s)) {
-				s = s + 'X';
-			}
-			return s;
-		}
-	}
+	/**
+	 * The constraint adapters
+	 */
+	private final List<ConstraintAdapter> constraintAdapters = new ArrayList<>();
 
 	protected AbstractStructuredGraphViewer(int graphStyle) {
 		this.graphStyle = graphStyle;
@@ -231,6 +201,58 @@ public abstract class AbstractStructuredGraphViewer extends AbstractZoomableView
 		setLayoutAlgorithm(algorithm, false);
 	}
 
+	/**
+	 * Enables or disables reconciling the graph with new input. When enabled,
+	 * setting the input or refreshing the whole viewer keeps the nodes and
+	 * connections of elements which are still in the model, together with their
+	 * figures and locations, and creates or disposes only the items of added or
+	 * removed elements. Elements are matched using their equality. The layout is
+	 * applied after a new input only if items were added or removed. When disabled,
+	 * which is the default, the graph is rebuilt from scratch.
+	 *
+	 * @param reconcileInput true to reconcile the graph with new input
+	 * @since 1.16
+	 */
+	public void setReconcileInput(boolean reconcileInput) {
+		this.reconcileInput = reconcileInput;
+	}
+
+	/**
+	 * @return true if the graph is reconciled with new input instead of rebuilt
+	 * @see #setReconcileInput(boolean)
+	 * @since 1.16
+	 */
+	public boolean isReconcileInput() {
+		return reconcileInput;
+	}
+
+	/**
+	 * Enables or disables loading the content of a new input in the background.
+	 * When enabled, the content provider is queried on a background thread and
+	 * the nodes and connections are added to the graph in small batches on the UI
+	 * thread as they are found, laying out the graph after each batch. The graph
+	 * shows up right away and fills in progressively. The content provider must
+	 * then be safe to call from a thread other than the UI thread; the label
+	 * provider and filters are still called on the UI thread. This has no effect
+	 * when the input is reconciled.
+	 *
+	 * @param deferredContent true to load the content in the background
+	 * @see #setReconcileInput(boolean)
+	 * @since 1.16
+	 */
+	public void setDeferredContent(boolean deferredContent) {
+		this.deferredContent = deferredContent;
+	}
+
+	/**
+	 * @return true if the content of a new input is loaded in the background
+	 * @see #setDeferredContent(boolean)
+	 * @since 1.16
+	 */
+	public boolean isDeferredContent() {
+		return deferredContent;
+	}
+
 	public Object[] getNodeElements() {
 		return this.nodesMap.keySet().toArray();
 	}
@@ -505,11 +527,22 @@ public abstract class AbstractStructuredGraphViewer extends AbstractZoomableView
 		factory.setConnectionStyle(getConnectionStyle());
 		factory.setNodeStyle(getNodeStyle());
 
+		Graph graph = (Graph) getControl();
+		graph.setSelection(new GraphNode[0]);
+
+		if (reconcileInput) {
+			boolean changed = factory.reconcileGraph(graph);
+			graph.setNodeStyle(getNodeStyle());
+			graph.setConnectionStyle(getConnectionStyle());
+			if (changed) {
+				applyLayout();
+			}
+			return;
+		}
+
 		// Save the old map so we can set the size and position of any nodes
 		// that are the same
 		Map<Object, GraphNode> oldNodesMap = nodesMap;
-		Graph graph = (Graph) getControl();
-		graph.setSelection(new GraphNode[0]);
 
 		for (GraphNode node : nodesMap.values()) {
 			if (!node.isDisposed()) {
@@ -526,7 +559,11 @@ public abstract class AbstractStructuredGraphViewer extends AbstractZoomableView
 		nodesMap = new HashMap<>();
 		connectionsMap = new HashMap<>();
 
-		graph = factory.createGraphModel(graph);
+		if (deferredContent) {
+			graph = factory.createGraphModelDeferred(graph);
+		} else {
+			graph = factory.createGraphModel(graph);
+		}
 
 		((Graph) getControl()).setNodeStyle(getNodeStyle());
 		((Graph) getControl()).setConnectionStyle(getConnectionStyle());
@@ -557,14 +594,17 @@ public abstract class AbstractStructuredGraphViewer extends AbstractZoomableView
 	 */
 	protected abstract IStylingGraphModelFactory getFactory();
 
+	/**
+	 * Shows the nodes and connections whose elements pass the filters of this
+	 * viewer and hides the others. The items are numbered by their position in the
+	 * graph, and the visibility they should have is compared with their current one
+	 * as bit sets, so that only the items whose visibility changes are touched.
+	 */
 	protected void filterVisuals() {
 		if (getGraphControl() == null) {
 			return;
 		}
 		Object[] filtered = getFilteredChildren(getInput());
-		SimpleGraphComparator comparator = new SimpleGraphComparator();
-		TreeSet<GraphItem> filteredElements = new TreeSet<>(comparator);
-		TreeSet<GraphItem> unfilteredElements = new TreeSet<>(comparator);
 		List<? extends GraphConnection> connections = getGraphControl().getConnections();
 		List<? extends GraphNode> nodes = getGraphControl().getNodes();
 		if (filtered.length == 0) {
@@ -572,44 +612,55 @@ public abstract class AbstractStructuredGraphViewer extends AbstractZoomableView
 			// @tag zest.bug.156528-Filters.check : should we only filter out
 			// the nodes?
 			for (GraphConnection c : connections) {
-				c.setVisible(false);
+				if (c.isVisible()) {
+					c.setVisible(false);
+				}
 			}
 			for (GraphNode n : nodes) {
-				n.setVisible(false);
+				if (n.isVisible()) {
+					n.setVisible(false);
+				}
 			}
 			return;
 		}
-		for (GraphConnection c : connections) {
-			if (c.getExternalConnection() != null) {
-				unfilteredElements.add(c);
+		Set<Object> passed = new HashSet<>(Arrays.asList(filtered));
+
+		// nodes first, since changing the visibility of a node changes the
+		// visibility of its connections
+		BitSet visibleNodes = new BitSet(nodes.size());
+		BitSet changedNodes = new BitSet(nodes.size());
+		for (int i = 0; i < nodes.size(); i++) {
+			GraphNode n = nodes.get(i);
+			Object data = n.getData();
+			// an element which is also the element of a connection selects the
+			// connection
+			if (data == null ? n.isVisible() : passed.contains(data) && !connectionsMap.containsKey(data)) {
+				visibleNodes.set(i);
 			}
-		}
-		for (GraphNode n : nodes) {
-			if (n.getData() != null) {
-				unfilteredElements.add(n);
+			if (n.isVisible()) {
+				changedNodes.set(i);
 			}
 		}
-		for (Object element : filtered) {
-			GraphItem modelElement = connectionsMap.get(element);
-			if (modelElement == null) {
-				modelElement = nodesMap.get(element);
+		changedNodes.xor(visibleNodes);
+		for (int i = changedNodes.nextSetBit(0); i >= 0; i = changedNodes.nextSetBit(i + 1)) {
+			nodes.get(i).setVisible(visibleNodes.get(i));
+		}
+
+		BitSet visibleConnections = new BitSet(connections.size());
+		BitSet changedConnections = new BitSet(connections.size());
+		for (int i = 0; i < connections.size(); i++) {
+			GraphConnection c = connections.get(i);
+			Object data = c.getExternalConnection();
+			if (data == null ? c.isVisible() : passed.contains(data)) {
+				visibleConnections.set(i);
 			}
-			if (modelElement != null) {
-				filteredElements.add(modelElement);
+			if (c.isVisible()) {
+				changedConnections.set(i);
 			}
 		}
-		unfilteredElements.removeAll(filteredElements);
-		// set all the elements that did not pass the filters to invisible, and
-		// all the elements that passed to visible.
-		while (!unfilteredElements.isEmpty()) {
-			GraphItem i = unfilteredElements.first();
-			i.setVisible(false);
-			unfilteredElements.remove(i);
-		}
-		while (!filteredElements.isEmpty()) {
-			GraphItem i = filteredElements.first();
-			i.setVisible(true);
-			filteredElements.remove(i);
+		changedConnections.xor(visibleConnections);
+		for (int i = changedConnections.nextSetBit(0); i >= 0; i = changedConnections.nextSetBit(i + 1)) {
+			connections.get(i).setVisible(visibleConnections.get(i));
 		}
 	}
 
@@ -744,11 +795,11 @@ public abstract class AbstractStructuredGraphViewer extends AbstractZoomableView
 				LayoutAlgorithm.Zest1 zest1 = (LayoutAlgorithm.Zest1)getLayoutAlgorithm();
 				zest1.removeEntity(node.getLayoutEntity());
 				List<LayoutRelationship> relationships = new ArrayList<>();
-				for (GraphConnection connection : node.getSourceConnections()) {
-					relationships.add(connection.getLayoutRelationship());
+				for (int i = 0; i < node.getSourceConnectionCount(); i++) {
+					relationships.add(node.getSourceConnection(i).getLayoutRelationship());
 				}
-				for (GraphConnection connection : node.getTargetConnections()) {
-					relationships.add(connection.getLayoutRelationship());
+				for (int i = 0; i < node.getTargetConnectionCount(); i++) {
+					relationships.add(node.getTargetConnection(i).getLayoutRelationship());
 				}
 				zest1.removeRelationships(relationships);
 			}
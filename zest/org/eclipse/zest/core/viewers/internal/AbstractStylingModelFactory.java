@@ -14,9 +14,10 @@ package org.eclipse.zest.core.viewers.internal;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.swt.SWT;
 
@@ -30,6 +31,7 @@ import org.eclipse.zest.core.viewers.INestedContentProvider;
 import org.eclipse.zest.core.widgets.ConstraintAdapter;
 import org.eclipse.zest.core.widgets.Graph;
 import org.eclipse.zest.core.widgets.GraphConnection;
+import org.eclipse.zest.core.widgets.GraphContainer;
 import org.eclipse.zest.core.widgets.GraphItem;
 import org.eclipse.zest.core.widgets.GraphNode;
 import org.eclipse.zest.core.widgets.IContainer;
@@ -51,6 +53,20 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 	private int nodeStyle;
 	private List<ConstraintAdapter> constraintAdapters = new ArrayList<>();
 
+	/**
+	 * Elements of the nodes and connections built since
+	 * {@link #reconcileGraph(Graph)} started, null if no reconciliation is in
+	 * progress.
+	 */
+	private Set<Object> reconciledNodes = null;
+	private Set<Object> reconciledConnections = null;
+
+	/**
+	 * The build started by {@link #createGraphModelDeferred(Graph)} which is still
+	 * adding items, or null.
+	 */
+	private DeferredGraphBuilder deferredBuilder = null;
+
 	/**
 	 *
 	 */
@@ -65,18 +81,17 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 	}
 
 	public void styleConnection(GraphConnection conn) {
-		// recount the source and target connections on the node.
-		// this isn't a great way to do it, because it results in
-		// an n^2 algorithm. But, if anyone can figure out a better way
-		// go ahead and try it.
+		// recount the connections between the source and the destination, which the
+		// graph keeps indexed by their nodes
 		GraphNode source = conn.getSource();
 		GraphNode dest = conn.getDestination();
-		List<GraphConnection> rightList = getConnectionList(source, dest);
+		Graph graph = conn.getGraphModel();
+		List<GraphConnection> rightList = graph.getConnections(source, dest);
 
 		List<GraphConnection> leftList = null;
 
 		if (dest != source) {
-			leftList = getConnectionList(dest, source);
+			leftList = graph.getConnections(dest, source);
 		}
 
 		int size = (leftList != null) ? leftList.size() + rightList.size() : rightList.size();
@@ -114,21 +129,6 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 		}
 	}
 
-	/**
-	 * @param source
-	 * @param dest
-	 * @return
-	 */
-	private static List<GraphConnection> getConnectionList(GraphNode source, GraphNode dest) {
-		List<GraphConnection> list = new LinkedList<>();
-		for (GraphConnection c : source.getSourceConnections()) {
-			if (c.getDestination() == dest) {
-				list.add(c);
-			}
-		}
-		return list;
-	}
-
 	public void styleItem(GraphItem item) {
 		GraphItemStyler.styleItem(item, getLabelProvider());
 		if (item instanceof GraphConnection) {
@@ -175,12 +175,15 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 		if (source == null || dest == null) {
 			return null;
 		}
+		if (reconciledConnections != null) {
+			reconciledConnections.add(element);
+		}
 		GraphConnection oldConnection = viewer.getGraphModelConnection(element);
 		GraphNode sn = viewer.getGraphModelNode(source);
 		GraphNode dn = viewer.getGraphModelNode(dest);
 		if (oldConnection != null) {
 			if (sn != oldConnection.getSource() || dn != oldConnection.getDestination()) {
-				viewer.removeGraphModelConnection(oldConnection);
+				viewer.removeGraphModelConnection(element);
 			} else {
 				styleItem(oldConnection);
 				return oldConnection;
@@ -226,8 +229,17 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 	 */
 	public GraphNode createNode(Graph graph, Object element, IFigure figure) {
 		GraphNode node = null;
+		if (reconciledNodes != null) {
+			reconciledNodes.add(element);
+		}
 		if (getContentProvider() instanceof INestedContentProvider) {
 			boolean isContainer = ((INestedContentProvider) getContentProvider()).hasChildren(element);
+			GraphNode oldNode = viewer.getGraphModelNode(element);
+			if (oldNode != null && isContainer != oldNode instanceof GraphContainer) {
+				// the element gained or lost its children, so it needs another kind of
+				// node
+				viewer.removeGraphModelNode(element);
+			}
 			if (isContainer) {
 				node = viewer.addGraphModelContainer(element);
 				styleItem(node);
@@ -237,6 +249,9 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 					return node;
 				}
 				for (Object childNode2 : childNodes) {
+					if (reconciledNodes != null) {
+						reconciledNodes.add(childNode2);
+					}
 					GraphNode childNode = viewer.addGraphModelNode((IContainer) node, childNode2);
 					styleItem(childNode);
 				}
@@ -316,6 +331,10 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 	 */
 	@Override
 	public void refreshGraph(Graph graph) {
+		if (viewer.isReconcileInput()) {
+			reconcileGraph(graph);
+			return;
+		}
 		// with this kind of graph, it is just as easy and cost-effective to
 		// rebuild the whole thing.
 
@@ -354,6 +373,95 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 		}
 	}
 
+	/**
+	 * Builds the graph model from the viewer's content provider, reusing the nodes
+	 * and connections of the elements which are already in the graph. Only the
+	 * items of new elements are created, and only the items of elements which are
+	 * gone are disposed. Surviving items keep their figures and locations and are
+	 * restyled.
+	 */
+	@Override
+	public boolean reconcileGraph(Graph graph) {
+		Set<GraphNode> oldNodes = new HashSet<>(viewer.getNodesMap().values());
+		Set<GraphConnection> oldConnections = new HashSet<>();
+		for (Object element : viewer.getConnectionElements()) {
+			oldConnections.add(viewer.getGraphModelConnection(element));
+		}
+		reconciledNodes = new HashSet<>();
+		reconciledConnections = new HashSet<>();
+		boolean changed = false;
+		try {
+			doBuildGraph(graph);
+			// connections first, so that removing their nodes doesn't leave disposed
+			// connections in the viewer
+			for (Object element : viewer.getConnectionElements()) {
+				if (!reconciledConnections.contains(element)) {
+					viewer.removeGraphModelConnection(element);
+					changed = true;
+				}
+			}
+			for (Object element : viewer.getNodeElements()) {
+				if (!reconciledNodes.contains(element)) {
+					viewer.removeGraphModelNode(element);
+					changed = true;
+				}
+			}
+		} finally {
+			reconciledNodes = null;
+			reconciledConnections = null;
+		}
+		if (!changed) {
+			changed = !oldNodes.containsAll(viewer.getNodesMap().values());
+		}
+		if (!changed) {
+			for (Object element : viewer.getConnectionElements()) {
+				if (!oldConnections.contains(viewer.getGraphModelConnection(element))) {
+					changed = true;
+					break;
+				}
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Clears the graph and starts building it progressively: the content provider
+	 * is queried on a background thread and the items are added to the graph in
+	 * batches on the UI thread. The content provider must therefore be safe to
+	 * call from another thread. Nodes and connections are found the same way as in
+	 * {@link #doBuildGraph(Graph)}, except that the children of nested content are
+	 * created when their container is added.
+	 */
+	@Override
+	public Graph createGraphModelDeferred(Graph model) {
+		prepareGraph(model);
+		deferredBuilder = new DeferredGraphBuilder(this, viewer, model);
+		deferredBuilder.start();
+		return model;
+	}
+
+	void deferredBuildFinished(DeferredGraphBuilder builder) {
+		if (deferredBuilder == builder) {
+			deferredBuilder = null;
+		}
+	}
+
+	private void cancelDeferredBuild() {
+		if (deferredBuilder != null) {
+			deferredBuilder.cancel();
+			deferredBuilder = null;
+		}
+	}
+
+	/**
+	 * Returns whether the node of given element has been built by
+	 * {@link #doBuildGraph(Graph)}. While reconciling, the viewer still has the
+	 * nodes of removed elements, which are disposed only at the end.
+	 */
+	protected boolean isBuiltNode(Object element) {
+		return reconciledNodes == null || reconciledNodes.contains(element);
+	}
+
 	/**
 	 * Convenience method for clearing all the elements in the graph.
 	 *
@@ -373,12 +481,24 @@ public abstract class AbstractStylingModelFactory implements IStylingGraphModelF
 
 	/**
 	 * Builds the graph model from the viewer's content provider. There is no
-	 * guarantee that the model will be cleared before this method is called.
+	 * guarantee that the model will be cleared before this method is called. While
+	 * reconciling, the model is not cleared and the existing items are reused.
 	 *
 	 * @param model
 	 */
 	protected void doBuildGraph(Graph model) {
-		clearGraph(model);
+		prepareGraph(model);
+	}
+
+	/**
+	 * Stops a deferred build, clears the model unless reconciling, and applies the
+	 * styles and constraint adapters of this factory to it.
+	 */
+	private void prepareGraph(Graph model) {
+		cancelDeferredBuild();
+		if (reconciledNodes == null) {
+			clearGraph(model);
+		}
 		model.setConnectionStyle(getConnectionStyle());
 		model.setNodeStyle(getNodeStyle());
 		model.setConstraintAdapters(constraintAdapters);
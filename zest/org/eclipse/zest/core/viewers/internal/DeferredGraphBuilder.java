@@ -0,0 +1,294 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.zest.core.viewers.internal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jface.viewers.IStructuredContentProvider;
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.zest.core.viewers.AbstractStructuredGraphViewer;
+import org.eclipse.zest.core.viewers.EntityConnectionData;
+import org.eclipse.zest.core.viewers.IGraphContentProvider;
+import org.eclipse.zest.core.viewers.IGraphEntityContentProvider;
+import org.eclipse.zest.core.viewers.IGraphEntityRelationshipContentProvider;
+import org.eclipse.zest.core.widgets.Graph;
+import org.eclipse.zest.core.widgets.GraphNode;
+
+/**
+ * Builds a graph progressively. The content provider is queried on a
+ * background thread, which queues the nodes and connections it finds. The UI
+ * thread adds the queued items to the graph in batches, one batch every
+ * {@value #BATCH_INTERVAL} milliseconds.
+ * <p>
+ * The graph is laid out after a batch only once its node count has grown by
+ * {@value #LAYOUT_GROWTH} times since the last layout, and once more when the
+ * build is complete. Since the layouts grow geometrically, laying out while
+ * building costs about as much as the final layout alone, instead of one full
+ * layout per batch. Dynamic layout is disabled for the whole build, so that
+ * adding items doesn't trigger layouts of its own.
+ * </p>
+ * <p>
+ * Filtering, labels and figures are still handled on the UI thread, by the
+ * factory which started the build.
+ * </p>
+ */
+final class DeferredGraphBuilder implements Runnable {
+
+	private static final int BATCH_INTERVAL = 50;
+
+	/**
+	 * Time a batch may take, so that the UI stays responsive while the queue is
+	 * long.
+	 */
+	private static final long BATCH_DURATION = TimeUnit.MILLISECONDS.toNanos(25);
+
+	/**
+	 * Factor the node count has to grow by before the graph is laid out again
+	 * during the build.
+	 */
+	private static final int LAYOUT_GROWTH = 2;
+
+	/**
+	 * A node or connection found by the background thread.
+	 */
+	private static final class Item {
+		final Object element;
+		final Object source;
+		final Object dest;
+		/**
+		 * True for the connection between a tree element and its child, whose
+		 * connection element can only be created once both nodes exist.
+		 */
+		final boolean isTreeConnection;
+
+		Item(Object element, Object source, Object dest, boolean isTreeConnection) {
+			this.element = element;
+			this.source = source;
+			this.dest = dest;
+			this.isTreeConnection = isTreeConnection;
+		}
+
+		boolean isNode() {
+			return source == null && dest == null && !isTreeConnection;
+		}
+	}
+
+	private final AbstractStylingModelFactory factory;
+	private final AbstractStructuredGraphViewer viewer;
+	private final Graph graph;
+	private final Object input;
+	private final IStructuredContentProvider contentProvider;
+	private final Queue<Item> items = new ConcurrentLinkedQueue<>();
+	private volatile boolean cancelled = false;
+	private volatile boolean fetched = false;
+	private volatile RuntimeException failure = null;
+	private int nodesAtLastLayout = 0;
+	private boolean isLayoutPending = false;
+	private boolean dynamicLayout;
+	private boolean isDynamicLayoutRestored = false;
+
+	DeferredGraphBuilder(AbstractStylingModelFactory factory, AbstractStructuredGraphViewer viewer, Graph graph) {
+		this.factory = factory;
+		this.viewer = viewer;
+		this.graph = graph;
+		this.input = viewer.getInput();
+		this.contentProvider = factory.getContentProvider();
+	}
+
+	void start() {
+		Thread thread = new Thread(this, "Zest Content Loader"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		thread.start();
+		dynamicLayout = graph.isDynamicLayoutEnabled();
+		graph.setDynamicLayout(false);
+		graph.getDisplay().timerExec(BATCH_INTERVAL, this::addBatch);
+	}
+
+	/**
+	 * Stops the build and restores dynamic layout. Items which have already been
+	 * added stay in the graph.
+	 */
+	void cancel() {
+		cancelled = true;
+		restoreDynamicLayout();
+	}
+
+	private void restoreDynamicLayout() {
+		if (!isDynamicLayoutRestored) {
+			isDynamicLayoutRestored = true;
+			if (!graph.isDisposed()) {
+				graph.setDynamicLayout(dynamicLayout);
+			}
+		}
+	}
+
+	@Override
+	public void run() {
+		try {
+			fetch();
+		} catch (RuntimeException e) {
+			failure = e;
+		} finally {
+			fetched = true;
+		}
+	}
+
+	private void fetch() {
+		Object[] elements = contentProvider.getElements(input);
+		if (elements == null) {
+			return;
+		}
+		if (contentProvider instanceof IGraphEntityContentProvider) {
+			IGraphEntityContentProvider provider = (IGraphEntityContentProvider) contentProvider;
+			for (int i = 0; i < elements.length && !cancelled; i++) {
+				items.add(new Item(elements[i], null, null, false));
+			}
+			for (int i = 0; i < elements.length && !cancelled; i++) {
+				Object[] related = provider.getConnectedTo(elements[i]);
+				if (related != null) {
+					for (Object element : related) {
+						items.add(new Item(new EntityConnectionData(elements[i], element), elements[i], element, false));
+					}
+				}
+			}
+		} else if (contentProvider instanceof IGraphEntityRelationshipContentProvider) {
+			IGraphEntityRelationshipContentProvider provider = (IGraphEntityRelationshipContentProvider) contentProvider;
+			for (int i = 0; i < elements.length && !cancelled; i++) {
+				items.add(new Item(elements[i], null, null, false));
+			}
+			for (int i = 0; i < elements.length && !cancelled; i++) {
+				for (Object dest : elements) {
+					Object[] relationships = provider.getRelationships(elements[i], dest);
+					if (relationships != null) {
+						for (Object relationship : relationships) {
+							items.add(new Item(relationship, elements[i], dest, false));
+						}
+					}
+				}
+			}
+		} else if (contentProvider instanceof IGraphContentProvider) {
+			IGraphContentProvider provider = (IGraphContentProvider) contentProvider;
+			for (int i = 0; i < elements.length && !cancelled; i++) {
+				Object source = provider.getSource(elements[i]);
+				Object dest = provider.getDestination(elements[i]);
+				if (source == null || dest == null) {
+					Object node = source != null ? source : dest;
+					if (node != null) {
+						items.add(new Item(node, null, null, false));
+					}
+				} else {
+					items.add(new Item(elements[i], source, dest, false));
+				}
+			}
+		} else if (contentProvider instanceof ITreeContentProvider) {
+			for (int i = 0; i < elements.length && !cancelled; i++) {
+				fetchTree((ITreeContentProvider) contentProvider, elements[i]);
+			}
+		}
+	}
+
+	private void fetchTree(ITreeContentProvider provider, Object element) {
+		items.add(new Item(element, null, null, false));
+		if (provider.hasChildren(element)) {
+			for (Object child : provider.getChildren(element)) {
+				if (cancelled) {
+					return;
+				}
+				fetchTree(provider, child);
+				items.add(new Item(null, element, child, true));
+			}
+		}
+	}
+
+	/**
+	 * Adds the queued items to the graph, for at most {@link #BATCH_DURATION}.
+	 */
+	private void addBatch() {
+		if (cancelled || graph.isDisposed()) {
+			cancelled = true;
+			return;
+		}
+		// read before draining the queue, so that no item queued after the check
+		// is left behind
+		boolean isComplete = fetched;
+		long deadline = System.nanoTime() + BATCH_DURATION;
+		boolean added = false;
+		try {
+			Item item;
+			while (System.nanoTime() < deadline && (item = items.poll()) != null) {
+				add(item);
+				added = true;
+			}
+		} catch (RuntimeException e) {
+			cancelled = true;
+			factory.deferredBuildFinished(this);
+			restoreDynamicLayout();
+			throw e;
+		}
+		isLayoutPending |= added;
+		boolean isFinished = isComplete && items.isEmpty();
+		if (isLayoutPending) {
+			int nodeCount = graph.getNodes().size();
+			if (isFinished || nodeCount >= (long) nodesAtLastLayout * LAYOUT_GROWTH) {
+				viewer.applyLayout();
+				nodesAtLastLayout = Math.max(1, nodeCount);
+				isLayoutPending = false;
+			}
+		}
+		if (isFinished) {
+			factory.deferredBuildFinished(this);
+			// requested right after the final layout, so both are coalesced
+			restoreDynamicLayout();
+			if (failure != null) {
+				throw failure;
+			}
+			return;
+		}
+		graph.getDisplay().timerExec(BATCH_INTERVAL, this::addBatch);
+	}
+
+	private void add(Item item) {
+		if (item.isNode()) {
+			if (!factory.filterElement(input, item.element)) {
+				factory.createNode(graph, item.element);
+			}
+			return;
+		}
+		boolean isSourceFiltered = factory.filterElement(input, item.source);
+		boolean isDestFiltered = factory.filterElement(input, item.dest);
+		if (isSourceFiltered || isDestFiltered) {
+			// like the factories, keep the nodes which are not filtered
+			if (!isSourceFiltered) {
+				getOrCreateNode(item.source);
+			}
+			if (!isDestFiltered) {
+				getOrCreateNode(item.dest);
+			}
+			return;
+		}
+		Object element = item.element;
+		if (item.isTreeConnection) {
+			element = new EntityConnectionData(getOrCreateNode(item.source), getOrCreateNode(item.dest));
+		}
+		if (!factory.filterElement(input, element)) {
+			factory.createConnection(graph, element, item.source, item.dest);
+		}
+	}
+
+	private GraphNode getOrCreateNode(Object element) {
+		GraphNode node = viewer.getGraphModelNode(element);
+		if (node == null) {
+			node = factory.createNode(graph, element);
+		}
+		return node;
+	}
+}
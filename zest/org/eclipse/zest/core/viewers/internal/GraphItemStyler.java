@@ -27,8 +27,10 @@ import org.eclipse.zest.core.viewers.IEntityConnectionStyleProvider2;
 import org.eclipse.zest.core.viewers.IEntityStyleProvider;
 import org.eclipse.zest.core.viewers.ISelfStyleProvider;
 import org.eclipse.zest.core.widgets.GraphConnection;
+import org.eclipse.zest.core.widgets.GraphConnectionStyle;
 import org.eclipse.zest.core.widgets.GraphItem;
 import org.eclipse.zest.core.widgets.GraphNode;
+import org.eclipse.zest.core.widgets.GraphNodeStyle;
 import org.eclipse.zest.core.widgets.ZestStyles;
 
 import org.eclipse.draw2d.ConnectionRouter;
@@ -53,18 +55,22 @@ public class GraphItemStyler {
 				node.setNodeStyle(SWT.NONE);
 			}
 			Object entity = node.getData();
+			// the style is set once, instead of updating the figure for each
+			// property
+			GraphNodeStyle style = node.getSharedStyle();
 			if (labelProvider instanceof IEntityStyleProvider) {
-				styleNode(node, (IEntityStyleProvider) labelProvider);
+				style = styleNode(node, style, (IEntityStyleProvider) labelProvider);
 			}
 			if (labelProvider instanceof IColorProvider) {
 				IColorProvider colorProvider = (IColorProvider)labelProvider;
-				node.setForegroundColor(colorProvider.getForeground(entity));
-				node.setBackgroundColor(colorProvider.getBackground(entity));
+				style = style.withForegroundColor(colorProvider.getForeground(entity))
+						.withBackgroundColor(colorProvider.getBackground(entity));
 			}
 			if (labelProvider instanceof IFontProvider) {
 				IFontProvider fontProvider = (IFontProvider)labelProvider;
-				node.setFont(fontProvider.getFont(entity));
+				style = style.withFont(fontProvider.getFont(entity));
 			}
+			node.setSharedStyle(style);
 			if (labelProvider instanceof ILabelProvider) {
 				String text = ((ILabelProvider) labelProvider).getText(node.getData());
 				node.setText((text != null) ? text : ""); //$NON-NLS-1$
@@ -84,16 +90,18 @@ public class GraphItemStyler {
 			}
 			if (labelProvider instanceof ILabelProvider) {
 				String text = ((ILabelProvider) labelProvider).getText(conn.getExternalConnection());
-				conn.setText((text != null) ? text : ""); //$NON-NLS-1$
+				// setImage doesn't update the figure, setText does
 				conn.setImage(((ILabelProvider) labelProvider).getImage(conn.getExternalConnection()));
+				conn.setText((text != null) ? text : ""); //$NON-NLS-1$
 			}
+			GraphConnectionStyle style = conn.getSharedStyle();
 			if (labelProvider instanceof IEntityConnectionStyleProvider) {
-				styleEntityConnection(conn, (IEntityConnectionStyleProvider) labelProvider);
+				style = styleEntityConnection(conn, style, (IEntityConnectionStyleProvider) labelProvider);
 			} else if (labelProvider instanceof IConnectionStyleProvider) {
-				styleConnection(conn, (IConnectionStyleProvider) labelProvider);
+				style = styleConnection(conn, style, (IConnectionStyleProvider) labelProvider);
 			}
 			int swt = getLineStyleForZestStyle(conn.getConnectionStyle());
-			conn.setLineStyle(swt);
+			conn.setSharedStyle(style.withLineStyle(swt));
 			if (labelProvider instanceof ISelfStyleProvider) {
 				((ISelfStyleProvider) labelProvider).selfStyleConnection(conn.getData(), conn);
 			}
@@ -102,17 +110,20 @@ public class GraphItemStyler {
 
 	/**
 	 * @param conn
+	 * @param style    the style to derive the style of the connection from
 	 * @param provider
+	 * @return the style of the connection
 	 */
-	private static void styleConnection(GraphConnection conn, IConnectionStyleProvider provider) {
+	private static GraphConnectionStyle styleConnection(GraphConnection conn, GraphConnectionStyle style,
+			IConnectionStyleProvider provider) {
 		Object rel = conn.getExternalConnection();
 		Color c;
-		int style = provider.getConnectionStyle(rel);
-		if (!ZestStyles.validateConnectionStyle(style)) {
+		int connectionStyle = provider.getConnectionStyle(rel);
+		if (!ZestStyles.validateConnectionStyle(connectionStyle)) {
 			throw new SWTError(SWT.ERROR_INVALID_ARGUMENT);
 		}
-		if (style != ZestStyles.NONE) {
-			conn.setConnectionStyle(style);
+		if (connectionStyle != ZestStyles.NONE) {
+			conn.setConnectionStyle(connectionStyle);
 		}
 		// @tag bug(152530-Bezier(fix))
 		// @tat TODO curves bezier: Add back the bezier connection stuff
@@ -136,10 +147,10 @@ public class GraphItemStyler {
 		// }
 		// }
 		if ((c = provider.getHighlightColor(rel)) != null) {
-			conn.setHighlightColor(c);
+			style = style.withHighlightColor(c);
 		}
 		if ((c = provider.getColor(rel)) != null) {
-			conn.setLineColor(c);
+			style = style.withLineColor(c);
 		}
 		IFigure tooltip;
 		if ((tooltip = provider.getTooltip(rel)) != null) {
@@ -147,7 +158,7 @@ public class GraphItemStyler {
 		}
 		int w = -1;
 		if ((w = provider.getLineWidth(rel)) >= 0) {
-			conn.setLineWidth(w);
+			style = style.withLineWidth(w);
 		}
 		if (provider instanceof IConnectionStyleProvider2) {
 			ConnectionRouter cr;
@@ -155,22 +166,26 @@ public class GraphItemStyler {
 				conn.setRouter(cr);
 			}
 		}
+		return style;
 	}
 
 	/**
 	 * @param conn
+	 * @param style    the style to derive the style of the connection from
 	 * @param provider
+	 * @return the style of the connection
 	 */
-	private static void styleEntityConnection(GraphConnection conn, IEntityConnectionStyleProvider provider) {
+	private static GraphConnectionStyle styleEntityConnection(GraphConnection conn, GraphConnectionStyle style,
+			IEntityConnectionStyleProvider provider) {
 		Object src = conn.getSource().getData();
 		Object dest = conn.getDestination().getData();
 		Color c;
-		int style = provider.getConnectionStyle(src, dest);
-		if (!ZestStyles.validateConnectionStyle(style)) {
+		int connectionStyle = provider.getConnectionStyle(src, dest);
+		if (!ZestStyles.validateConnectionStyle(connectionStyle)) {
 			throw new SWTError(SWT.ERROR_INVALID_ARGUMENT);
 		}
-		if (style != ZestStyles.NONE) {
-			conn.setConnectionStyle(style);
+		if (connectionStyle != ZestStyles.NONE) {
+			conn.setConnectionStyle(connectionStyle);
 		}
 		// @tag bug(152530-Bezier(fisx))
 		// @tag TODO curved connections bezier : add back the bezier connection
@@ -195,10 +210,10 @@ public class GraphItemStyler {
 		// }
 		// }
 		if ((c = provider.getColor(src, dest)) != null) {
-			conn.setLineColor(c);
+			style = style.withLineColor(c);
 		}
 		if ((c = provider.getHighlightColor(src, dest)) != null) {
-			conn.setHighlightColor(c);
+			style = style.withHighlightColor(c);
 		}
 		if (provider instanceof IEntityConnectionStyleProvider2) {
 			IFigure tooltip;
@@ -208,7 +223,7 @@ public class GraphItemStyler {
 		}
 		int w = -1;
 		if ((w = provider.getLineWidth(src, dest)) >= 0) {
-			conn.setLineWidth(w);
+			style = style.withLineWidth(w);
 		}
 		if (provider instanceof IEntityConnectionStyleProvider2) {
 			ConnectionRouter cr;
@@ -216,17 +231,19 @@ public class GraphItemStyler {
 				conn.setRouter(cr);
 			}
 		}
+		return style;
 	}
 
 	/**
 	 * Styles the given node according to the properties in the style provider.
 	 *
 	 * @param node     the graph element to style.
-	 * @param data     the element that is being styled.
+	 * @param style    the style to derive the style of the node from.
 	 * @param provider the style provier.
+	 * @return the style of the node.
 	 */
 	// @tag bug(151327-Styles) : resolution
-	private static void styleNode(GraphNode node, IEntityStyleProvider provider) {
+	private static GraphNodeStyle styleNode(GraphNode node, GraphNodeStyle style, IEntityStyleProvider provider) {
 		Object entity = node.getData();
 		// @tag ADJACENT : Removed highlight adjacent
 		// node.setHighlightAdjacentNodes(provider.highlightAdjacentEntities(entity));
@@ -244,27 +261,27 @@ public class GraphItemStyler {
 			node.setNodeStyle(node.getNodeStyle() | ZestStyles.NODES_FISHEYE);
 		}
 		if ((c = provider.getBorderColor(entity)) != null) {
-			node.setBorderColor(c);
+			style = style.withBorderColor(c);
 		}
 		if ((c = provider.getBorderHighlightColor(entity)) != null) {
-			node.setBorderHighlightColor(c);
+			style = style.withBorderHighlightColor(c);
 		}
 		if ((c = provider.getNodeHighlightColor(entity)) != null) {
-			node.setHighlightColor(c);
+			style = style.withHighlightColor(c);
 		}
 		if ((c = provider.getBackgroundColour(entity)) != null) {
-			node.setBackgroundColor(c);
+			style = style.withBackgroundColor(c);
 		}
 		if ((c = provider.getForegroundColour(entity)) != null) {
-			node.setForegroundColor(c);
+			style = style.withForegroundColor(c);
 		}
 		if ((width = provider.getBorderWidth(entity)) >= 0) {
-			node.setBorderWidth(width);
+			style = style.withBorderWidth(width);
 		}
 		if ((figure = provider.getTooltip(entity)) != null) {
 			node.setTooltip(figure);
 		}
-
+		return style;
 	}
 
 	/**
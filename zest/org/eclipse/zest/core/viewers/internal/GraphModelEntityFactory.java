@@ -86,7 +86,7 @@ public class GraphModelEntityFactory extends AbstractStylingModelFactory {
 
 		for (Object data : entities) {
 			// If this element is filtered, continue to the next one.
-			if (filterElement(inputElement, data)) {
+			if (filterElement(inputElement, data) || !isBuiltNode(data)) {
 				continue;
 			}
 			Object[] related = ((IGraphEntityContentProvider) getContentProvider()).getConnectedTo(data);
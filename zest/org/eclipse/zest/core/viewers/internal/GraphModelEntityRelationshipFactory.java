@@ -84,6 +84,7 @@ public class GraphModelEntityRelationshipFactory extends AbstractStylingModelFac
 				listOfNodes.addAll(childNodes);
 			}
 		}
+		listOfNodes.removeIf(node -> !isBuiltNode(node.getData()));
 		modelNodes = listOfNodes.toArray(new GraphNode[listOfNodes.size()]);
 
 		IGraphEntityRelationshipContentProvider content = getCastedContent();
@@ -61,6 +61,20 @@ public interface IStylingGraphModelFactory {
 	 */
 	public Graph createGraphModel(Graph model);
 
+	/**
+	 * Starts creating the graph model like {@link #createGraphModel(Graph)}, but
+	 * returns before the model is complete. The content provider is queried in the
+	 * background and the nodes and connections are added to the graph as they are
+	 * found. The default implementation creates the whole model right away.
+	 *
+	 * @param model the graph to create the model on
+	 * @return the graph, which may not contain all items yet
+	 * @since 1.16
+	 */
+	public default Graph createGraphModelDeferred(Graph model) {
+		return createGraphModel(model);
+	}
+
 	/**
 	 * Creates and returns a node on the given graph based on the user model data,
 	 * "data", using the content provider returned by getContentProvider(). They
@@ -136,6 +150,21 @@ public interface IStylingGraphModelFactory {
 	 */
 	public void refreshGraph(Graph graph);
 
+	/**
+	 * Structurally refreshes the entire graph, keeping the nodes and connections of
+	 * the elements which are still in the model and creating or disposing only the
+	 * items of added or removed elements. The default implementation refreshes the
+	 * whole graph.
+	 *
+	 * @param graph the graph to reconcile
+	 * @return true if items have been added or removed
+	 * @since 1.16
+	 */
+	public default boolean reconcileGraph(Graph graph) {
+		refreshGraph(graph);
+		return true;
+	}
+
 	/**
 	 * Returns the viewer that this factory is building the model for.
 	 *
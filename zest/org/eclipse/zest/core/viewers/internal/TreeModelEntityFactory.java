@@ -108,7 +108,7 @@ public class TreeModelEntityFactory extends AbstractStylingModelFactory {
 			data = new EntityConnectionData(sourceNode, destNode);
 			oldConnection = viewer.getGraphModelConnection(data);
 			if (oldConnection != null) {
-				viewer.removeGraphModelConnection(oldConnection);
+				viewer.removeGraphModelConnection(data);
 				newConnection = createConnection(graph, data, sourceNode.getData(), destNode.getData());
 				if (updateLabels) {
 					styleItem(newConnection);
@@ -50,6 +50,13 @@ public class CGraphNode extends GraphNode {
 		getFigure().setFont(font);
 	}
 
+	@Override
+	public void setSharedStyle(GraphNodeStyle style) {
+		super.setSharedStyle(style);
+		getFigure().setBackgroundColor(style.getBackgroundColor());
+		getFigure().setFont(style.getFont());
+	}
+
 	@Override
 	public Color getBackgroundColor() {
 		return getFigure().getBackgroundColor();
@@ -0,0 +1,449 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.zest.core.widgets;
+
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.zest.layouts.InvalidLayoutConfiguration;
+import org.eclipse.zest.layouts.LayoutAlgorithm;
+import org.eclipse.zest.layouts.LayoutBendPoint;
+import org.eclipse.zest.layouts.LayoutEntity;
+import org.eclipse.zest.layouts.LayoutRelationship;
+import org.eclipse.zest.layouts.algorithms.AbstractLayoutAlgorithm;
+import org.eclipse.zest.layouts.algorithms.CompositeLayoutAlgorithm;
+import org.eclipse.zest.layouts.constraints.LayoutConstraint;
+import org.eclipse.zest.layouts.dataStructures.DisplayIndependentRectangle;
+import org.eclipse.zest.layouts.progress.ProgressEvent;
+import org.eclipse.zest.layouts.progress.ProgressListener;
+
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.RangeModel;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * Defers the layout of {@link GraphContainer}s until they are shown. A
+ * container whose layout is requested while it's closed or outside of the
+ * visible part of the graph is remembered and laid out once it's opened or
+ * scrolled into view.
+ * <p>
+ * Containers revealed at the same time are laid out together. Those using a
+ * Zest 1.x layout algorithm are laid out in parallel, on copies of their nodes
+ * and connections which are detached from the widgets. The results are applied
+ * on the UI thread when each layout has finished.
+ * </p>
+ *
+ * @see Graph#setLazyContainerLayout(boolean)
+ */
+@SuppressWarnings("removal")
+class ContainerLayoutScheduler {
+
+	private final Graph graph;
+	private final Set<GraphContainer> pendingContainers = new LinkedHashSet<>();
+	/** The most recent detached layout of each container, until it's applied. */
+	private final Map<GraphContainer, DetachedLayout> detachedLayouts = new IdentityHashMap<>();
+	private final PropertyChangeListener viewportListener = event -> scheduleRevealCheck();
+	private boolean listening;
+	private boolean revealCheckScheduled;
+
+	ContainerLayoutScheduler(Graph graph) {
+		this.graph = graph;
+	}
+
+	/**
+	 * Remembers that given container has to be laid out when it's revealed.
+	 */
+	void schedule(GraphContainer container) {
+		detachedLayouts.remove(container);
+		pendingContainers.add(container);
+		if (!listening) {
+			getHorizontalRangeModel().addPropertyChangeListener(viewportListener);
+			getVerticalRangeModel().addPropertyChangeListener(viewportListener);
+			listening = true;
+		}
+	}
+
+	/**
+	 * Forgets a pending layout of given container, because it's being laid out
+	 * right away.
+	 */
+	void cancel(GraphContainer container) {
+		detachedLayouts.remove(container);
+		if (pendingContainers.remove(container)) {
+			stopListeningIfIdle();
+		}
+	}
+
+	/**
+	 * Called when the visibility of containers might have changed, for example
+	 * after one has been opened.
+	 */
+	void scheduleRevealCheck() {
+		if (revealCheckScheduled || pendingContainers.isEmpty()) {
+			return;
+		}
+		revealCheckScheduled = true;
+		graph.getDisplay().asyncExec(() -> {
+			revealCheckScheduled = false;
+			if (!graph.isDisposed()) {
+				layoutRevealedContainers();
+			}
+		});
+	}
+
+	/**
+	 * Lays out all pending containers, whether they are revealed or not.
+	 */
+	void layoutAll() {
+		List<GraphContainer> containers = new ArrayList<>(pendingContainers);
+		pendingContainers.clear();
+		stopListeningIfIdle();
+		for (GraphContainer container : containers) {
+			detachedLayouts.remove(container);
+			if (!container.isDisposed()) {
+				container.doApplyLayout();
+			}
+		}
+	}
+
+	/**
+	 * @return true if given container is open and at least partially within the
+	 *         visible part of the graph
+	 */
+	static boolean isRevealed(GraphContainer container) {
+		if (!container.isExpanded()) {
+			return false;
+		}
+		IFigure figure = container.getNodeFigure();
+		if (figure == null || !figure.isShowing()) {
+			return false;
+		}
+		IFigure viewport = container.getGraph().getViewport();
+		Rectangle visibleArea = viewport.getBounds().getCopy();
+		viewport.translateToAbsolute(visibleArea);
+		Rectangle bounds = figure.getBounds().getCopy();
+		figure.translateToAbsolute(bounds);
+		return bounds.intersects(visibleArea);
+	}
+
+	private void layoutRevealedContainers() {
+		List<GraphContainer> revealed = new ArrayList<>();
+		for (Iterator<GraphContainer> iterator = pendingContainers.iterator(); iterator.hasNext();) {
+			GraphContainer container = iterator.next();
+			if (container.isDisposed()) {
+				iterator.remove();
+			} else if (isRevealed(container)) {
+				iterator.remove();
+				revealed.add(container);
+			}
+		}
+		stopListeningIfIdle();
+		if (revealed.isEmpty()) {
+			return;
+		}
+
+		// an algorithm instance can only run one layout at a time, so only
+		// containers with an algorithm of their own can be laid out in parallel
+		Map<LayoutAlgorithm, Integer> algorithmUsage = new IdentityHashMap<>();
+		for (GraphContainer container : revealed) {
+			container.prepareLayoutAlgorithm();
+			algorithmUsage.merge(container.getLayoutAlgorithm(), Integer.valueOf(1),
+					(a, b) -> Integer.valueOf(a.intValue() + b.intValue()));
+		}
+		for (GraphContainer container : revealed) {
+			LayoutAlgorithm algorithm = container.getLayoutAlgorithm();
+			if (canLayoutDetached(algorithm) && algorithmUsage.get(algorithm).intValue() == 1) {
+				new DetachedLayout(container, (AbstractLayoutAlgorithm.Zest1) algorithm).start();
+			} else {
+				detachedLayouts.remove(container);
+				container.doApplyLayout();
+			}
+		}
+	}
+
+	private boolean canLayoutDetached(LayoutAlgorithm algorithm) {
+		// constraint adapters are client code expecting to run on the UI thread;
+		// a composite algorithm runs its parts on the calling thread
+		return algorithm instanceof AbstractLayoutAlgorithm.Zest1
+				&& !(algorithm instanceof CompositeLayoutAlgorithm.Zest1) && algorithm != graph.getLayoutAlgorithm()
+				&& !graph.hasConstraintAdapters();
+	}
+
+	private void stopListeningIfIdle() {
+		if (listening && pendingContainers.isEmpty()) {
+			getHorizontalRangeModel().removePropertyChangeListener(viewportListener);
+			getVerticalRangeModel().removePropertyChangeListener(viewportListener);
+			listening = false;
+		}
+	}
+
+	private RangeModel getHorizontalRangeModel() {
+		return graph.getViewport().getHorizontalRangeModel();
+	}
+
+	private RangeModel getVerticalRangeModel() {
+		return graph.getViewport().getVerticalRangeModel();
+	}
+
+	/**
+	 * Layout of a single container, computed on a worker thread on copies of its
+	 * nodes and connections. Its result is dropped if the container has been laid
+	 * out again in the meantime.
+	 */
+	private class DetachedLayout implements ProgressListener {
+		private final GraphContainer container;
+		private final AbstractLayoutAlgorithm.Zest1 algorithm;
+		private final DetachedEntity[] entities;
+		private final DetachedRelationship[] relationships;
+
+		@SuppressWarnings("deprecation")
+		DetachedLayout(GraphContainer container, AbstractLayoutAlgorithm.Zest1 algorithm) {
+			this.container = container;
+			this.algorithm = algorithm;
+			Graph graph = container.getGraph();
+			LayoutEntity[] liveEntities = graph.getNodesToLayout(container.getNodes());
+			LayoutRelationship[] liveRelationships = graph.getConnectionsToLayout(container.getNodes());
+			Map<LayoutEntity, DetachedEntity> copies = new IdentityHashMap<>(liveEntities.length);
+			entities = new DetachedEntity[liveEntities.length];
+			for (int i = 0; i < liveEntities.length; i++) {
+				entities[i] = new DetachedEntity(liveEntities[i]);
+				copies.put(liveEntities[i], entities[i]);
+			}
+			List<DetachedRelationship> relationshipList = new ArrayList<>(liveRelationships.length);
+			for (LayoutRelationship liveRelationship : liveRelationships) {
+				DetachedEntity source = copies.get(liveRelationship.getSourceInLayout());
+				DetachedEntity destination = copies.get(liveRelationship.getDestinationInLayout());
+				if (source != null && destination != null) {
+					relationshipList.add(new DetachedRelationship(liveRelationship, source, destination));
+				}
+			}
+			relationships = relationshipList.toArray(new DetachedRelationship[relationshipList.size()]);
+		}
+
+		void start() {
+			DisplayIndependentRectangle bounds = container.getLayoutBounds();
+			detachedLayouts.put(container, this);
+			algorithm.addProgressListener(this);
+			try {
+				algorithm.applyLayout(entities, relationships, bounds.x, bounds.y, bounds.width, bounds.height, true,
+						false);
+			} catch (InvalidLayoutConfiguration e) {
+				algorithm.removeProgressListener(this);
+				detachedLayouts.remove(container);
+				container.doApplyLayout();
+			}
+		}
+
+		@Override
+		public void progressStarted(ProgressEvent e) {
+			// nothing to do
+		}
+
+		@Override
+		public void progressUpdated(ProgressEvent e) {
+			// nothing to do
+		}
+
+		@Override
+		public void progressEnded(ProgressEvent e) {
+			algorithm.removeProgressListener(this);
+			container.getDisplay().asyncExec(() -> {
+				if (detachedLayouts.get(container) != this) {
+					// superseded by a newer layout of the container
+					return;
+				}
+				detachedLayouts.remove(container);
+				if (!container.isDisposed()) {
+					container.applyLayoutResult(this::apply);
+				}
+			});
+		}
+
+		private void apply() {
+			for (DetachedEntity entity : entities) {
+				entity.apply();
+			}
+			for (DetachedRelationship relationship : relationships) {
+				relationship.apply();
+			}
+		}
+	}
+
+	private static class DetachedEntity implements LayoutEntity {
+		private final LayoutEntity entity;
+		private final String text;
+		private final double initialWidth;
+		private final double initialHeight;
+		private volatile double x;
+		private volatile double y;
+		private volatile double width;
+		private volatile double height;
+		private Object layoutInformation;
+
+		DetachedEntity(LayoutEntity entity) {
+			this.entity = entity;
+			this.text = entity.toString();
+			this.x = entity.getXInLayout();
+			this.y = entity.getYInLayout();
+			this.width = initialWidth = entity.getWidthInLayout();
+			this.height = initialHeight = entity.getHeightInLayout();
+		}
+
+		void apply() {
+			if (width != initialWidth || height != initialHeight) {
+				entity.setSizeInLayout(width, height);
+			}
+			entity.setLocationInLayout(x, y);
+		}
+
+		@Override
+		public void setLocationInLayout(double x, double y) {
+			this.x = x;
+			this.y = y;
+		}
+
+		@Override
+		public void setSizeInLayout(double width, double height) {
+			this.width = width;
+			this.height = height;
+		}
+
+		@Override
+		public double getXInLayout() {
+			return x;
+		}
+
+		@Override
+		public double getYInLayout() {
+			return y;
+		}
+
+		@Override
+		public double getWidthInLayout() {
+			return width;
+		}
+
+		@Override
+		public double getHeightInLayout() {
+			return height;
+		}
+
+		@Override
+		public Object getLayoutInformation() {
+			return layoutInformation;
+		}
+
+		@Override
+		public void setLayoutInformation(Object internalEntity) {
+			this.layoutInformation = internalEntity;
+		}
+
+		@Override
+		public void populateLayoutConstraint(LayoutConstraint constraint) {
+			// constraint adapters are not supported for detached layouts
+		}
+
+		@Override
+		public int compareTo(Object otherEntity) {
+			if (text != null && otherEntity instanceof DetachedEntity) {
+				String otherText = ((DetachedEntity) otherEntity).text;
+				return otherText == null ? 0 : text.compareTo(otherText);
+			}
+			return 0;
+		}
+
+		@Override
+		public Object getGraphData() {
+			return entity.getGraphData();
+		}
+
+		@Override
+		public void setGraphData(Object o) {
+			// the graph data of the live entity is used
+		}
+
+		@Override
+		public String toString() {
+			return text;
+		}
+	}
+
+	private static class DetachedRelationship implements LayoutRelationship {
+		private final LayoutRelationship relationship;
+		private final DetachedEntity source;
+		private final DetachedEntity destination;
+		private volatile LayoutBendPoint[] bendPoints;
+		private Object layoutInformation;
+
+		DetachedRelationship(LayoutRelationship relationship, DetachedEntity source, DetachedEntity destination) {
+			this.relationship = relationship;
+			this.source = source;
+			this.destination = destination;
+		}
+
+		void apply() {
+			relationship.clearBendPoints();
+			if (bendPoints != null) {
+				relationship.setBendPoints(bendPoints);
+			}
+		}
+
+		@Override
+		public LayoutEntity getSourceInLayout() {
+			return source;
+		}
+
+		@Override
+		public LayoutEntity getDestinationInLayout() {
+			return destination;
+		}
+
+		@Override
+		public void setLayoutInformation(Object layoutInformation) {
+			this.layoutInformation = layoutInformation;
+		}
+
+		@Override
+		public Object getLayoutInformation() {
+			return layoutInformation;
+		}
+
+		@Override
+		public void setBendPoints(LayoutBendPoint[] bendPoints) {
+			this.bendPoints = bendPoints;
+		}
+
+		@Override
+		public void clearBendPoints() {
+			this.bendPoints = null;
+		}
+
+		@Override
+		public void populateLayoutConstraint(LayoutConstraint constraint) {
+			// constraint adapters are not supported for detached layouts
+		}
+
+		@Override
+		public Object getGraphData() {
+			return relationship.getGraphData();
+		}
+
+		@Override
+		public void setGraphData(Object o) {
+			// the graph data of the live relationship is used
+		}
+	}
+}
@@ -12,7 +12,13 @@
  ******************************************************************************/
 package org.eclipse.zest.core.widgets;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.zest.layouts.interfaces.ConnectionLayout;
@@ -103,6 +109,42 @@ public class DAGExpandCollapseManager implements ExpandCollapseManager {
 				return false;
 			}
 
+			@Override
+			public boolean structureChanged(LayoutContext context, NodeLayout[] addedNodes,
+					ConnectionLayout[] addedConnections) {
+				for (NodeLayout node : addedNodes) {
+					resetState(node);
+				}
+				for (ConnectionLayout connection : addedConnections) {
+					resetState(connection.getTarget());
+					updateNodeLabel(connection.getSource());
+				}
+				flushChanges(false, true);
+				return false;
+			}
+
+			@Override
+			public boolean structureRemoved(LayoutContext context, NodeLayout[] removedNodes,
+					ConnectionLayout[] removedConnections) {
+				Set<NodeLayout> removed = new HashSet<>(Arrays.asList(removedNodes));
+				for (NodeLayout node : removedNodes) {
+					// collapsing would only prune successors that are gone as well
+					setExpanded(node, false);
+					nodesToPrune.remove(node);
+					nodesToUnprune.remove(node);
+					nodesToUpdate.remove(node);
+				}
+				for (ConnectionLayout connection : removedConnections) {
+					NodeLayout target = connection.getTarget();
+					if (!removed.contains(target) && !isExpanded(target)
+							&& target.getIncomingConnections().length == 0) {
+						expand(target);
+					}
+				}
+				flushChanges(false, true);
+				return false;
+			}
+
 		});
 
 		context.addContextListener(new ContextListener.Stub() {
@@ -158,6 +200,154 @@ public class DAGExpandCollapseManager implements ExpandCollapseManager {
 		flushChanges(true, true);
 	}
 
+	/**
+	 * Expands or collapses all given nodes at once. Nodes are processed in
+	 * topological order, so expanding a node and its pruned successors together
+	 * shows all of them. The nodes which become pruned or unpruned are found in a
+	 * single pass over the successors of given nodes, and the layout is applied
+	 * only once, which makes this much faster than expanding or collapsing the
+	 * nodes one by one.
+	 *
+	 * @param nodes    the nodes to expand or collapse
+	 * @param expanded true to expand the nodes, false to collapse them
+	 * @throws IllegalStateException if this manager has not been initialized with
+	 *                               a layout context yet
+	 * @since 1.16
+	 */
+	public void setExpanded(Collection<? extends NodeLayout> nodes, boolean expanded) {
+		if (context == null) {
+			throw new IllegalStateException("Expansion has not been initialized"); //$NON-NLS-1$
+		}
+		Set<NodeLayout> changedNodes = new HashSet<>(nodes);
+		for (NodeLayout node : sortTopologically(changedNodes)) {
+			// a node is shown if it's at the top or has an expanded predecessor,
+			// which has already got its final state
+			boolean isShown = true;
+			NodeLayout[] predecessors = node.getPredecessingNodes();
+			for (int i = 0; i < predecessors.length; i++) {
+				isShown = isExpanded(predecessors[i]);
+				if (isShown) {
+					break;
+				}
+			}
+			boolean expand;
+			if (!isShown) {
+				pruneNode(node);
+				expand = false;
+			} else {
+				unpruneNode(node);
+				if (changedNodes.contains(node)) {
+					expand = expanded && node.getOutgoingConnections().length > 0;
+				} else {
+					expand = isExpanded(node);
+				}
+			}
+			if (expand != isExpanded(node)) {
+				setExpanded(node, expand);
+				updateNodeLabel(node);
+			}
+		}
+		for (NodeLayout node : changedNodes) {
+			for (ConnectionLayout connection : node.getOutgoingConnections()) {
+				connection.setVisible(expanded);
+			}
+		}
+		flushChanges(true, true);
+	}
+
+	/**
+	 * Expands all nodes of the layout context, so that all nodes and connections
+	 * are shown, and applies the layout once.
+	 *
+	 * @throws IllegalStateException if this manager has not been initialized with
+	 *                               a layout context yet
+	 * @see #setExpanded(Collection, boolean)
+	 * @since 1.16
+	 */
+	public void expandAll() {
+		if (context == null) {
+			throw new IllegalStateException("Expansion has not been initialized"); //$NON-NLS-1$
+		}
+		setExpanded(Arrays.asList(context.getNodes()), true);
+	}
+
+	/**
+	 * Collapses all nodes of the layout context, so that only the nodes at the top
+	 * are shown, and applies the layout once.
+	 *
+	 * @throws IllegalStateException if this manager has not been initialized with
+	 *                               a layout context yet
+	 * @see #setExpanded(Collection, boolean)
+	 * @since 1.16
+	 */
+	public void collapseAll() {
+		if (context == null) {
+			throw new IllegalStateException("Expansion has not been initialized"); //$NON-NLS-1$
+		}
+		setExpanded(Arrays.asList(context.getNodes()), false);
+	}
+
+	/**
+	 * Returns given nodes and all nodes reachable from them, each node after all
+	 * its predecessors among them. Nodes on cycles, which this manager doesn't
+	 * support, come last.
+	 */
+	private static List<NodeLayout> sortTopologically(Collection<NodeLayout> startNodes) {
+		// index the reachable nodes and their successors once
+		Map<NodeLayout, Integer> indices = new HashMap<>();
+		List<NodeLayout> nodes = new ArrayList<>(startNodes);
+		for (int i = 0; i < nodes.size(); i++) {
+			indices.put(nodes.get(i), Integer.valueOf(i));
+		}
+		List<NodeLayout[]> successors = new ArrayList<>();
+		for (int i = 0; i < nodes.size(); i++) {
+			NodeLayout[] nodeSuccessors = nodes.get(i).getSuccessingNodes();
+			successors.add(nodeSuccessors);
+			for (NodeLayout successor : nodeSuccessors) {
+				if (indices.putIfAbsent(successor, Integer.valueOf(nodes.size())) == null) {
+					nodes.add(successor);
+				}
+			}
+		}
+		int count = nodes.size();
+		int[][] adjacency = new int[count][];
+		int[] inDegrees = new int[count];
+		for (int i = 0; i < count; i++) {
+			NodeLayout[] nodeSuccessors = successors.get(i);
+			adjacency[i] = new int[nodeSuccessors.length];
+			for (int j = 0; j < nodeSuccessors.length; j++) {
+				adjacency[i][j] = indices.get(nodeSuccessors[j]).intValue();
+				inDegrees[adjacency[i][j]]++;
+			}
+		}
+		int[] order = new int[count];
+		int sorted = 0;
+		for (int i = 0; i < count; i++) {
+			if (inDegrees[i] == 0) {
+				order[sorted++] = i;
+			}
+		}
+		for (int next = 0; next < sorted; next++) {
+			for (int successor : adjacency[order[next]]) {
+				if (--inDegrees[successor] == 0) {
+					order[sorted++] = successor;
+				}
+			}
+		}
+		List<NodeLayout> result = new ArrayList<>(count);
+		for (int i = 0; i < sorted; i++) {
+			result.add(nodes.get(order[i]));
+		}
+		if (sorted < count) {
+			for (int i = 0; i < count; i++) {
+				if (inDegrees[i] > 0) {
+					result.add(nodes.get(i));
+				}
+			}
+		}
+		return result;
+	}
+
 	private void expand(NodeLayout node) {
 		setExpanded(node, true);
 		NodeLayout[] successingNodes = node.getSuccessingNodes();
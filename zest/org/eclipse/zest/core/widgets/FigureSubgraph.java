@@ -47,7 +47,7 @@ public abstract class FigureSubgraph extends DefaultSubgraph {
 
 		@Override
 		public void figureMoved(IFigure source) {
-			if (Animation.isAnimating() || isLayoutBeingApplied) {
+			if (Animation.isAnimating() || context.container.getGraph().isLayoutAnimating() || isLayoutBeingApplied) {
 				return;
 			}
 			Rectangle newBounds = figure.getBounds();
@@ -0,0 +1,489 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.zest.core.widgets;
+
+import java.beans.PropertyChangeListener;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+import org.eclipse.zest.core.widgets.internal.GraphLabel;
+import org.eclipse.zest.core.widgets.internal.ZestRootLayer;
+
+import org.eclipse.draw2d.Figure;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.RangeModel;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * Creates the figures of the nodes and connections of a graph only while they
+ * are in or near the visible part of the graph, and releases them once they
+ * have left it. The labels of released nodes are reused for the nodes coming
+ * into view.
+ * <p>
+ * Only plain {@link GraphNode}s directly in the graph and the connections
+ * between them do without their figures. Highlighted items and the nodes of
+ * connections having a figure keep theirs. The items are found by a uniform
+ * grid of their bounds. A moved node only changes the cells of itself and its
+ * connections, the grid is rebuilt when items have been added, removed, shown
+ * or hidden.
+ * </p>
+ *
+ * @see Graph#setVirtualFigures(boolean)
+ */
+class FigureVirtualizer {
+
+	private static final int CELL_SIZE = 256;
+
+	/**
+	 * Distance around the visible area within which items keep their figures, so
+	 * that scrolling by a few pixels doesn't release and create figures.
+	 */
+	private static final int MARGIN = 128;
+
+	private static final int MAX_CELLS_PER_CONNECTION = 64;
+
+	private static final int LABEL_POOL_SIZE = 1024;
+
+	/**
+	 * Delay before trying again to release figures while a layout transition
+	 * moves them.
+	 */
+	private static final int TRANSITION_RETRY_DELAY = 100;
+
+	private final Graph graph;
+	private final PropertyChangeListener viewportListener = event -> scheduleUpdate();
+
+	private final Set<GraphNode> nodesWithFigure = new HashSet<>();
+	private final Set<GraphConnection> connectionsWithFigure = new HashSet<>();
+
+	private final Map<Long, List<GraphItem>> cells = new HashMap<>();
+	private final List<GraphNode> indexedNodes = new ArrayList<>();
+	private final List<GraphConnection> indexedConnections = new ArrayList<>();
+	/**
+	 * Bounds under which every indexed item is in the grid.
+	 */
+	private final Map<GraphItem, Rectangle> indexedBounds = new HashMap<>();
+	/**
+	 * Connections covering too many cells, which are always looked at.
+	 */
+	private final Set<GraphConnection> largeConnections = new LinkedHashSet<>();
+	private boolean indexValid;
+	private boolean updateScheduled;
+
+	/**
+	 * Invisible figure spanning the bounds of all nodes, so that the graph can be
+	 * scrolled to nodes without figures.
+	 */
+	private final IFigure extentFigure = new Figure();
+	/**
+	 * Bounds of {@link #extentFigure}, or null if there are no indexed nodes.
+	 * Moving nodes only grows them, they shrink again when the grid is rebuilt.
+	 */
+	private Rectangle extent;
+
+	private final Deque<GraphLabel> labels = new ArrayDeque<>();
+	private final Deque<GraphLabel> cachedLabels = new ArrayDeque<>();
+	private GraphLabel measuringLabel;
+
+	FigureVirtualizer(Graph graph) {
+		this.graph = graph;
+		extentFigure.setVisible(false);
+	}
+
+	void start() {
+		getHorizontalRangeModel().addPropertyChangeListener(viewportListener);
+		getVerticalRangeModel().addPropertyChangeListener(viewportListener);
+		invalidate();
+	}
+
+	/**
+	 * Gives all nodes and connections their figures back.
+	 */
+	void stop() {
+		getHorizontalRangeModel().removePropertyChangeListener(viewportListener);
+		getVerticalRangeModel().removePropertyChangeListener(viewportListener);
+		for (GraphNode node : graph.getNodes()) {
+			if (node.isFigureReleased()) {
+				node.restoreFigure();
+			}
+		}
+		for (GraphConnection connection : graph.getConnections()) {
+			if (connection.isFigureReleased()) {
+				connection.restoreFigure();
+			}
+		}
+		if (extentFigure.getParent() != null) {
+			extentFigure.getParent().remove(extentFigure);
+		}
+		nodesWithFigure.clear();
+		connectionsWithFigure.clear();
+		clearIndex();
+		labels.clear();
+		cachedLabels.clear();
+	}
+
+	/**
+	 * Called when nodes or connections have been added, removed, shown or hidden.
+	 */
+	void invalidate() {
+		indexValid = false;
+		scheduleUpdate();
+	}
+
+	/**
+	 * Called when given node has moved or has been resized. Only the cells of the
+	 * node and its connections are updated.
+	 */
+	void nodeMoved(GraphNode node) {
+		if (indexValid) {
+			Rectangle bounds = node.getBounds();
+			if (move(node, bounds) && !extent.contains(bounds)) {
+				extent.union(bounds);
+				updateExtentFigure();
+			}
+			for (int i = 0; i < node.getSourceConnectionCount(); i++) {
+				GraphConnection connection = node.getSourceConnection(i);
+				move(connection, getBounds(connection));
+			}
+			for (int i = 0; i < node.getTargetConnectionCount(); i++) {
+				GraphConnection connection = node.getTargetConnection(i);
+				move(connection, getBounds(connection));
+			}
+		}
+		scheduleUpdate();
+	}
+
+	void itemRemoved(GraphItem item) {
+		nodesWithFigure.remove(item);
+		connectionsWithFigure.remove(item);
+		invalidate();
+	}
+
+	/**
+	 * Forgets about all items, after the graph has been cleared.
+	 */
+	void clear() {
+		nodesWithFigure.clear();
+		connectionsWithFigure.clear();
+		invalidate();
+	}
+
+	/**
+	 * Creates the figure of given node, for example because a client asked for it.
+	 * The figure is released again once the node is outside of the visible area.
+	 */
+	void restore(GraphNode node) {
+		node.restoreFigure();
+		nodesWithFigure.add(node);
+	}
+
+	void restore(GraphConnection connection) {
+		connection.restoreFigure();
+		connectionsWithFigure.add(connection);
+	}
+
+	/**
+	 * @return a released label for a node coming into view, or null if there is
+	 *         none
+	 */
+	GraphLabel takeLabel(boolean cacheLabel) {
+		GraphLabel label = (cacheLabel ? cachedLabels : labels).poll();
+		if (label != null) {
+			// the size of a label depends on the border width it has when its text
+			// is set, which is the one of a new label
+			label.setBorderWidth(0);
+		}
+		return label;
+	}
+
+	/**
+	 * Returns the size given node would have with a figure of its own.
+	 */
+	Dimension measure(GraphNode node) {
+		if (measuringLabel == null) {
+			measuringLabel = new GraphLabel(false);
+		}
+		measuringLabel.setBorderWidth(0);
+		measuringLabel.setIcon(node.getImage());
+		measuringLabel.setFont(node.getFont());
+		measuringLabel.setText(node.checkStyle(ZestStyles.NODES_HIDE_TEXT) ? "" : node.getText()); //$NON-NLS-1$
+		return measuringLabel.getSize().getCopy();
+	}
+
+	private void scheduleUpdate() {
+		if (updateScheduled) {
+			return;
+		}
+		updateScheduled = true;
+		graph.getDisplay().asyncExec(() -> {
+			updateScheduled = false;
+			if (!graph.isDisposed() && graph.getFigureVirtualizer() == this) {
+				update();
+			}
+		});
+	}
+
+	/**
+	 * Releases the figures of the items which have left the visible area and
+	 * creates those of the items which have entered it.
+	 */
+	private void update() {
+		if (!indexValid) {
+			rebuildIndex();
+		}
+		Rectangle area = getVisibleArea();
+		area.expand(MARGIN, MARGIN);
+		Set<GraphNode> visibleNodes = new HashSet<>();
+		Set<GraphConnection> visibleConnections = new HashSet<>();
+		if (!area.isEmpty()) {
+			findItemsIn(area, visibleNodes, visibleConnections);
+		}
+		for (GraphConnection connection : visibleConnections) {
+			visibleNodes.add(connection.getSource());
+			visibleNodes.add(connection.getDestination());
+		}
+
+		if (graph.isLayoutAnimating()) {
+			// the transition still moves the figures, which must not be reused
+			// for other nodes before it's over
+			graph.getDisplay().timerExec(TRANSITION_RETRY_DELAY, this::scheduleUpdate);
+		} else {
+			releaseFigures(visibleNodes, visibleConnections);
+		}
+
+		for (GraphNode node : visibleNodes) {
+			if (node.isFigureReleased()) {
+				restore(node);
+			}
+		}
+		for (GraphConnection connection : visibleConnections) {
+			if (connection.isFigureReleased()) {
+				restore(connection);
+			}
+		}
+	}
+
+	private void releaseFigures(Set<GraphNode> visibleNodes, Set<GraphConnection> visibleConnections) {
+		// connections go first, their nodes keep their figures as long as a
+		// connection is attached to them
+		for (Iterator<GraphConnection> iterator = connectionsWithFigure.iterator(); iterator.hasNext();) {
+			GraphConnection connection = iterator.next();
+			if (connection.isDisposed() || connection.isFigureReleased()) {
+				iterator.remove();
+			} else if (!visibleConnections.contains(connection) && !connection.isHighlighted()
+					&& connection.canReleaseFigure()) {
+				connection.releaseFigure();
+				iterator.remove();
+			}
+		}
+		for (Iterator<GraphNode> iterator = nodesWithFigure.iterator(); iterator.hasNext();) {
+			GraphNode node = iterator.next();
+			if (node.isDisposed() || node.isFigureReleased()) {
+				iterator.remove();
+			} else if (!visibleNodes.contains(node) && !node.isHighlighted() && !node.isSelected()
+					&& node.canReleaseFigure()) {
+				boolean cacheLabel = node.cacheLabel();
+				IFigure figure = node.releaseFigure();
+				Deque<GraphLabel> pool = cacheLabel ? cachedLabels : labels;
+				if (figure instanceof GraphLabel && pool.size() < LABEL_POOL_SIZE) {
+					pool.push((GraphLabel) figure);
+				}
+				iterator.remove();
+			}
+		}
+	}
+
+	private void findItemsIn(Rectangle area, Set<GraphNode> nodes, Set<GraphConnection> connections) {
+		int minColumn = cell(area.x);
+		int maxColumn = cell(area.right());
+		int minRow = cell(area.y);
+		int maxRow = cell(area.bottom());
+		if ((long) (maxColumn - minColumn + 1) * (maxRow - minRow + 1) > indexedNodes.size()
+				+ indexedConnections.size()) {
+			// faster to look at all items than at all cells
+			for (GraphNode node : indexedNodes) {
+				addIfIntersecting(node, area, nodes, connections);
+			}
+			for (GraphConnection connection : indexedConnections) {
+				addIfIntersecting(connection, area, nodes, connections);
+			}
+			return;
+		}
+		for (GraphConnection connection : largeConnections) {
+			addIfIntersecting(connection, area, nodes, connections);
+		}
+		for (int column = minColumn; column <= maxColumn; column++) {
+			for (int row = minRow; row <= maxRow; row++) {
+				List<GraphItem> items = cells.get(key(column, row));
+				if (items != null) {
+					for (GraphItem item : items) {
+						addIfIntersecting(item, area, nodes, connections);
+					}
+				}
+			}
+		}
+	}
+
+	private static void addIfIntersecting(GraphItem item, Rectangle area, Set<GraphNode> nodes,
+			Set<GraphConnection> connections) {
+		if (item instanceof GraphNode) {
+			GraphNode node = (GraphNode) item;
+			if (node.isVisible() && node.getBounds().intersects(area)) {
+				nodes.add(node);
+			}
+		} else {
+			GraphConnection connection = (GraphConnection) item;
+			if (connection.isVisible() && getBounds(connection).intersects(area)) {
+				connections.add(connection);
+			}
+		}
+	}
+
+	private void rebuildIndex() {
+		clearIndex();
+		for (GraphNode node : graph.getNodes()) {
+			if (!node.isVirtualCandidate()) {
+				continue;
+			}
+			if (!node.isFigureReleased()) {
+				nodesWithFigure.add(node);
+			}
+			Rectangle bounds = node.getBounds();
+			extent = extent == null ? bounds.getCopy() : extent.union(bounds);
+			indexedNodes.add(node);
+			addToCells(node, bounds);
+		}
+		for (GraphConnection connection : graph.getConnections()) {
+			if (!connection.canReleaseFigure()) {
+				continue;
+			}
+			if (!connection.isFigureReleased()) {
+				connectionsWithFigure.add(connection);
+			}
+			indexedConnections.add(connection);
+			addToCells(connection, getBounds(connection));
+		}
+		updateExtentFigure();
+		indexValid = true;
+	}
+
+	private void clearIndex() {
+		cells.clear();
+		indexedNodes.clear();
+		indexedConnections.clear();
+		indexedBounds.clear();
+		largeConnections.clear();
+		extent = null;
+		indexValid = false;
+	}
+
+	/**
+	 * Moves given item to the cells of its new bounds.
+	 *
+	 * @return false if the item isn't indexed
+	 */
+	private boolean move(GraphItem item, Rectangle bounds) {
+		Rectangle oldBounds = indexedBounds.get(item);
+		if (oldBounds == null) {
+			return false;
+		}
+		if (!oldBounds.equals(bounds)) {
+			removeFromCells(item, oldBounds);
+			addToCells(item, bounds);
+		}
+		return true;
+	}
+
+	private void addToCells(GraphItem item, Rectangle bounds) {
+		indexedBounds.put(item, bounds);
+		if (item instanceof GraphConnection && (long) (cell(bounds.right()) - cell(bounds.x) + 1)
+				* (cell(bounds.bottom()) - cell(bounds.y) + 1) > MAX_CELLS_PER_CONNECTION) {
+			largeConnections.add((GraphConnection) item);
+		} else {
+			forEachCell(bounds, key -> cells.computeIfAbsent(key, k -> new ArrayList<>(4)).add(item));
+		}
+	}
+
+	private void removeFromCells(GraphItem item, Rectangle bounds) {
+		if (largeConnections.remove(item)) {
+			return;
+		}
+		forEachCell(bounds, key -> {
+			List<GraphItem> items = cells.get(key);
+			items.remove(item);
+			if (items.isEmpty()) {
+				cells.remove(key);
+			}
+		});
+	}
+
+	private void updateExtentFigure() {
+		if (extent == null) {
+			if (extentFigure.getParent() != null) {
+				extentFigure.getParent().remove(extentFigure);
+			}
+			return;
+		}
+		ZestRootLayer rootLayer = graph.getZestRootLayer();
+		if (extentFigure.getParent() == null) {
+			rootLayer.addNode(extentFigure);
+		}
+		extentFigure.getParent().setConstraint(extentFigure, extent.getCopy());
+	}
+
+	/**
+	 * @return the visible part of the graph, in the coordinates of the nodes
+	 */
+	private Rectangle getVisibleArea() {
+		IFigure viewport = graph.getViewport();
+		Rectangle area = viewport.getBounds().getCopy();
+		viewport.translateToAbsolute(area);
+		graph.getZestRootLayer().translateToRelative(area);
+		return area;
+	}
+
+	private static Rectangle getBounds(GraphConnection connection) {
+		return connection.getSource().getBounds().union(connection.getDestination().getBounds());
+	}
+
+	private static void forEachCell(Rectangle bounds, LongConsumer action) {
+		for (int column = cell(bounds.x); column <= cell(bounds.right()); column++) {
+			for (int row = cell(bounds.y); row <= cell(bounds.bottom()); row++) {
+				action.accept(key(column, row));
+			}
+		}
+	}
+
+	private RangeModel getHorizontalRangeModel() {
+		return graph.getViewport().getHorizontalRangeModel();
+	}
+
+	private RangeModel getVerticalRangeModel() {
+		return graph.getViewport().getVerticalRangeModel();
+	}
+
+	private static int cell(int coordinate) {
+		return Math.floorDiv(coordinate, CELL_SIZE);
+	}
+
+	private static long key(int column, int row) {
+		return ((long) column << 32) | (row & 0xFFFFFFFFL);
+	}
+}
@@ -14,14 +14,20 @@
  ******************************************************************************/
 package org.eclipse.zest.core.widgets;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.ControlAdapter;
@@ -30,6 +36,8 @@ import org.eclipse.swt.events.SelectionAdapter;
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
 import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.layout.FillLayout;
 import org.eclipse.swt.widgets.Composite;
@@ -43,6 +51,7 @@ import org.eclipse.zest.core.viewers.internal.ZoomManager;
 import org.eclipse.zest.core.widgets.gestures.RotateGestureListener;
 import org.eclipse.zest.core.widgets.gestures.ZoomGestureListener;
 import org.eclipse.zest.core.widgets.internal.ContainerFigure;
+import org.eclipse.zest.core.widgets.internal.GraphLabel;
 import org.eclipse.zest.core.widgets.internal.ZestRootLayer;
 import org.eclipse.zest.layouts.InvalidLayoutConfiguration;
 import org.eclipse.zest.layouts.LayoutAlgorithm;
@@ -51,8 +60,10 @@ import org.eclipse.zest.layouts.LayoutRelationship;
 import org.eclipse.zest.layouts.LayoutStyles;
 import org.eclipse.zest.layouts.constraints.LayoutConstraint;
 import org.eclipse.zest.layouts.dataStructures.DisplayIndependentRectangle;
+import org.eclipse.zest.layouts.interfaces.ConnectionLayout;
 import org.eclipse.zest.layouts.interfaces.ExpandCollapseManager;
 import org.eclipse.zest.layouts.interfaces.LayoutContext;
+import org.eclipse.zest.layouts.interfaces.NodeLayout;
 
 import org.eclipse.draw2d.Animation;
 import org.eclipse.draw2d.Button;
@@ -64,6 +75,7 @@ import org.eclipse.draw2d.FreeformLayout;
 import org.eclipse.draw2d.FreeformViewport;
 import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.LayoutAnimator;
+import org.eclipse.draw2d.LightweightSystem;
 import org.eclipse.draw2d.PolylineConnection;
 import org.eclipse.draw2d.SWTEventDispatcher;
 import org.eclipse.draw2d.ScalableFigure;
@@ -90,6 +102,46 @@ public class Graph extends FigureCanvas implements IContainer2 {
 	// CLASS CONSTANTS
 	public static final int ANIMATION_TIME = 500;
 	public static final int FISHEYE_ANIMATION_TIME = 100;
+
+	/**
+	 * Minimal time between two fisheye changes while the mouse moves, for about
+	 * 60 changes per second.
+	 */
+	private static final int FISHEYE_UPDATE_INTERVAL = 16;
+
+	/**
+	 * Maximal number of unused fisheye labels kept for reuse, of each kind.
+	 */
+	private static final int FISHEYE_POOL_SIZE = 2;
+
+	/**
+	 * Minimal time without resizing before the layout context is notified that
+	 * its bounds have changed, so that dragging a sash doesn't lay out the graph
+	 * for every intermediate size.
+	 */
+	private static final int RESIZE_LAYOUT_DELAY = 50;
+
+	/**
+	 * Value of {@link #lastLayoutStart} until the first layout.
+	 */
+	private static final long NEVER = Long.MIN_VALUE;
+
+	/**
+	 * System property which, when set to <code>true</code>, installs a
+	 * {@link JfrGraphInstrumentation} at startup.
+	 *
+	 * @since 1.16
+	 */
+	public static final String JFR_PROPERTY = "org.eclipse.zest.jfr"; //$NON-NLS-1$
+
+	private static volatile GraphInstrumentation instrumentation = null;
+
+	static {
+		// only load the JFR classes when asked to
+		if (Boolean.getBoolean(JFR_PROPERTY)) {
+			instrumentation = new JfrGraphInstrumentation();
+		}
+	}
 	private static final Image BACK_ARROW = FileImageDataProvider.createImage(Graph.class, "/icons/back_arrow.png"); //$NON-NLS-1$
 
 	// @tag CGraph.Colors : These are the colour constants for the graph, they
@@ -130,6 +182,24 @@ public class Graph extends FigureCanvas implements IContainer2 {
 	private volatile boolean shouldSheduleLayout;
 	private volatile Runnable scheduledLayoutRunnable = null;
 	private volatile boolean scheduledLayoutClean = false;
+	private int layoutDelay = 0;
+	private int layoutInterval = 0;
+
+	/**
+	 * Times, in milliseconds, of the first and last requests coalesced into the
+	 * scheduled layout, and of the start of the last layout.
+	 */
+	private long firstLayoutRequest;
+	private long lastLayoutRequest;
+	private long lastLayoutStart = NEVER;
+
+	/**
+	 * Times, in milliseconds, of the first and last resizes since the bounds of
+	 * the layout context were last updated.
+	 */
+	private long firstBoundsChange;
+	private long lastBoundsChange;
+	private boolean isBoundsChangeScheduled = false;
 	private Dimension preferredSize = null;
 	int style = 0;
 
@@ -139,6 +209,56 @@ public class Graph extends FigureCanvas implements IContainer2 {
 	private boolean enableHideNodes;
 	private ConnectionRouter defaultConnectionRouter;
 	private ZoomManager zoomManager = null;
+	private LayoutCache layoutCache = null;
+	private ContainerLayoutScheduler containerLayoutScheduler = null;
+	private boolean lazyContainerLayout = false;
+	private double simplifiedDetailScale = 0;
+	private double minimalDetailScale = 0;
+	private boolean paintVisibleRegionOnly = false;
+	private FigureVirtualizer figureVirtualizer = null;
+	private LayoutTransition layoutTransition = null;
+
+	/**
+	 * Unused fisheye labels, without and with label caching.
+	 */
+	private final Deque<GraphLabel> fishEyeLabels = new ArrayDeque<>();
+	private final Deque<GraphLabel> cachedFishEyeLabels = new ArrayDeque<>();
+
+	/**
+	 * Fonts derived from other fonts by {@link #getScaledFont(Font, int)}, by
+	 * their font data.
+	 */
+	private final Map<FontData, Font> scaledFonts = new HashMap<>();
+	private int animationFigureLimit = 2000;
+
+	/**
+	 * Nodes and connections added since {@link #beginBulkInsert()}, null if no
+	 * bulk insert is in progress.
+	 */
+	private List<GraphNode> bulkNodes = null;
+	private List<GraphConnection> bulkConnections = null;
+	private List<GraphConnection> bulkEdgeLayerConnections = null;
+
+	/**
+	 * Number of nested {@link #beginBatch()} calls which have not been ended yet.
+	 */
+	private int batchDepth = 0;
+
+	/**
+	 * Layout contexts which have recorded changes during the current batch.
+	 */
+	private final Set<InternalLayoutContext> batchedContexts = new LinkedHashSet<>();
+
+	/**
+	 * True if {@link #applyLayout()} has been called during the current batch.
+	 */
+	private boolean batchLayoutRequested = false;
+
+	/**
+	 * The connections between every pair of nodes, in the order they have been
+	 * added.
+	 */
+	private final Map<NodePair, IndexedList<GraphConnection>> parallelConnections = new HashMap<>();
 
 	private final ZoomGestureListener zoomListener;
 	private final RotateGestureListener rotateListener;
@@ -171,7 +291,8 @@ public class Graph extends FigureCanvas implements IContainer2 {
 	 * @since 1.8
 	 */
 	public Graph(Composite parent, int style, boolean enableHideNodes) {
-		super(parent, style | SWT.DOUBLE_BUFFERED);
+		super(parent, style | SWT.DOUBLE_BUFFERED, createLightweightSystem());
+		((InstrumentedUpdateManager) getLightweightSystem().getUpdateManager()).setGraph(this);
 		this.setBackground(ColorConstants.white);
 
 		LIGHT_BLUE = new Color(Display.getDefault(), 216, 228, 248);
@@ -203,19 +324,18 @@ public class Graph extends FigureCanvas implements IContainer2 {
 			public void dispatchMouseMoved(org.eclipse.swt.events.MouseEvent me) {
 				super.dispatchMouseMoved(me);
 
-				// If the current event is null, return
-				if (getCurrentEvent() == null) {
+				// The mouse target, if any, has already been notified above, so
+				// it's not hit-tested and notified a second time. Events no
+				// figure has taken go to the root.
+				if (getMouseTarget() != null) {
 					return;
 				}
-
-				if (getMouseTarget() == null) {
-					setMouseTarget(getRoot());
-				}
+				setMouseTarget(getRoot());
+				org.eclipse.draw2d.MouseEvent event = new org.eclipse.draw2d.MouseEvent(this, getRoot(), me);
 				if ((me.stateMask & SWT.BUTTON_MASK) != 0) {
-					// Sometimes getCurrentEvent() returns null
-					getMouseTarget().handleMouseDragged(getCurrentEvent());
+					getRoot().handleMouseDragged(event);
 				} else {
-					getMouseTarget().handleMouseMoved(getCurrentEvent());
+					getRoot().handleMouseMoved(event);
 				}
 			}
 		});
@@ -225,13 +345,13 @@ public class Graph extends FigureCanvas implements IContainer2 {
 		this.getLightweightSystem().getRootFigure().addMouseListener(dragSupport);
 		this.getLightweightSystem().getRootFigure().addMouseMotionListener(dragSupport);
 
-		this.nodes = new ArrayList<>();
+		this.nodes = new IndexedList<>();
 		this.preferredSize = new Dimension(-1, -1);
 		this.connectionStyle = ZestStyles.NONE;
 		this.nodeStyle = ZestStyles.NONE;
-		this.connections = new ArrayList<>();
+		this.connections = new IndexedList<>();
 		this.constraintAdapters = new ArrayList<>();
-		this.selectedItems = new ArrayList<>();
+		this.selectedItems = new IndexedList<>();
 		this.selectionListeners = new CopyOnWriteArrayList<>();
 		this.figure2ItemMap = new HashMap<>();
 		this.enableHideNodes = enableHideNodes;
@@ -255,7 +375,7 @@ public class Graph extends FigureCanvas implements IContainer2 {
 			@Override
 			public void controlResized(ControlEvent e) {
 				if (preferredSize.width == -1 || preferredSize.height == -1) {
-					internalGetLayoutContext().fireBoundsChangedEvent();
+					scheduleBoundsChanged();
 				}
 			}
 		});
@@ -264,6 +384,34 @@ public class Graph extends FigureCanvas implements IContainer2 {
 		this.addDisposeListener(event -> release());
 	}
 
+	private static LightweightSystem createLightweightSystem() {
+		LightweightSystem lws = new LightweightSystem();
+		lws.setUpdateManager(new InstrumentedUpdateManager());
+		return lws;
+	}
+
+	/**
+	 * Sets the instrumentation which receives the timings of layouts, validation,
+	 * painting and hit-testing of all graphs. Graphs don't measure anything when
+	 * there is no instrumentation.
+	 *
+	 * @param instrumentation the instrumentation, or null to stop measuring
+	 * @since 1.16
+	 */
+	public static void setInstrumentation(GraphInstrumentation instrumentation) {
+		Graph.instrumentation = instrumentation;
+	}
+
+	/**
+	 * Returns the instrumentation of all graphs.
+	 *
+	 * @return the instrumentation, or null if there is none
+	 * @since 1.16
+	 */
+	public static GraphInstrumentation getInstrumentation() {
+		return instrumentation;
+	}
+
 	/**
 	 * This adds a listener to the set of listeners that will be called when a
 	 * selection event occurs.
@@ -404,20 +552,103 @@ public class Graph extends FigureCanvas implements IContainer2 {
 		return this.connections;
 	}
 
+	/**
+	 * Returns the connections going from given source to given destination, in
+	 * the order they have been added. This takes time proportional to the number
+	 * of these connections only, regardless of the number of other connections of
+	 * the nodes.
+	 *
+	 * @param source      the source node
+	 * @param destination the destination node
+	 * @return a new list of the connections between the nodes
+	 * @since 1.16
+	 */
+	public List<GraphConnection> getConnections(GraphNode source, GraphNode destination) {
+		IndexedList<GraphConnection> list = parallelConnections.get(new NodePair(source, destination));
+		return list == null ? new ArrayList<>(0) : new ArrayList<>(list);
+	}
+
 	/**
 	 * Changes the selection to the list of items
 	 *
 	 * @param items
 	 */
 	public void setSelection(GraphItem[] items) {
-		clearSelection();
+		Set<GraphItem> newSelection = new LinkedHashSet<>();
 		if (items != null) {
 			for (GraphItem item : items) {
 				if (item != null) {
+					newSelection.add(item);
+				}
+			}
+		}
+		List<GraphItem> oldSelection = new ArrayList<>(selectedItems);
+		List<GraphItem> changed = new ArrayList<>(oldSelection);
+		changed.addAll(newSelection);
+		runWithDeferredLayerChanges(changed, () -> {
+			for (GraphItem item : oldSelection) {
+				if (!newSelection.contains(item)) {
+					deselect(item);
+				}
+			}
+			// the items stay highlighted, but are ordered like the given ones
+			selectedItems.clear();
+			for (GraphItem item : newSelection) {
+				if (oldSelection.contains(item)) {
+					selectedItems.add(item);
+				} else {
 					select(item);
 				}
 			}
+		});
+	}
+
+	/**
+	 * Adds given items to the selection. The figures of all items are highlighted
+	 * in one pass, and a single selection event is sent to the selection
+	 * listeners if the selection has changed. The event has no item.
+	 *
+	 * @param items the items to select
+	 * @see #deselect(Collection)
+	 * @since 1.16
+	 */
+	public void select(Collection<? extends GraphItem> items) {
+		checkWidget();
+		Set<GraphItem> added = new LinkedHashSet<>();
+		for (GraphItem item : items) {
+			if (item != null && !selectedItems.contains(item)) {
+				added.add(item);
+			}
 		}
+		if (added.isEmpty()) {
+			return;
+		}
+		runWithDeferredLayerChanges(added, () -> added.forEach(this::select));
+		fireWidgetSelectedEvent(null);
+	}
+
+	/**
+	 * Removes given items from the selection. The figures of all items are
+	 * unhighlighted in one pass, and a single selection event is sent to the
+	 * selection listeners if the selection has changed. The event has no item.
+	 *
+	 * @param items the items to deselect
+	 * @see #select(Collection)
+	 * @since 1.16
+	 */
+	public void deselect(Collection<? extends GraphItem> items) {
+		checkWidget();
+		Set<GraphItem> removed = new LinkedHashSet<>();
+		for (GraphItem item : items) {
+			if (item != null && selectedItems.contains(item)) {
+				removed.add(item);
+			}
+		}
+		if (removed.isEmpty()) {
+			return;
+		}
+		runWithDeferredLayerChanges(removed, () -> removed.forEach(this::deselect));
+		fireWidgetSelectedEvent(null);
 	}
 
 	public void selectAll() {
@@ -466,10 +697,16 @@ public class Graph extends FigureCanvas implements IContainer2 {
 
 	/**
 	 * Runs the layout on this graph. If the view is not visible layout will be
-	 * deferred until after the view is available.
+	 * deferred until after the view is available. Requests made before the layout
+	 * runs are coalesced, see {@link #setLayoutDelay(int)} and
+	 * {@link #setLayoutInterval(int)}.
 	 */
 	@Override
 	public void applyLayout() {
+		if (batchDepth > 0) {
+			batchLayoutRequested = true;
+			return;
+		}
 		scheduleLayoutOnReveal(true);
 	}
 
@@ -520,6 +757,88 @@ public class Graph extends FigureCanvas implements IContainer2 {
 		return getLayoutContext().isBackgroundLayoutEnabled();
 	}
 
+	/**
+	 * Starts a batch of changes to this graph. Until the matching
+	 * {@link #endBatch()}, the figures of new nodes and connections are not added
+	 * to the figure tree, and the structure and layout events caused by adding,
+	 * removing, moving or resizing nodes and connections are collected instead of
+	 * being sent to the layout algorithms. Calls to {@link #applyLayout()} are
+	 * deferred to the end of the batch as well.
+	 * <p>
+	 * Batches may be nested, only the outermost {@link #endBatch()} ends the
+	 * batch.
+	 * </p>
+	 *
+	 * @see #runBatched(Runnable)
+	 * @since 1.16
+	 */
+	public void beginBatch() {
+		checkWidget();
+		if (batchDepth++ == 0) {
+			startBulkInsert();
+		}
+	}
+
+	/**
+	 * Ends a batch of changes started by {@link #beginBatch()}. When the
+	 * outermost batch ends, the figures of the new nodes and connections are
+	 * added, the collected changes are sent to the listeners of each layout
+	 * context as one event per kind of change, the main layout algorithm of each
+	 * changed context is applied at most once, and the layout requested during
+	 * the batch is applied.
+	 *
+	 * @throws IllegalStateException if no batch is in progress
+	 * @see #runBatched(Runnable)
+	 * @since 1.16
+	 */
+	public void endBatch() {
+		checkWidget();
+		if (batchDepth == 0) {
+			throw new IllegalStateException("No batch in progress"); //$NON-NLS-1$
+		}
+		if (--batchDepth > 0) {
+			return;
+		}
+		attachBulkItems();
+		InternalLayoutContext[] contexts = batchedContexts.toArray(new InternalLayoutContext[batchedContexts.size()]);
+		batchedContexts.clear();
+		for (InternalLayoutContext context : contexts) {
+			context.fireBatchedEvents();
+		}
+		if (batchLayoutRequested) {
+			batchLayoutRequested = false;
+			applyLayout();
+		}
+	}
+
+	/**
+	 * Runs given changes in a batch, see {@link #beginBatch()}.
+	 *
+	 * @param changes the changes to make to this graph
+	 * @since 1.16
+	 */
+	public void runBatched(Runnable changes) {
+		beginBatch();
+		try {
+			changes.run();
+		} finally {
+			endBatch();
+		}
+	}
+
+	/**
+	 * @return true if a batch of changes is in progress
+	 * @see #beginBatch()
+	 * @since 1.16
+	 */
+	public boolean isBatching() {
+		return batchDepth > 0;
+	}
+
+	void addBatchedContext(InternalLayoutContext context) {
+		batchedContexts.add(context);
+	}
+
 	/**
 	 * Sets the preferred size of the layout area. Size of ( -1, -1) uses the
 	 * current canvas size.
@@ -617,6 +936,319 @@ public class Graph extends FigureCanvas implements IContainer2 {
 		return internalGetLayoutContext().getLayoutAlgorithm();
 	}
 
+	/**
+	 * Sets the cache used to remember layout results of this graph and its
+	 * containers. When a clean layout is requested for a graph whose structure,
+	 * node sizes and layout algorithm match a cached entry, the cached node
+	 * positions are applied instead of running the algorithm. Only Zest 2.x
+	 * layout algorithms are cached.
+	 *
+	 * @param layoutCache the cache to use, or null to always run the layout
+	 *                    algorithm
+	 * @since 1.16
+	 */
+	public void setLayoutCache(LayoutCache layoutCache) {
+		this.layoutCache = layoutCache;
+	}
+
+	/**
+	 * @return the cache used to remember layout results, or null if there is none
+	 * @since 1.16
+	 */
+	public LayoutCache getLayoutCache() {
+		return layoutCache;
+	}
+
+	/**
+	 * Enables or disables lazy layout of {@link GraphContainer}s. When enabled,
+	 * {@link GraphContainer#applyLayout()} lays out a container only if it's open
+	 * and within the visible part of the graph. Otherwise the layout is deferred
+	 * until the container is opened or scrolled into view. Containers revealed at
+	 * the same time which use their own Zest 1.x layout algorithm are laid out in
+	 * parallel. When disabled again, all deferred layouts are applied right away.
+	 *
+	 * @param lazyContainerLayout true to defer the layout of hidden containers
+	 * @since 1.16
+	 */
+	public void setLazyContainerLayout(boolean lazyContainerLayout) {
+		this.lazyContainerLayout = lazyContainerLayout;
+		if (!lazyContainerLayout && containerLayoutScheduler != null) {
+			containerLayoutScheduler.layoutAll();
+		}
+	}
+
+	/**
+	 * @return true if the layout of hidden containers is deferred
+	 * @see #setLazyContainerLayout(boolean)
+	 * @since 1.16
+	 */
+	public boolean isLazyContainerLayout() {
+		return lazyContainerLayout;
+	}
+
+	/**
+	 * Enables painting with less detail when the graph is zoomed out. Below the
+	 * simplified scale, nodes are painted as filled rectangles without text, and
+	 * connections as plain lines without arrow heads or labels. Below the minimal
+	 * scale, connections are not painted at all. This applies to the contents of
+	 * {@link GraphContainer}s as well. Both thresholds are 0 by default, which
+	 * means the graph is always painted in full detail.
+	 *
+	 * @param simplifiedScale scale below which figures are simplified
+	 * @param minimalScale    scale below which connections are omitted, not
+	 *                        greater than the simplified scale
+	 * @throws IllegalArgumentException if a scale is negative or the minimal
+	 *                                  scale is greater than the simplified scale
+	 * @since 1.16
+	 */
+	public void setLevelOfDetailThresholds(double simplifiedScale, double minimalScale) {
+		if (minimalScale < 0 || minimalScale > simplifiedScale) {
+			throw new IllegalArgumentException("Invalid level of detail thresholds: " + simplifiedScale + ", " //$NON-NLS-1$ //$NON-NLS-2$
+					+ minimalScale);
+		}
+		this.simplifiedDetailScale = simplifiedScale;
+		this.minimalDetailScale = minimalScale;
+		zestRootLayer.setLevelOfDetailThresholds(simplifiedScale, minimalScale);
+	}
+
+	/**
+	 * @return the scale below which figures are painted simplified
+	 * @see #setLevelOfDetailThresholds(double, double)
+	 * @since 1.16
+	 */
+	public double getSimplifiedDetailScale() {
+		return simplifiedDetailScale;
+	}
+
+	/**
+	 * @return the scale below which connections are not painted
+	 * @see #setLevelOfDetailThresholds(double, double)
+	 * @since 1.16
+	 */
+	public double getMinimalDetailScale() {
+		return minimalDetailScale;
+	}
+
+	/**
+	 * Sets whether painting visits only the nodes and connections within the
+	 * visible region of the graph. When enabled, the figures to paint are looked
+	 * up in the spatial index which is also used for hit-testing, so the cost of
+	 * painting depends on the number of visible items rather than on the size of
+	 * the graph. This pays off for large graphs which are viewed a small part at a
+	 * time. It is disabled by default.
+	 *
+	 * @param paintVisibleRegionOnly true to paint only the visible items
+	 * @see #setVirtualFigures(boolean)
+	 * @since 1.16
+	 */
+	public void setPaintVisibleRegionOnly(boolean paintVisibleRegionOnly) {
+		this.paintVisibleRegionOnly = paintVisibleRegionOnly;
+		zestRootLayer.setPaintVisibleRegionOnly(paintVisibleRegionOnly);
+	}
+
+	/**
+	 * @return true if only the visible items are painted
+	 * @see #setPaintVisibleRegionOnly(boolean)
+	 * @since 1.16
+	 */
+	public boolean isPaintVisibleRegionOnly() {
+		return paintVisibleRegionOnly;
+	}
+
+	/**
+	 * Sets whether nodes and connections have figures only while they are in or
+	 * near the visible region of the graph. When enabled, the figures of new nodes
+	 * and connections are created once they are scrolled into view, and released
+	 * once they have left it, the labels of released nodes being reused for other
+	 * nodes. Layout, selection and highlighting work on all items; highlighted and
+	 * selected items keep their figures. This saves memory and time for large
+	 * graphs which are viewed a small part at a time. It is disabled by default.
+	 * <p>
+	 * Only plain {@link GraphNode}s directly in this graph and connections between
+	 * such nodes do without figures; containers, nodes with custom figures and
+	 * their connections always have theirs. {@link GraphNode#getNodeFigure()} and
+	 * {@link GraphConnection#getConnectionFigure()} create the figure of an item
+	 * without one, which is released again once the item is outside of the visible
+	 * region. Disabling it creates the figures of all items.
+	 * </p>
+	 *
+	 * @param virtualFigures true to create figures only for the visible items
+	 * @see #setPaintVisibleRegionOnly(boolean)
+	 * @since 1.16
+	 */
+	public void setVirtualFigures(boolean virtualFigures) {
+		if (virtualFigures == (figureVirtualizer != null)) {
+			return;
+		}
+		if (virtualFigures) {
+			figureVirtualizer = new FigureVirtualizer(this);
+			figureVirtualizer.start();
+		} else {
+			figureVirtualizer.stop();
+			figureVirtualizer = null;
+		}
+	}
+
+	/**
+	 * @return true if only the items in or near the visible region have figures
+	 * @see #setVirtualFigures(boolean)
+	 * @since 1.16
+	 */
+	public boolean isVirtualFigures() {
+		return figureVirtualizer != null;
+	}
+
+	/**
+	 * @return the object creating and releasing figures of items as they enter and
+	 *         leave the visible region, or null if all items have figures
+	 */
+	FigureVirtualizer getFigureVirtualizer() {
+		return figureVirtualizer;
+	}
+
+	/**
+	 * Called when nodes or connections have been added, removed, shown or hidden,
+	 * so that the items which have entered or left the visible region are found.
+	 */
+	void invalidateVirtualFigures() {
+		if (figureVirtualizer != null) {
+			figureVirtualizer.invalidate();
+		}
+	}
+
+	/**
+	 * Called when given node has moved or has been resized, so that it and its
+	 * connections are found where they are now.
+	 */
+	void virtualNodeMoved(GraphNode node) {
+		if (figureVirtualizer != null) {
+			figureVirtualizer.nodeMoved(node);
+		}
+	}
+
+	void unregisterFigure(IFigure figure) {
+		figure2ItemMap.remove(figure);
+	}
+
+	/**
+	 * Sets the maximum number of figures a layout may move for the change to be
+	 * animated. Layouts moving more figures are applied without animation, since
+	 * animating them would not be smooth anyway.
+	 *
+	 * @param animationFigureLimit the maximum number of animated figures
+	 * @throws IllegalArgumentException if the limit is negative
+	 * @since 1.16
+	 */
+	public void setAnimationFigureLimit(int animationFigureLimit) {
+		if (animationFigureLimit < 0) {
+			throw new IllegalArgumentException("Negative animation figure limit: " + animationFigureLimit); //$NON-NLS-1$
+		}
+		this.animationFigureLimit = animationFigureLimit;
+	}
+
+	/**
+	 * @return the maximum number of figures a layout may move for the change to
+	 *         be animated
+	 * @see #setAnimationFigureLimit(int)
+	 * @since 1.16
+	 */
+	public int getAnimationFigureLimit() {
+		return animationFigureLimit;
+	}
+
+	/**
+	 * Sets the time without new requests to wait before applying a requested
+	 * layout. Requests made while waiting are coalesced into a single layout,
+	 * which runs once they stop. Resizing the graph always waits at least a few
+	 * milliseconds before the layout context is told that its bounds have
+	 * changed. The delay is 0 by default.
+	 *
+	 * @param layoutDelay the delay in milliseconds
+	 * @throws IllegalArgumentException if the delay is negative
+	 * @see #applyLayout()
+	 * @since 1.16
+	 */
+	public void setLayoutDelay(int layoutDelay) {
+		if (layoutDelay < 0) {
+			throw new IllegalArgumentException("Negative layout delay: " + layoutDelay); //$NON-NLS-1$
+		}
+		this.layoutDelay = layoutDelay;
+	}
+
+	/**
+	 * @return the time without new requests to wait before applying a requested
+	 *         layout, in milliseconds
+	 * @see #setLayoutDelay(int)
+	 * @since 1.16
+	 */
+	public int getLayoutDelay() {
+		return layoutDelay;
+	}
+
+	/**
+	 * Sets the minimal time between the starts of two layouts, caused by
+	 * {@link #applyLayout()} or by resizing the graph. It's also the longest time
+	 * a layout is postponed by the {@link #setLayoutDelay(int) delay} while new
+	 * requests keep coming, so that the graph is still laid out at that rate. The
+	 * interval is 0 by default, for no limit.
+	 *
+	 * @param layoutInterval the interval in milliseconds
+	 * @throws IllegalArgumentException if the interval is negative
+	 * @since 1.16
+	 */
+	public void setLayoutInterval(int layoutInterval) {
+		if (layoutInterval < 0) {
+			throw new IllegalArgumentException("Negative layout interval: " + layoutInterval); //$NON-NLS-1$
+		}
+		this.layoutInterval = layoutInterval;
+	}
+
+	/**
+	 * @return the minimal time between the starts of two layouts, in milliseconds
+	 * @see #setLayoutInterval(int)
+	 * @since 1.16
+	 */
+	public int getLayoutInterval() {
+		return layoutInterval;
+	}
+
+	ZestRootLayer getZestRootLayer() {
+		return zestRootLayer;
+	}
+
+	LayoutTransition getLayoutTransition() {
+		return layoutTransition;
+	}
+
+	void setLayoutTransition(LayoutTransition layoutTransition) {
+		this.layoutTransition = layoutTransition;
+	}
+
+	/**
+	 * @return true if the figures of this graph are being moved by a layout
+	 *         transition, so their bounds are not the ones of their items
+	 */
+	boolean isLayoutAnimating() {
+		return layoutTransition != null && layoutTransition.isPlaying();
+	}
+
+	/**
+	 * Finishes the layout transition which may be playing, moving the figures to
+	 * their final bounds right away.
+	 */
+	void finishLayoutTransition() {
+		if (layoutTransition != null) {
+			layoutTransition.finish();
+		}
+	}
+
+	ContainerLayoutScheduler getContainerLayoutScheduler() {
+		if (containerLayoutScheduler == null) {
+			containerLayoutScheduler = new ContainerLayoutScheduler(this);
+		}
+		return containerLayoutScheduler;
+	}
+
 	/**
 	 * Removes given layout filter. If it had not been added to this graph, this
 	 * method does nothing.
@@ -634,6 +1266,17 @@ public class Graph extends FigureCanvas implements IContainer2 {
 	 * This point should be translated to relative before calling findFigureAt
 	 */
 	public IFigure getFigureAt(int x, int y) {
+		GraphInstrumentation current = instrumentation;
+		if (current == null) {
+			return findFigureAt(x, y);
+		}
+		long start = System.nanoTime();
+		IFigure figure = findFigureAt(x, y);
+		current.hitTested(this, x, y, figure, System.nanoTime() - start);
+		return figure;
+	}
+
+	private IFigure findFigureAt(int x, int y) {
 		return this.getContents().findFigureAt(x, y, new TreeSearch() {
 
 			@Override
@@ -656,7 +1299,8 @@ public class Graph extends FigureCanvas implements IContainer2 {
 					return false;
 				}
 				if (parent == zestRootLayer || parent == zestRootLayer.getParent()
-						|| parent == zestRootLayer.getParent().getParent()) {
+						|| parent == zestRootLayer.getParent().getParent()
+						|| ZestRootLayer.findRootLayer(figure) == zestRootLayer) {
 					return false;
 				}
 				GraphItem item = figure2ItemMap.get(figure);
@@ -697,6 +1341,9 @@ public class Graph extends FigureCanvas implements IContainer2 {
 		/** locations of dragged items relative to cursor position */
 		List<Point> relativeLocations = new ArrayList<>();
 		GraphItem fisheyedItem = null;
+		/** item to fisheye at the next fisheye update */
+		GraphItem fisheyeTarget = null;
+		boolean isFisheyeUpdateScheduled = false;
 		boolean isDragging = false;
 
 		@Override
@@ -806,37 +1453,58 @@ public class Graph extends FigureCanvas implements IContainer2 {
 					}
 				}
 
-				if (itemUnderMouse == fisheyedItem) {
-					return;
-				}
-				if (fisheyedItem != null) {
-					((GraphNode) fisheyedItem).fishEye(false, true);
-					fisheyedItem = null;
-				}
-				if (itemUnderMouse != null && itemUnderMouse.getItemType() == GraphItem.NODE) {
-					fisheyedItem = itemUnderMouse;
-					IFigure fisheyedFigure = ((GraphNode) itemUnderMouse).fishEye(true, true);
-					if (fisheyedFigure == null) {
-						// If there is no fisheye figure (this means that the
-						// node does not support a fish eye)
-						// then remove the fisheyed item
-						fisheyedItem = null;
-					}
-				} else if (fisheyedItem != null) {
-					((GraphNode) fisheyedItem).fishEye(false, true);
-					fisheyedItem = null;
-					fisheyedFigure = null;
-				}
+				scheduleFisheye(itemUnderMouse);
 			} else {
 				if (hoverNode != null) {
 					hoverNode.setHideButtonVisible(false);
 					hoverNode.setRevealButtonVisible(false);
 					hoverNode = null;
 				}
-				if (fisheyedItem != null) {
-					((GraphNode) fisheyedItem).fishEye(false, true);
+				scheduleFisheye(null);
+			}
+		}
+
+		/**
+		 * Fisheyes given item (or removes the fisheye if it's null) at the next
+		 * fisheye update. Updates happen at most every
+		 * {@link #FISHEYE_UPDATE_INTERVAL} milliseconds, so that sweeping the mouse
+		 * over many nodes only fisheyes the node under the mouse when an update is
+		 * due.
+		 */
+		private void scheduleFisheye(GraphItem item) {
+			if (item == fisheyeTarget) {
+				return;
+			}
+			fisheyeTarget = item;
+			if (!isFisheyeUpdateScheduled) {
+				isFisheyeUpdateScheduled = true;
+				getDisplay().timerExec(FISHEYE_UPDATE_INTERVAL, this::updateFisheye);
+			}
+		}
+
+		private void updateFisheye() {
+			isFisheyeUpdateScheduled = false;
+			if (Graph.this.isDisposed()) {
+				return;
+			}
+			GraphItem itemUnderMouse = fisheyeTarget;
+			if (itemUnderMouse == fisheyedItem) {
+				return;
+			}
+			if (fisheyedItem != null) {
+				((GraphNode) fisheyedItem).fishEye(false, true);
+				fisheyedItem = null;
+				fisheyedFigure = null;
+			}
+			if (itemUnderMouse != null && itemUnderMouse.getItemType() == GraphItem.NODE
+					&& !itemUnderMouse.isDisposed()) {
+				fisheyedItem = itemUnderMouse;
+				IFigure fisheyedFigure = ((GraphNode) itemUnderMouse).fishEye(true, true);
+				if (fisheyedFigure == null) {
+					// If there is no fisheye figure (this means that the
+					// node does not support a fish eye)
+					// then remove the fisheyed item
 					fisheyedItem = null;
-					fisheyedFigure = null;
 				}
 			}
 		}
@@ -1099,11 +1767,45 @@ public class Graph extends FigureCanvas implements IContainer2 {
 		if (LIGHT_YELLOW != null) {
 			LIGHT_YELLOW.dispose();
 		}
+		for (Font font : scaledFonts.values()) {
+			font.dispose();
+		}
+		scaledFonts.clear();
 	}
 
 	private void clearSelection() {
-		for (GraphItem item : new ArrayList<>(selectedItems)) {
-			deselect(item);
+		List<GraphItem> items = new ArrayList<>(selectedItems);
+		runWithDeferredLayerChanges(items, () -> items.forEach(this::deselect));
+	}
+
+	/**
+	 * Runs given (un)highlighting of given items with the layer changes of their
+	 * figures deferred, so that each root layer moves all the figures at once.
+	 */
+	private static void runWithDeferredLayerChanges(Collection<? extends GraphItem> items, Runnable highlighting) {
+		if (items.size() < 2) {
+			highlighting.run();
+			return;
+		}
+		Set<ZestRootLayer> rootLayers = new LinkedHashSet<>();
+		for (GraphItem item : items) {
+			IFigure figure = null;
+			if (item instanceof GraphNode) {
+				figure = ((GraphNode) item).getNodeFigure();
+			} else if (item instanceof GraphConnection) {
+				figure = ((GraphConnection) item).getConnectionFigure();
+			}
+			ZestRootLayer rootLayer = figure == null ? null : ZestRootLayer.findRootLayer(figure);
+			if (rootLayer != null && rootLayers.add(rootLayer)) {
+				rootLayer.deferLayerChanges();
+			}
+		}
+		try {
+			highlighting.run();
+		} finally {
+			for (ZestRootLayer rootLayer : rootLayers) {
+				rootLayer.applyLayerChanges();
+			}
 		}
 	}
 
@@ -1210,23 +1912,83 @@ public class Graph extends FigureCanvas implements IContainer2 {
 	 * @since 1.14
 	 */
 	public void clear() {
-		for (GraphConnection element : new ArrayList<>(connections)) {
-			removeConnection(element);
+		GraphConnection[] removedConnections = connections.toArray(new GraphConnection[connections.size()]);
+		GraphNode[] removedNodes = nodes.toArray(new GraphNode[nodes.size()]);
+
+		// detach all figures laying directly on the root layer in one step, the
+		// remaining ones (e.g. connections inside containers) are removed below
+		zestRootLayer.removeAll();
+		for (IFigure element : subgraphFigures) {
+			if (element.getParent() != null) {
+				element.getParent().remove(element);
+			}
+		}
+		subgraphFigures.clear();
+		if (figureVirtualizer != null) {
+			figureVirtualizer.clear();
+		}
+
+		ConnectionLayout[] connectionLayouts = new ConnectionLayout[removedConnections.length];
+		for (int i = 0; i < removedConnections.length; i++) {
+			detachConnection(removedConnections[i]);
+			connectionLayouts[i] = removedConnections[i].getLayout();
 		}
-		for (IFigure element : new HashSet<>(subgraphFigures)) {
-			removeSubgraphFigure(element);
+		connections.clear();
+		parallelConnections.clear();
+
+		NodeLayout[] nodeLayouts = new NodeLayout[removedNodes.length];
+		Set<DefaultSubgraph> subgraphs = new HashSet<>();
+		for (int i = 0; i < removedNodes.length; i++) {
+			InternalNodeLayout nodeLayout = removedNodes[i].getLayout();
+			detachNode(removedNodes[i]);
+			if (nodeLayout.getSubgraph() != null) {
+				subgraphs.add((DefaultSubgraph) nodeLayout.getSubgraph());
+			}
+			nodeLayout.disposeQuietly();
+			nodeLayouts[i] = nodeLayout;
+		}
+		nodes.clear();
+		for (DefaultSubgraph subgraph : subgraphs) {
+			subgraph.removeDisposedNodes();
 		}
-		for (GraphNode element : new ArrayList<>(nodes)) {
-			removeNode(element);
+
+		if (removedNodes.length > 0 || removedConnections.length > 0) {
+			internalGetLayoutContext().fireStructureRemovedEvent(nodeLayouts, connectionLayouts);
 		}
 	}
 
 	void removeConnection(GraphConnection connection) {
+		detachConnection(connection);
+		if (this.connections.remove(connection)) {
+			NodePair pair = new NodePair(connection.getSource(), connection.getDestination());
+			IndexedList<GraphConnection> parallel = parallelConnections.get(pair);
+			if (parallel != null) {
+				parallel.remove(connection);
+				if (parallel.isEmpty()) {
+					parallelConnections.remove(pair);
+				}
+			}
+		}
+		internalGetLayoutContext().fireConnectionRemovedEvent(connection.getLayout());
+	}
+
+	/**
+	 * Removes the figures of given connection and forgets about them, but leaves
+	 * the connection in the connections list.
+	 */
+	private void detachConnection(GraphConnection connection) {
+		if (connection.isFigureReleased()) {
+			this.selectedItems.remove(connection);
+			figureVirtualizer.itemRemoved(connection);
+			return;
+		}
+		if (figureVirtualizer != null) {
+			figureVirtualizer.itemRemoved(connection);
+		}
 		IFigure figure = connection.getConnectionFigure();
 		PolylineConnection sourceContainerConnectionFigure = connection.getSourceContainerConnectionFigure();
 		PolylineConnection targetContainerConnectionFigure = connection.getTargetContainerConnectionFigure();
 		connection.removeFigure();
-		this.getConnections().remove(connection);
 		this.selectedItems.remove(connection);
 		figure2ItemMap.remove(figure);
 		if (sourceContainerConnectionFigure != null) {
@@ -1235,27 +1997,56 @@ public class Graph extends FigureCanvas implements IContainer2 {
 		if (targetContainerConnectionFigure != null) {
 			figure2ItemMap.remove(targetContainerConnectionFigure);
 		}
-		internalGetLayoutContext().fireConnectionRemovedEvent(connection.getLayout());
 	}
 
 	void removeNode(GraphNode node) {
+		detachNode(node);
+		this.nodes.remove(node);
+		node.getLayout().dispose();
+	}
+
+	/**
+	 * Removes the figure of given node and forgets about it, but leaves the node
+	 * in the nodes list.
+	 */
+	private void detachNode(GraphNode node) {
+		if (node.isFigureReleased()) {
+			this.selectedItems.remove(node);
+			figureVirtualizer.itemRemoved(node);
+			return;
+		}
+		if (figureVirtualizer != null) {
+			figureVirtualizer.itemRemoved(node);
+		}
 		IFigure figure = node.getNodeFigure();
 		if (figure.getParent() != null) {
 			figure.getParent().remove(figure);
 		}
-		this.getNodes().remove(node);
-		if (this.getSelection() != null) {
-			this.getSelection().remove(node);
-		}
+		this.selectedItems.remove(node);
 		figure2ItemMap.remove(figure);
-		node.getLayout().dispose();
 	}
 
 	void addConnection(GraphConnection connection, boolean addToEdgeLayer) {
-		connections.add(connection);
-		if (addToEdgeLayer) {
+		if (connections.add(connection)) {
+			parallelConnections
+					.computeIfAbsent(new NodePair(connection.getSource(), connection.getDestination()),
+							pair -> new IndexedList<>())
+					.add(connection);
+		}
+		if (bulkConnections != null) {
+			bulkConnections.add(connection);
+			if (addToEdgeLayer) {
+				bulkEdgeLayerConnections.add(connection);
+			}
+			if (batchDepth > 0) {
+				internalGetLayoutContext().fireConnectionAddedEvent(connection.getLayout());
+			}
+			return;
+		}
+		if (addToEdgeLayer && !connection.isFigureReleased()) {
 			zestRootLayer.addConnection(connection.getFigure());
 		}
+		invalidateVirtualFigures();
 		internalGetLayoutContext().fireConnectionAddedEvent(connection.getLayout());
 	}
 
@@ -1283,10 +2074,93 @@ public class Graph extends FigureCanvas implements IContainer2 {
 	@Override
 	public void addNode(GraphNode node) {
 		nodes.add(node);
-		zestRootLayer.addNode(node.getNodeFigure());
+		if (bulkNodes != null) {
+			bulkNodes.add(node);
+			if (batchDepth > 0) {
+				internalGetLayoutContext().fireNodeAddedEvent(node.getLayout());
+			}
+			return;
+		}
+		if (!node.isFigureReleased()) {
+			zestRootLayer.addNode(node.getNodeFigure());
+		}
+		invalidateVirtualFigures();
 		internalGetLayoutContext().fireNodeAddedEvent(node.getLayout());
 	}
 
+	/**
+	 * Starts adding many nodes and connections at once. Until
+	 * {@link #endBulkInsert()} is called, figures of new nodes and connections are
+	 * not added to the figure tree and no layout events are fired for them. Does
+	 * nothing in a batch, which already defers both.
+	 */
+	void beginBulkInsert() {
+		if (batchDepth > 0) {
+			return;
+		}
+		if (bulkNodes != null) {
+			throw new IllegalStateException("Bulk insert already in progress"); //$NON-NLS-1$
+		}
+		startBulkInsert();
+	}
+
+	private void startBulkInsert() {
+		bulkNodes = new ArrayList<>();
+		bulkConnections = new ArrayList<>();
+		bulkEdgeLayerConnections = new ArrayList<>();
+	}
+
+	/**
+	 * Adds the figures of all nodes and connections created since
+	 * {@link #beginBulkInsert()} and fires a single structure event for them.
+	 */
+	void endBulkInsert() {
+		if (bulkNodes == null || batchDepth > 0) {
+			return;
+		}
+		List<GraphNode> addedNodes = new ArrayList<>(bulkNodes);
+		List<GraphConnection> addedConnections = new ArrayList<>(bulkConnections);
+		attachBulkItems();
+		addedNodes.removeIf(node -> !nodes.contains(node));
+		addedConnections.removeIf(connection -> !connections.contains(connection));
+
+		NodeLayout[] nodeLayouts = new NodeLayout[addedNodes.size()];
+		for (int i = 0; i < nodeLayouts.length; i++) {
+			nodeLayouts[i] = addedNodes.get(i).getLayout();
+		}
+		ConnectionLayout[] connectionLayouts = new ConnectionLayout[addedConnections.size()];
+		for (int i = 0; i < connectionLayouts.length; i++) {
+			connectionLayouts[i] = addedConnections.get(i).getLayout();
+		}
+		internalGetLayoutContext().fireStructureChangedEvent(nodeLayouts, connectionLayouts);
+	}
+
+	/**
+	 * Adds the figures of the nodes and connections created during the bulk
+	 * insert which are still in the graph, and ends the bulk insert.
+	 */
+	private void attachBulkItems() {
+		List<GraphNode> addedNodes = bulkNodes;
+		List<GraphConnection> edgeLayerConnections = bulkEdgeLayerConnections;
+		bulkNodes = null;
+		bulkConnections = null;
+		bulkEdgeLayerConnections = null;
+
+		// connections go in front of all nodes, adding them before the new nodes
+		// avoids shifting the node figures for each connection
+		for (GraphConnection connection : edgeLayerConnections) {
+			if (connections.contains(connection) && !connection.isFigureReleased()) {
+				zestRootLayer.addConnection(connection.getFigure());
+			}
+		}
+		for (GraphNode node : addedNodes) {
+			if (nodes.contains(node) && !node.isFigureReleased()) {
+				zestRootLayer.addNode(node.getNodeFigure());
+			}
+		}
+		invalidateVirtualFigures();
+	}
+
 	/**
 	 * @noreference This method is not intended to be referenced by clients.
 	 */
@@ -1303,9 +2177,15 @@ public class Graph extends FigureCanvas implements IContainer2 {
 
 	void registerItem(GraphItem item) {
 		if (item.getItemType() == GraphItem.NODE) {
+			if (((GraphNode) item).isFigureReleased()) {
+				return;
+			}
 			IFigure figure = ((GraphNode) item).getNodeFigure();
 			figure2ItemMap.put(figure, item);
 		} else if (item.getItemType() == GraphItem.CONNECTION) {
+			if (((GraphConnection) item).isFigureReleased()) {
+				return;
+			}
 			IFigure figure = item.getFigure();
 			figure2ItemMap.put(figure, item);
 			if (((GraphConnection) item).getSourceContainerConnectionFigure() != null) {
@@ -1345,7 +2225,7 @@ public class Graph extends FigureCanvas implements IContainer2 {
 	 * /** Changes the figure for a particular node
 	 */
 	void changeNodeFigure(IFigure oldValue, IFigure newFigure, GraphNode graphItem) {
-		if (zestRootLayer.getChildren().contains(oldValue)) {
+		if (ZestRootLayer.findRootLayer(oldValue) == zestRootLayer) {
 			zestRootLayer.remove(oldValue);
 			figure2ItemMap.remove(oldValue);
 		}
@@ -1371,6 +2251,10 @@ public class Graph extends FigureCanvas implements IContainer2 {
 		}
 	}
 
+	boolean hasConstraintAdapters() {
+		return constraintAdapters != null && !constraintAdapters.isEmpty();
+	}
+
 	@SuppressWarnings("removal")
 	private void applyLayoutInternal(boolean clean) {
 		if (internalGetLayoutContext().getLayoutAlgorithm() == null) {
@@ -1380,64 +2264,157 @@ public class Graph extends FigureCanvas implements IContainer2 {
 		if (this.getNodes().isEmpty()) {
 			return;
 		}
-		scheduledLayoutClean = scheduledLayoutClean || clean;
 		synchronized (this) {
+			scheduledLayoutClean = scheduledLayoutClean || clean;
+			lastLayoutRequest = currentTimeMillis();
 			if (scheduledLayoutRunnable == null) {
-				Display.getDefault().asyncExec(scheduledLayoutRunnable = () -> {
-					if (Graph.this.isDisposed()) {
-						return;
-					}
-					int layoutStyle = 0;
+				firstLayoutRequest = lastLayoutRequest;
+			}
+			if (scheduledLayoutRunnable == null) {
+				scheduledLayoutRunnable = this::runScheduledLayout;
+				Display.getDefault().asyncExec(scheduledLayoutRunnable);
+			}
+		}
+	}
 
-					if ((nodeStyle & ZestStyles.NODES_NO_LAYOUT_RESIZE) > 0) {
-						layoutStyle = LayoutStyles.NO_LAYOUT_NODE_RESIZING;
-					}
+	/**
+	 * Runs the scheduled layout, or postpones it until the
+	 * {@link #setLayoutDelay(int) delay} since the last request and the
+	 * {@link #setLayoutInterval(int) interval} since the last layout have elapsed.
+	 */
+	private void runScheduledLayout() {
+		boolean clean;
+		synchronized (this) {
+			if (isDisposed()) {
+				scheduledLayoutRunnable = null;
+				return;
+			}
+			long wait = getLayoutWait(firstLayoutRequest, lastLayoutRequest, layoutDelay);
+			if (wait > 0) {
+				getDisplay().timerExec((int) wait, scheduledLayoutRunnable);
+				return;
+			}
+			// requests made from now on schedule another layout
+			clean = scheduledLayoutClean;
+			scheduledLayoutClean = false;
+			scheduledLayoutRunnable = null;
+			lastLayoutStart = currentTimeMillis();
+		}
+		applyScheduledLayout(clean);
+	}
 
-					if ((nodeStyle & ZestStyles.NODES_NO_LAYOUT_ANIMATION) == 0) {
-						Animation.markBegin();
-					}
-					if (getLayoutAlgorithm() instanceof LayoutAlgorithm.Zest1) {
-						LayoutAlgorithm.Zest1 zest1 = (LayoutAlgorithm.Zest1)getLayoutAlgorithm();
-						try {
-							zest1.setStyle(zest1.getStyle() | layoutStyle);
-
-							// calculate the size for the layout algorithm
-							Dimension d = this.getViewport().getSize();
-							d.width = d.width - 10;
-							d.height = d.height - 10;
-
-							if (this.preferredSize.width >= 0) {
-								d.width = preferredSize.width;
-							}
-							if (this.preferredSize.height >= 0) {
-								d.height = preferredSize.height;
-							}
-
-							if (d.isEmpty()) {
-								return;
-							}
-							LayoutRelationship[] connectionsToLayout = getConnectionsToLayout(nodes);
-							LayoutEntity[] nodesToLayout = getNodesToLayout(getNodes());
-
-							zest1.applyLayout(nodesToLayout, connectionsToLayout, 0, 0, d.width, d.height, false,
-									false);
-
-						} catch (InvalidLayoutConfiguration e) {
-							e.printStackTrace();
-						}
-					} else {
-						internalGetLayoutContext().applyLayout(scheduledLayoutClean);
-						layoutContext.flushChanges(false);
-					}
-					Animation.run(ANIMATION_TIME);
-					getLightweightSystem().getUpdateManager().performUpdate();
-					synchronized (Graph.this) {
-						scheduledLayoutRunnable = null;
-						scheduledLayoutClean = false;
-					}
-				});
+	/**
+	 * Notifies the layout context that its bounds have changed once the graph
+	 * hasn't been resized for a while.
+	 */
+	private void scheduleBoundsChanged() {
+		lastBoundsChange = currentTimeMillis();
+		if (!isBoundsChangeScheduled) {
+			isBoundsChangeScheduled = true;
+			firstBoundsChange = lastBoundsChange;
+			getDisplay().timerExec(Math.max(layoutDelay, RESIZE_LAYOUT_DELAY), this::fireScheduledBoundsChanged);
+		}
+	}
+
+	private void fireScheduledBoundsChanged() {
+		if (isDisposed()) {
+			return;
+		}
+		long wait = getLayoutWait(firstBoundsChange, lastBoundsChange, Math.max(layoutDelay, RESIZE_LAYOUT_DELAY));
+		if (wait > 0) {
+			getDisplay().timerExec((int) wait, this::fireScheduledBoundsChanged);
+			return;
+		}
+		isBoundsChangeScheduled = false;
+		lastLayoutStart = currentTimeMillis();
+		internalGetLayoutContext().fireBoundsChangedEvent();
+	}
+
+	/**
+	 * Returns how long to wait before a layout: until the delay since the last
+	 * request has elapsed, but no longer than the interval since the first one,
+	 * and at least until the interval since the last layout has elapsed.
+	 *
+	 * @return the time to wait in milliseconds, 0 or less to lay out right away
+	 */
+	private long getLayoutWait(long firstRequest, long lastRequest, int delay) {
+		long now = currentTimeMillis();
+		long wait = lastRequest + delay - now;
+		if (layoutInterval > 0) {
+			wait = Math.min(wait, firstRequest + layoutInterval - now);
+			if (lastLayoutStart != NEVER) {
+				wait = Math.max(wait, lastLayoutStart + layoutInterval - now);
 			}
 		}
+		return wait;
+	}
+
+	private static long currentTimeMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+	}
+
+	@SuppressWarnings("removal")
+	private void applyScheduledLayout(boolean clean) {
+		int layoutStyle = 0;
+
+		if ((nodeStyle & ZestStyles.NODES_NO_LAYOUT_RESIZE) > 0) {
+			layoutStyle = LayoutStyles.NO_LAYOUT_NODE_RESIZING;
+		}
+
+		LayoutTransition transition = null;
+		if ((nodeStyle & ZestStyles.NODES_NO_LAYOUT_ANIMATION) == 0) {
+			transition = LayoutTransition.begin(this);
+		} else {
+			finishLayoutTransition();
+		}
+		if (getLayoutAlgorithm() instanceof LayoutAlgorithm.Zest1) {
+			LayoutAlgorithm.Zest1 zest1 = (LayoutAlgorithm.Zest1)getLayoutAlgorithm();
+			try {
+				zest1.setStyle(zest1.getStyle() | layoutStyle);
+
+				// calculate the size for the layout algorithm
+				Dimension d = this.getViewport().getSize();
+				d.width = d.width - 10;
+				d.height = d.height - 10;
+
+				if (this.preferredSize.width >= 0) {
+					d.width = preferredSize.width;
+				}
+				if (this.preferredSize.height >= 0) {
+					d.height = preferredSize.height;
+				}
+
+				if (d.isEmpty()) {
+					return;
+				}
+				LayoutRelationship[] connectionsToLayout = getConnectionsToLayout(nodes);
+				LayoutEntity[] nodesToLayout = getNodesToLayout(getNodes());
+
+				GraphInstrumentation current = instrumentation;
+				long start = 0;
+				if (current != null) {
+					current.layoutStarted(this, zest1, nodesToLayout.length, connectionsToLayout.length);
+					start = System.nanoTime();
+				}
+				zest1.applyLayout(nodesToLayout, connectionsToLayout, 0, 0, d.width, d.height, false,
+						false);
+				if (current != null) {
+					current.layoutFinished(this, zest1, nodesToLayout.length, connectionsToLayout.length,
+							System.nanoTime() - start);
+				}
+
+			} catch (InvalidLayoutConfiguration e) {
+				e.printStackTrace();
+			}
+		} else {
+			internalGetLayoutContext().applyLayout(clean);
+			layoutContext.flushChanges(false);
+		}
+		if (transition != null) {
+			transition.play(ANIMATION_TIME);
+		} else {
+			getLightweightSystem().getUpdateManager().performUpdate();
+		}
 	}
 
 	/**
@@ -1541,28 +2518,40 @@ public class Graph extends FigureCanvas implements IContainer2 {
 	}
 
 	/**
-	 * Replaces the old fisheye figure with a new one.
+	 * Returns an unused fisheye label, reusing one released before if possible.
 	 *
-	 * @param oldFigure
-	 * @param newFigure
+	 * @param cacheLabel whether the label caches its text as an image
 	 */
-	boolean replaceFishFigure(IFigure oldFigure, IFigure newFigure) {
-		if (this.fishEyeLayer.getChildren().contains(oldFigure)) {
-			Rectangle bounds = oldFigure.getBounds();
-			newFigure.setBounds(bounds);
-			// this.fishEyeLayer.getChildren().remove(oldFigure);
-			this.fishEyeLayer.remove(oldFigure);
-			this.fishEyeLayer.add(newFigure);
-			for (FisheyeListener listener : fisheyeListeners) {
-				listener.fisheyeReplaced(this, oldFigure, newFigure);
-			}
-			// this.fishEyeLayer.getChildren().add(newFigure);
-			// this.fishEyeLayer.invalidate();
-			// this.fishEyeLayer.repaint();
-			this.fisheyedFigure = newFigure;
-			return true;
+	GraphLabel takeFishEyeLabel(boolean cacheLabel) {
+		GraphLabel label = (cacheLabel ? cachedFishEyeLabels : fishEyeLabels).poll();
+		if (label == null) {
+			label = new GraphLabel(cacheLabel);
 		}
-		return false;
+		return label;
+	}
+
+	/**
+	 * Keeps given fisheye label, which has been removed from the fisheye layer,
+	 * for reuse.
+	 */
+	void releaseFishEyeLabel(GraphLabel label, boolean cacheLabel) {
+		if (label.getParent() != null) {
+			return;
+		}
+		Deque<GraphLabel> pool = cacheLabel ? cachedFishEyeLabels : fishEyeLabels;
+		if (pool.size() < FISHEYE_POOL_SIZE) {
+			pool.push(label);
+		}
+	}
+
+	/**
+	 * Returns given font with given height. The font is created once and disposed
+	 * together with this graph.
+	 */
+	Font getScaledFont(Font font, int height) {
+		FontData fontData = font.getFontData()[0];
+		fontData.setHeight(height);
+		return scaledFonts.computeIfAbsent(fontData, data -> new Font(getDisplay(), data));
 	}
 
 	/**
@@ -1717,7 +2706,10 @@ public class Graph extends FigureCanvas implements IContainer2 {
 	 */
 	void applyConnectionRouter() {
 		for (GraphConnection conn : getConnections()) {
-			conn.getConnectionFigure().setConnectionRouter(defaultConnectionRouter);
+			// released connections get the router when their figure is created
+			if (!conn.isFigureReleased()) {
+				conn.getConnectionFigure().setConnectionRouter(defaultConnectionRouter);
+			}
 		}
 		this.getRootLayer().getUpdateManager().performUpdate();
 	}
@@ -1748,4 +2740,31 @@ public class Graph extends FigureCanvas implements IContainer2 {
 		}
 		return zoomManager;
 	}
+
+	/**
+	 * Key of {@link #parallelConnections}.
+	 */
+	private static final class NodePair {
+		private final GraphNode source;
+		private final GraphNode destination;
+
+		NodePair(GraphNode source, GraphNode destination) {
+			this.source = source;
+			this.destination = destination;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof NodePair)) {
+				return false;
+			}
+			NodePair other = (NodePair) obj;
+			return source == other.source && destination == other.destination;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(source) + System.identityHashCode(destination);
+		}
+	}
 }
@@ -55,16 +55,20 @@ import org.eclipse.draw2d.geometry.PrecisionPoint;
  */
 public class GraphConnection extends GraphItem {
 
-	private Font font;
 	private final GraphNode sourceNode;
 	private final GraphNode destinationNode;
 
 	private double weight;
-	private Color color;
-	private Color highlightColor;
-	private Color foreground;
-	private int lineWidth;
-	private int lineStyle;
+	/**
+	 * Colors, line width, line style and font, shared with the connections styled
+	 * alike.
+	 */
+	private GraphConnectionStyle sharedStyle;
+	/**
+	 * Color set by {@link #changeLineColor(Color)}, or null to use the line color
+	 * of the style.
+	 */
+	private Color changedLineColor;
 	private final Graph graphModel;
 
 	private int connectionStyle;
@@ -90,6 +94,18 @@ public class GraphConnection extends GraphItem {
 
 	private ConnectionRouter router = null;
 
+	/**
+	 * True while this connection has no figure, because it's outside of the
+	 * visible region of a graph with virtual figures.
+	 */
+	private boolean figureReleased;
+
+	/**
+	 * Points set by a layout while the figure is released, or null if there are
+	 * none.
+	 */
+	private PointList releasedPoints;
+
 	public GraphConnection(Graph graphModel, int style, GraphNode source, GraphNode destination) {
 		super(graphModel, style);
 
@@ -98,16 +114,14 @@ public class GraphConnection extends GraphItem {
 		this.sourceNode = source;
 		this.destinationNode = destination;
 		this.visible = true;
-		this.color = ColorConstants.lightGray;
-		this.foreground = ColorConstants.lightGray;
-		this.highlightColor = graphModel.DARK_BLUE;
-		this.lineWidth = 1;
-		this.lineStyle = Graphics.LINE_SOLID;
+		this.sharedStyle = GraphConnectionStyle.of(ColorConstants.lightGray, graphModel.DARK_BLUE, 1, Graphics.LINE_SOLID,
+				Display.getDefault().getSystemFont());
 		setWeight(weight);
 		this.graphModel = graphModel;
 		this.curveDepth = 0;
 		this.layoutConnection = new GraphLayoutConnection();
-		this.font = Display.getDefault().getSystemFont();
+		// created once the connection is scrolled into view
+		this.figureReleased = graphModel.getFigureVirtualizer() != null && canReleaseFigure();
 		registerConnection(source, destination);
 	}
 
@@ -115,10 +129,10 @@ public class GraphConnection extends GraphItem {
 	 * @since 1.10
 	 */
 	public void registerConnection(GraphNode source, GraphNode destination) {
-		if (source.getSourceConnections().contains(this)) {
+		if (source.hasSourceConnection(this)) {
 			source.removeSourceConnection(this);
 		}
-		if (destination.getTargetConnections().contains(this)) {
+		if (destination.hasTargetConnection(this)) {
 			destination.removeTargetConnection(this);
 		}
 		(source).addSourceConnection(this);
@@ -162,7 +176,7 @@ public class GraphConnection extends GraphItem {
 	}
 
 	void removeFigure() {
-		if (connectionFigure.getParent() != null) {
+		if (connectionFigure != null && connectionFigure.getParent() != null) {
 			connectionFigure.getParent().remove(connectionFigure);
 		}
 		connectionFigure = null;
@@ -204,6 +218,9 @@ public class GraphConnection extends GraphItem {
 	}
 
 	public Connection getConnectionFigure() {
+		if (figureReleased) {
+			graphModel.getFigureVirtualizer().restore(this);
+		}
 		if (connectionFigure == null) {
 			connectionFigure = createFigure();
 		}
@@ -292,7 +309,7 @@ public class GraphConnection extends GraphItem {
 	 * Gets the font for the label on this connection
 	 */
 	public Font getFont() {
-		return this.font;
+		return sharedStyle.getFont();
 	}
 
 	/**
@@ -300,7 +317,37 @@ public class GraphConnection extends GraphItem {
 	 *
 	 */
 	public void setFont(Font f) {
-		this.font = f;
+		sharedStyle = sharedStyle.withFont(f);
+	}
+
+	/**
+	 * Gets the colors, line width, line style and font of this connection.
+	 *
+	 * @return the style, shared with the connections styled alike
+	 * @since 1.16
+	 */
+	public GraphConnectionStyle getSharedStyle() {
+		return sharedStyle;
+	}
+
+	/**
+	 * Sets all the colors, the line width, the line style and the font of this
+	 * connection at once, updating its figure only once. A color set with
+	 * {@link #changeLineColor(Color)} is discarded.
+	 *
+	 * @param style the new style
+	 * @since 1.16
+	 */
+	public void setSharedStyle(GraphConnectionStyle style) {
+		if (style == null) {
+			throw new IllegalArgumentException("Style must not be null"); //$NON-NLS-1$
+		}
+		if (style == sharedStyle && changedLineColor == null) {
+			return;
+		}
+		this.sharedStyle = style;
+		this.changedLineColor = null;
+		updateFigure(connectionFigure);
 	}
 
 	/**
@@ -327,7 +374,7 @@ public class GraphConnection extends GraphItem {
 	 * @return Color
 	 */
 	public Color getLineColor() {
-		return color;
+		return changedLineColor != null ? changedLineColor : sharedStyle.getLineColor();
 	}
 
 	/**
@@ -336,14 +383,14 @@ public class GraphConnection extends GraphItem {
 	 * @param color the color to use for highlighting.
 	 */
 	public void setHighlightColor(Color color) {
-		this.highlightColor = color;
+		sharedStyle = sharedStyle.withHighlightColor(color);
 	}
 
 	/**
 	 * @return the highlight color
 	 */
 	public Color getHighlightColor() {
-		return highlightColor;
+		return sharedStyle.getHighlightColor();
 	}
 
 	/**
@@ -355,8 +402,9 @@ public class GraphConnection extends GraphItem {
 	 * @see #changeLineColor(Color color)
 	 */
 	public void setLineColor(Color color) {
-		this.foreground = color;
-		changeLineColor(foreground);
+		sharedStyle = sharedStyle.withLineColor(color);
+		changedLineColor = null;
+		updateFigure(connectionFigure);
 	}
 
 	/**
@@ -365,7 +413,7 @@ public class GraphConnection extends GraphItem {
 	 * @param color
 	 */
 	public void changeLineColor(Color color) {
-		this.color = color;
+		this.changedLineColor = color;
 		updateFigure(connectionFigure);
 	}
 
@@ -394,7 +442,7 @@ public class GraphConnection extends GraphItem {
 	 * @return int
 	 */
 	public int getLineWidth() {
-		return lineWidth;
+		return sharedStyle.getLineWidth();
 	}
 
 	/**
@@ -403,7 +451,7 @@ public class GraphConnection extends GraphItem {
 	 * @param lineWidth
 	 */
 	public void setLineWidth(int lineWidth) {
-		this.lineWidth = lineWidth;
+		sharedStyle = sharedStyle.withLineWidth(lineWidth);
 		updateFigure(connectionFigure);
 	}
 
@@ -413,7 +461,7 @@ public class GraphConnection extends GraphItem {
 	 * @return int
 	 */
 	public int getLineStyle() {
-		return lineStyle;
+		return sharedStyle.getLineStyle();
 	}
 
 	/**
@@ -422,7 +470,7 @@ public class GraphConnection extends GraphItem {
 	 * @param lineStyle
 	 */
 	public void setLineStyle(int lineStyle) {
-		this.lineStyle = lineStyle;
+		sharedStyle = sharedStyle.withLineStyle(lineStyle);
 		updateFigure(connectionFigure);
 	}
 
@@ -452,10 +500,15 @@ public class GraphConnection extends GraphItem {
 		if (highlighted) {
 			return;
 		}
+		if (figureReleased) {
+			// highlighted connections keep their figures
+			graphModel.getFigureVirtualizer().restore(this);
+		}
 		highlighted = true;
 		updateFigure(connectionFigure);
-		if (connectionFigure.getParent() instanceof ZestRootLayer) {
-			((ZestRootLayer)connectionFigure.getParent()).highlightConnection(connectionFigure);
+		ZestRootLayer rootLayer = ZestRootLayer.findRootLayer(connectionFigure);
+		if (rootLayer != null) {
+			rootLayer.highlightConnection(connectionFigure);
 		}
 	}
 
@@ -469,8 +522,9 @@ public class GraphConnection extends GraphItem {
 		}
 		highlighted = false;
 		updateFigure(connectionFigure);
-		if (connectionFigure.getParent() instanceof ZestRootLayer) {
-			((ZestRootLayer)connectionFigure.getParent()).unHighlightConnection(connectionFigure);
+		ZestRootLayer rootLayer = connectionFigure == null ? null : ZestRootLayer.findRootLayer(connectionFigure);
+		if (rootLayer != null) {
+			rootLayer.unHighlightConnection(connectionFigure);
 		}
 	}
 
@@ -506,6 +560,11 @@ public class GraphConnection extends GraphItem {
 	 * @param depth The depth of the curve
 	 */
 	public void setCurveDepth(int depth) {
+		if (figureReleased) {
+			// the figure gets the depth when it's created
+			this.curveDepth = depth;
+			return;
+		}
 		if (this.curveDepth == 0 && depth != 0 || this.curveDepth != 0 && depth == 0) {
 			// There is currently no curve, so we have to create
 			// a curved connection
@@ -540,7 +599,10 @@ public class GraphConnection extends GraphItem {
 	@Override
 	public void setVisible(boolean visible) {
 		// graphModel.addRemoveFigure(this, visible);
-		if (getSource().isVisible() && getDestination().isVisible() && visible) {
+		if (figureReleased) {
+			this.visible = getSource().isVisible() && getDestination().isVisible() && visible;
+			graphModel.invalidateVirtualFigures();
+		} else if (getSource().isVisible() && getDestination().isVisible() && visible) {
 			this.getFigure().setVisible(visible);
 			if (sourceContainerConnectionFigure != null) {
 				sourceContainerConnectionFigure.setVisible(visible);
@@ -757,6 +819,10 @@ public class GraphConnection extends GraphItem {
 
 		@Override
 		public void clearBendPoints() {
+			if (figureReleased) {
+				releasedPoints = null;
+				return;
+			}
 			connectionFigure.getPoints().removeAllPoints();
 		}
 
@@ -797,7 +863,11 @@ public class GraphConnection extends GraphItem {
 			points.addPoint(getDestination().getLocation().x + getDestination().getSize().width / 2,
 					getDestination().getLocation().y + getDestination().getSize().height / 2);
 
-			connectionFigure.setPoints(points);
+			if (figureReleased) {
+				releasedPoints = points;
+			} else {
+				connectionFigure.setPoints(points);
+			}
 		}
 
 		@Override
@@ -893,6 +963,56 @@ public class GraphConnection extends GraphItem {
 		}
 	}
 
+	/**
+	 * @return true if this connection is drawn on the connection layer of the
+	 *         graph and may do without its figure while it's not visible
+	 */
+	boolean canReleaseFigure() {
+		return getClass() == GraphConnection.class && sourceNode.getParent() == graphModel
+				&& destinationNode.getParent() == graphModel && sourceContainerConnectionFigure == null
+				&& targetContainerConnectionFigure == null;
+	}
+
+	boolean isFigureReleased() {
+		return figureReleased;
+	}
+
+	/**
+	 * Removes the figure of this connection from the graph and forgets about it.
+	 */
+	void releaseFigure() {
+		PolylineConnection figure = connectionFigure;
+		if (figure.getParent() != null) {
+			figure.getParent().remove(figure);
+		}
+		graphModel.unregisterFigure(figure);
+		connectionFigure = null;
+		cachedConnectionFigure = null;
+		connectionLabel = null;
+		figureReleased = true;
+	}
+
+	/**
+	 * Creates the figure of this connection again and adds it to the graph. The
+	 * figures of its nodes are created too if needed.
+	 */
+	void restoreFigure() {
+		figureReleased = false;
+		connectionFigure = createFigure();
+		if (releasedPoints != null) {
+			connectionFigure.setPoints(releasedPoints);
+			releasedPoints = null;
+		}
+		if (!visible) {
+			connectionFigure.setVisible(false);
+		}
+		graphModel.getZestRootLayer().addConnection(connectionFigure);
+		graphModel.registerItem(this);
+		if (highlighted) {
+			graphModel.getZestRootLayer().highlightConnection(connectionFigure);
+		}
+	}
+
 	/**
 	 * Sets the connection router of the connection
 	 *
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.zest.core.widgets;
+
+import java.util.Arrays;
+
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+
+/**
+ * Immutable set of the colors, line width, line style and font of a
+ * {@link GraphConnection}. Styles are interned: connections styled alike share
+ * a single instance, and restyling a connection only replaces its reference to
+ * the style.
+ * <p>
+ * Colors and fonts are compared by identity: a graph disposes the colors and
+ * fonts it has created, so an item must keep the very instances it was given,
+ * not equal ones which may belong to another graph.
+ * </p>
+ *
+ * @see GraphConnection#setSharedStyle(GraphConnectionStyle)
+ * @since 1.16
+ */
+public final class GraphConnectionStyle {
+
+	private static final StyleInterner<GraphConnectionStyle> INTERNER = new StyleInterner<>();
+
+	private final Color lineColor;
+	private final Color highlightColor;
+	private final int lineWidth;
+	private final int lineStyle;
+	private final Font font;
+	private final int hashCode;
+
+	private GraphConnectionStyle(Color lineColor, Color highlightColor, int lineWidth, int lineStyle, Font font) {
+		this.lineColor = lineColor;
+		this.highlightColor = highlightColor;
+		this.lineWidth = lineWidth;
+		this.lineStyle = lineStyle;
+		this.font = font;
+		this.hashCode = Arrays.hashCode(new int[] { System.identityHashCode(lineColor),
+				System.identityHashCode(highlightColor), lineWidth, lineStyle, System.identityHashCode(font) });
+	}
+
+	/**
+	 * Returns the style with given properties.
+	 *
+	 * @param lineColor      color of the line when it's not highlighted
+	 * @param highlightColor color of the line when it's highlighted
+	 * @param lineWidth      width of the line
+	 * @param lineStyle      SWT style of the line, like
+	 *                       {@link org.eclipse.swt.SWT#LINE_DASH}
+	 * @param font           font of the label
+	 * @return the shared style
+	 */
+	public static GraphConnectionStyle of(Color lineColor, Color highlightColor, int lineWidth, int lineStyle,
+			Font font) {
+		return INTERNER.intern(new GraphConnectionStyle(lineColor, highlightColor, lineWidth, lineStyle, font));
+	}
+
+	public Color getLineColor() {
+		return lineColor;
+	}
+
+	public Color getHighlightColor() {
+		return highlightColor;
+	}
+
+	public int getLineWidth() {
+		return lineWidth;
+	}
+
+	public int getLineStyle() {
+		return lineStyle;
+	}
+
+	public Font getFont() {
+		return font;
+	}
+
+	/**
+	 * @return the style with given line color and the other properties of this
+	 *         style
+	 */
+	public GraphConnectionStyle withLineColor(Color color) {
+		if (color == lineColor) {
+			return this;
+		}
+		return of(color, highlightColor, lineWidth, lineStyle, font);
+	}
+
+	/**
+	 * @return the style with given highlight color and the other properties of
+	 *         this style
+	 */
+	public GraphConnectionStyle withHighlightColor(Color color) {
+		if (color == highlightColor) {
+			return this;
+		}
+		return of(lineColor, color, lineWidth, lineStyle, font);
+	}
+
+	/**
+	 * @return the style with given line width and the other properties of this
+	 *         style
+	 */
+	public GraphConnectionStyle withLineWidth(int width) {
+		if (width == lineWidth) {
+			return this;
+		}
+		return of(lineColor, highlightColor, width, lineStyle, font);
+	}
+
+	/**
+	 * @return the style with given line style and the other properties of this
+	 *         style
+	 */
+	public GraphConnectionStyle withLineStyle(int style) {
+		if (style == lineStyle) {
+			return this;
+		}
+		return of(lineColor, highlightColor, lineWidth, style, font);
+	}
+
+	/**
+	 * @return the style with given font and the other properties of this style
+	 */
+	public GraphConnectionStyle withFont(Font font) {
+		if (font == this.font) {
+			return this;
+		}
+		return of(lineColor, highlightColor, lineWidth, lineStyle, font);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GraphConnectionStyle)) {
+			return false;
+		}
+		GraphConnectionStyle other = (GraphConnectionStyle) obj;
+		return hashCode == other.hashCode && lineWidth == other.lineWidth && lineStyle == other.lineStyle
+				&& font == other.font && lineColor == other.lineColor
+				&& highlightColor == other.highlightColor;
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+}
@@ -15,8 +15,10 @@
 package org.eclipse.zest.core.widgets;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.events.SelectionListener;
@@ -113,7 +115,7 @@ public class GraphContainer extends GraphNode implements IContainer2 {
 		super(graph, style, text, image);
 		initModel(graph, text, image);
 		close(false);
-		childNodes = new ArrayList<>();
+		childNodes = new IndexedList<>();
 		registerToParent(graph);
 	}
 
@@ -156,7 +158,7 @@ public class GraphContainer extends GraphNode implements IContainer2 {
 		updateFigureForModel(this.zestLayer);
 		scrollPane.setVisible(false);
 
-		for (IFigure child : zestLayer.getChildren()) {
+		for (IFigure child : zestLayer.getFigures()) {
 			GraphItem item = getGraph().getGraphItem(child);
 			item.setVisible(false);
 			if (item instanceof GraphNode) { // refresh nodes in container if closed
@@ -176,41 +178,28 @@ public class GraphContainer extends GraphNode implements IContainer2 {
 		updateFigureForModel(getModelFigure());
 	}
 
-	private static void addNodeToOrderedList(List<GraphNode> orderedNodeList, GraphNode node) {
-		int counter = 0;
-		for (GraphNode nextOrderedNode : orderedNodeList) {
-			// Look through the list of nodes below and find the right spot for
-			// this
-			if (nextOrderedNode.getLocation().y + nextOrderedNode.getBounds().height > node.getLocation().y
-					+ node.getBounds().height) {
-				break;
-			}
-			counter++;
-		}
-		// Place this in the right location
-		orderedNodeList.add(counter, node);
-	}
-
 	/**
-	 * Gets all the nodes below the yValue. The nodes are returned in order.
+	 * Gets all the nodes whose bottom is below the yValue, ordered by their
+	 * bottom.
 	 *
 	 * @param nodes
 	 * @param yValue
 	 * @return
 	 */
 	private static List<GraphNode> getOrderedNodesBelowY(List<? extends GraphNode> nodes, int yValue, GraphNode yValueNode) {
-		LinkedList<GraphNode> orderedNode = new LinkedList<>();
+		List<GraphNode> orderedNodes = new ArrayList<>();
 		for (GraphNode node : nodes) {
 			if (node == yValueNode) {
 				continue;
 			}
 			if (node.getLocation().y + node.getBounds().height > yValue) {
 				// This node is below the container
-				addNodeToOrderedList(orderedNode, node);
+				orderedNodes.add(node);
 			}
 		}
-		// Convert this to an arrayList for faster access
-		return new ArrayList<>(orderedNode);
+		// the sort is stable, so nodes with the same bottom keep their order
+		orderedNodes.sort(Comparator.comparingInt(node -> node.getLocation().y + node.getBounds().height));
+		return orderedNodes;
 	}
 
 	/**
@@ -248,7 +237,9 @@ public class GraphContainer extends GraphNode implements IContainer2 {
 	}
 
 	/**
-	 * Move the nodes below this node up
+	 * Move the nodes below this node up. The nodes are swept from top to bottom,
+	 * and each node in the stripe below the container is placed right under the
+	 * lowest node already swept which it overlaps horizontally.
 	 *
 	 * @param containerBounds
 	 * @param graphContainer
@@ -259,44 +250,34 @@ public class GraphContainer extends GraphNode implements IContainer2 {
 		List<GraphNode> orderedNodesBelowY = getOrderedNodesBelowY(parent.getNodes(), containerBounds.y, graphContainer);
 		int leftSide = containerBounds.x;
 		int rightSide = containerBounds.x + containerBounds.width;
-		List<GraphNode> nodesToConsider = new LinkedList<>(orderedNodesBelowY);
-		addNodeToOrderedList(orderedNodesBelowY, graphContainer);
-
-		while (!nodesToConsider.isEmpty()) {
-			GraphNode node = nodesToConsider.get(0);
+		Rectangle containerFigureBounds = graphContainer.getBounds();
+		int containerBottom = containerFigureBounds.y + containerFigureBounds.height;
+		Skyline skyline = new Skyline();
+		skyline.lower(containerFigureBounds.x, containerFigureBounds.x + containerFigureBounds.width,
+				containerBottom);
+
+		int[] newY = new int[orderedNodesBelowY.size()];
+		boolean moved = false;
+		for (int i = 0; i < newY.length; i++) {
+			GraphNode node = orderedNodesBelowY.get(i);
+			Rectangle bounds = node.getBounds();
+			int left = bounds.x;
+			int right = bounds.x + bounds.width;
+			newY[i] = bounds.y;
 			if (nodeInStripe(leftSide, rightSide, node)) {
-				leftSide = Math.min(leftSide, node.getBounds().x);
-				rightSide = Math.max(rightSide, node.getBounds().x + node.getBounds().width);
-				// If this node is in the stripe, move it up
-				// the previous node
-				GraphNode previousNode = null;
-				int i = 0;
-				for (; i < orderedNodesBelowY.size(); i++) {
-					if (orderedNodesBelowY.get(i) == node) {
-						break;
-					}
-				}
-				int j = i - 1;
-				while (j >= 0) {
-					GraphNode pastNode = orderedNodesBelowY.get(j);
-					// if (nodeInStripe(leftSide, rightSide, pastNode)) {
-					if (nodeInStripe(node.getBounds().x, node.getBounds().x + node.getBounds().width, pastNode)) {
-						previousNode = pastNode;
-						break;
-					}
-					j--;
-				}
-				if (previousNode == null) {
-					previousNode = graphContainer;
-				}
-				int previousLocation = previousNode.getBounds().y + previousNode.getBounds().height + 2;
-
-				orderedNodesBelowY.remove(i);
-				node.setLocation(node.getLocation().x, previousLocation);
-				addNodeToOrderedList(orderedNodesBelowY, node);
-
+				leftSide = Math.min(leftSide, left);
+				rightSide = Math.max(rightSide, right);
+				// If this node is in the stripe, move it up under the previous
+				// node, or under the container if there is none
+				newY[i] = Math.max(containerBottom, skyline.getBottom(left, right)) + 2;
+				moved |= newY[i] != bounds.y;
+				skyline.set(left, right, newY[i] + bounds.height);
+			} else {
+				skyline.lower(left, right, bounds.y + bounds.height);
 			}
-			nodesToConsider.remove(node);
+		}
+		if (moved) {
+			setNodesY(orderedNodesBelowY, newY);
 		}
 	}
 
@@ -318,10 +299,13 @@ public class GraphContainer extends GraphNode implements IContainer2 {
 		// expandGraphLabel.getSize().height + expandedHeight -
 		// SUBLAYER_OFFSET);
 
-		for (IFigure child : this.zestLayer.getChildren()) {
+		for (IFigure child : this.zestLayer.getFigures()) {
 			GraphItem item = getGraph().getGraphItem(child);
 			item.setVisible(true);
 		}
+		if (getGraph().isLazyContainerLayout()) {
+			getGraph().getContainerLayoutScheduler().scheduleRevealCheck();
+		}
 
 		updateFigureForModel(getModelFigure());
 
@@ -348,22 +332,42 @@ public class GraphContainer extends GraphNode implements IContainer2 {
 
 		// Find all nodes below here
 		List<GraphNode> nodesBelowHere = getOrderedNodesBelowY(parent.getNodes(), containerBounds.y, graphContainer);
-		List<GraphNode> nodesToMove = new LinkedList<>();
+		List<GraphNode> nodesToMove = new ArrayList<>();
 		int left = containerBounds.x;
 		int right = containerBounds.x + containerBounds.width;
+		// the max distance the nodes intersecting the expanding container need
+		// to be shifted
+		int delta = 0;
 		for (GraphNode node : nodesBelowHere) {
 			if (nodeInStripe(left, right, node)) {
 				nodesToMove.add(node);
-				left = Math.min(left, node.getBounds().x);
-				right = Math.max(right, node.getBounds().x + node.getBounds().width);
+				Rectangle bounds = node.getBounds();
+				left = Math.min(left, bounds.x);
+				right = Math.max(right, bounds.x + bounds.width);
+				if (containerBounds.intersects(bounds)) {
+					delta = Math.max(delta, containerBounds.y + containerBounds.height - bounds.y);
+				}
 			}
 		}
-		List<GraphNode> intersectingNodes = intersectingNodes(containerBounds, nodesToMove, graphContainer);
-		int delta = getMaxMovement(containerBounds, intersectingNodes);
-		if (delta > 0) {
-			shiftNodesDown(nodesToMove, delta);
+		delta += 3;
+		int[] newY = new int[nodesToMove.size()];
+		for (int i = 0; i < newY.length; i++) {
+			newY[i] = nodesToMove.get(i).getLocation().y + delta;
 		}
+		setNodesY(nodesToMove, newY);
+	}
 
+	/**
+	 * Moves the nodes vertically in a single batch, so that the layout listeners
+	 * are notified only once.
+	 */
+	private void setNodesY(List<GraphNode> nodes, int[] y) {
+		getGraph().runBatched(() -> {
+			for (int i = 0; i < y.length; i++) {
+				GraphNode node = nodes.get(i);
+				node.setLocation(node.getLocation().x, y[i]);
+			}
+		});
 	}
 
 	// /**
@@ -384,57 +388,6 @@ public class GraphContainer extends GraphNode implements IContainer2 {
 	// return result;
 	// }
 
-	/**
-	 * Checks all the nodes in the list of nodesToCheck to see if they intersect
-	 * with the bounds set
-	 *
-	 * @param node
-	 * @param nodesToCheck
-	 * @return
-	 */
-	private static List<GraphNode> intersectingNodes(Rectangle bounds, List<GraphNode> nodesToCheck, GraphNode node) {
-		List<GraphNode> result = new LinkedList<>();
-		for (GraphNode nodeToCheck : nodesToCheck) {
-			if (node == nodeToCheck) {
-				continue;
-			}
-			if (bounds.intersects(nodeToCheck.getBounds())) {
-				result.add(nodeToCheck);
-			}
-		}
-		return result;
-	}
-
-	/**
-	 * Gets the max distance the intersecting nodes need to be shifted to make room
-	 * for the expanding node
-	 *
-	 * @param bounds
-	 * @param nodesToMove
-	 * @return
-	 */
-	private static int getMaxMovement(Rectangle bounds, List<GraphNode> nodesToMove) {
-		int maxMovement = 0;
-		for (GraphNode node : nodesToMove) {
-			int yValue = node.getLocation().y;
-			int distanceFromBottom = (bounds.y + bounds.height) - yValue;
-			maxMovement = Math.max(maxMovement, distanceFromBottom);
-		}
-		return maxMovement + 3;
-	}
-
-	/**
-	 * Shifts a collection of nodes down.
-	 *
-	 * @param nodesToShift
-	 * @param amount
-	 */
-	private static void shiftNodesDown(List<GraphNode> nodesToShift, int amount) {
-		for (GraphNode node : nodesToShift) {
-			node.setLocation(node.getLocation().x, node.getLocation().y + amount);
-		}
-	}
-
 	// /**
 	// * This finds the highest Y Value of a set of nodes.
 	// * @param nodes
@@ -552,12 +505,34 @@ public class GraphContainer extends GraphNode implements IContainer2 {
 		return new DisplayIndependentRectangle(25, 25, width - 50, height - 50);
 	}
 
+	/**
+	 * Lays out the nodes of this container. If lazy container layout is enabled
+	 * for the graph, the layout of a closed container or one outside of the
+	 * visible area is deferred until it's shown.
+	 *
+	 * @see Graph#setLazyContainerLayout(boolean)
+	 */
 	@Override
 	public void applyLayout() {
 		if ((this.getNodes().isEmpty())) {
 			return;
 		}
+		Graph graph = getGraph();
+		if (graph.isLazyContainerLayout()) {
+			if (!ContainerLayoutScheduler.isRevealed(this)) {
+				graph.getContainerLayoutScheduler().schedule(this);
+				return;
+			}
+			graph.getContainerLayoutScheduler().cancel(this);
+		}
+		doApplyLayout();
+	}
 
+	/**
+	 * Makes sure this container has a layout algorithm, with the layout style of
+	 * this container applied.
+	 */
+	void prepareLayoutAlgorithm() {
 		int layoutStyle = 0;
 
 		if (checkStyle(ZestStyles.NODES_NO_LAYOUT_RESIZE)) {
@@ -568,11 +543,34 @@ public class GraphContainer extends GraphNode implements IContainer2 {
 			layoutAlgorithm = new TreeLayoutAlgorithm.Zest1(layoutStyle);
 		}
 
+		if (layoutAlgorithm instanceof LayoutAlgorithm.Zest1) {
+			LayoutAlgorithm.Zest1 zest1 = (LayoutAlgorithm.Zest1)layoutAlgorithm;
+			zest1.setStyle(zest1.getStyle() | layoutStyle);
+		}
+	}
+
+	/**
+	 * Applies the result of a layout computed on copies of the nodes of this
+	 * container.
+	 */
+	void applyLayoutResult(Runnable result) {
+		Animation.markBegin();
+		result.run();
+		Animation.run(ANIMATION_TIME);
+		getFigure().getUpdateManager().performUpdate();
+	}
+
+	void doApplyLayout() {
+		if ((this.getNodes().isEmpty())) {
+			return;
+		}
+
+		prepareLayoutAlgorithm();
+
 		try {
 			Animation.markBegin();
 			if (layoutAlgorithm instanceof LayoutAlgorithm.Zest1) {
 				LayoutAlgorithm.Zest1 zest1 = (LayoutAlgorithm.Zest1)layoutAlgorithm;
-				zest1.setStyle(zest1.getStyle() | layoutStyle);
 
 				// calculate the size for the layout algorithm
 				// Dimension d = this.scalledLayer.getSize();
@@ -608,6 +606,14 @@ public class GraphContainer extends GraphNode implements IContainer2 {
 
 	}
 
+	/**
+	 * @return true if this container is open
+	 * @since 1.16
+	 */
+	public boolean isExpanded() {
+		return isExpanded;
+	}
+
 	/**
 	 * Get the scale for this container. This is the scale applied to the children
 	 * contained within
@@ -960,4 +966,62 @@ public class GraphContainer extends GraphNode implements IContainer2 {
 		}
 		return result;
 	}
+
+	/**
+	 * Index of the lowest bottom (the largest y) of the nodes swept so far, for
+	 * each interval of x values. Each key is the start of an interval which ends
+	 * at the next key.
+	 */
+	private static final class Skyline {
+		private final TreeMap<Integer, Integer> bottoms = new TreeMap<>();
+
+		Skyline() {
+			bottoms.put(Integer.MIN_VALUE, Integer.MIN_VALUE);
+		}
+
+		/**
+		 * Returns the lowest bottom between left (inclusive) and right (exclusive).
+		 */
+		int getBottom(int left, int right) {
+			int result = bottoms.floorEntry(left).getValue();
+			if (left < right) {
+				for (int bottom : bottoms.subMap(left, false, right, false).values()) {
+					result = Math.max(result, bottom);
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * Sets the bottom between left (inclusive) and right (exclusive).
+		 */
+		void set(int left, int right, int bottom) {
+			if (left >= right) {
+				return;
+			}
+			int rightBottom = bottoms.floorEntry(right).getValue();
+			bottoms.subMap(left, true, right, true).clear();
+			bottoms.put(left, bottom);
+			bottoms.put(right, rightBottom);
+		}
+
+		/**
+		 * Lowers the bottom between left (inclusive) and right (exclusive) to given
+		 * bottom where it's above it.
+		 */
+		void lower(int left, int right, int bottom) {
+			if (left >= right) {
+				return;
+			}
+			if (bottom >= getBottom(left, right)) {
+				set(left, right, bottom);
+				return;
+			}
+			bottoms.put(right, bottoms.floorEntry(right).getValue());
+			bottoms.put(left, bottoms.floorEntry(left).getValue());
+			for (Map.Entry<Integer, Integer> entry : bottoms.subMap(left, true, right, false).entrySet()) {
+				entry.setValue(Math.max(entry.getValue(), bottom));
+			}
+		}
+	}
 }
@@ -0,0 +1,585 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.zest.core.widgets;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.eclipse.swt.SWT;
+
+/**
+ * Builds the content of a {@link Graph} from a graph description in the DOT or
+ * GraphML format.
+ * <p>
+ * The input is parsed as a stream, so only the nodes created so far are kept
+ * in memory besides the graph itself. Nodes and connections are added to the
+ * graph in bulk: their figures are added to the graph when the import is done
+ * and the layout context is notified about all of them with a single event.
+ * </p>
+ * <p>
+ * Only the structure of the graph and the <code>label</code> attribute of nodes
+ * and edges are imported. Nodes without a label show their id. Subgraphs and
+ * nested graphs are flattened into the imported graph. Edges of directed
+ * graphs are created with the {@link ZestStyles#CONNECTIONS_DIRECTED} style.
+ * </p>
+ *
+ * @since 1.16
+ */
+public final class GraphImporter {
+
+	private static final String LABEL = "label"; //$NON-NLS-1$
+
+	private final Graph graph;
+	private final Map<String, GraphNode> nodes = new LinkedHashMap<>();
+
+	private GraphImporter(Graph graph) {
+		this.graph = graph;
+	}
+
+	/**
+	 * Adds the nodes and edges described in DOT format to the graph.
+	 *
+	 * @param graph the graph to add the nodes and connections to
+	 * @param input the DOT description, in UTF-8 encoding
+	 * @return the created nodes, by their id in the input
+	 * @throws IOException if the input can't be read or is not valid DOT
+	 */
+	public static Map<String, GraphNode> importDot(Graph graph, InputStream input) throws IOException {
+		GraphImporter importer = new GraphImporter(graph);
+		graph.beginBulkInsert();
+		try {
+			new DotParser(importer, new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)))
+					.parse();
+		} finally {
+			graph.endBulkInsert();
+		}
+		return importer.nodes;
+	}
+
+	/**
+	 * Adds the nodes and edges described in GraphML format to the graph.
+	 *
+	 * @param graph the graph to add the nodes and connections to
+	 * @param input the GraphML document
+	 * @return the created nodes, by their id in the input
+	 * @throws IOException if the input can't be read or is not valid GraphML
+	 */
+	public static Map<String, GraphNode> importGraphML(Graph graph, InputStream input) throws IOException {
+		GraphImporter importer = new GraphImporter(graph);
+		graph.beginBulkInsert();
+		try {
+			new GraphMLParser(importer).parse(input);
+		} catch (XMLStreamException e) {
+			throw new IOException(e.getMessage(), e);
+		} finally {
+			graph.endBulkInsert();
+		}
+		return importer.nodes;
+	}
+
+	private GraphNode getNode(String id) {
+		GraphNode node = nodes.get(id);
+		if (node == null) {
+			node = new GraphNode(graph, SWT.NONE);
+			node.setText(id);
+			nodes.put(id, node);
+		}
+		return node;
+	}
+
+	private GraphConnection connect(String source, String target, boolean directed, String label) {
+		GraphConnection connection = new GraphConnection(graph,
+				directed ? ZestStyles.CONNECTIONS_DIRECTED : ZestStyles.NONE, getNode(source), getNode(target));
+		if (label != null) {
+			connection.setText(label);
+		}
+		return connection;
+	}
+
+	/**
+	 * Recursive descent parser for the DOT language, reading one token ahead.
+	 */
+	private static class DotParser {
+		private static final int EOF = -1;
+
+		private final GraphImporter importer;
+		private final Reader reader;
+		private int next;
+		private int line = 1;
+		private boolean atLineStart = true;
+		private boolean directed;
+
+		/** Current token, null at the end of the input. */
+		private String token;
+		/** True if the current token is an id, false if it's punctuation. */
+		private boolean tokenIsId;
+		/** True if the current token is a quoted or HTML string. */
+		private boolean tokenIsQuoted;
+
+		/**
+		 * Default attributes of nodes and edges, one entry per enclosing graph or
+		 * subgraph.
+		 */
+		private final Deque<Map<String, String>> nodeDefaults = new ArrayDeque<>();
+		private final Deque<Map<String, String>> edgeDefaults = new ArrayDeque<>();
+
+		/**
+		 * Ids of the nodes mentioned in the enclosing subgraphs, innermost on top.
+		 */
+		private final Deque<Set<String>> subgraphNodes = new ArrayDeque<>();
+
+		DotParser(GraphImporter importer, Reader reader) throws IOException {
+			this.importer = importer;
+			this.reader = reader;
+			this.next = reader.read();
+			advance();
+		}
+
+		void parse() throws IOException {
+			if (isKeyword("strict")) { //$NON-NLS-1$
+				advance();
+			}
+			if (isKeyword("digraph")) { //$NON-NLS-1$
+				directed = true;
+			} else if (!isKeyword("graph")) { //$NON-NLS-1$
+				throw error("'graph' or 'digraph' expected"); //$NON-NLS-1$
+			}
+			advance();
+			if (tokenIsId) {
+				advance();
+			}
+			nodeDefaults.push(new HashMap<>());
+			edgeDefaults.push(new HashMap<>());
+			expect("{"); //$NON-NLS-1$
+			parseStatements();
+			expect("}"); //$NON-NLS-1$
+		}
+
+		private void parseStatements() throws IOException {
+			while (token != null && !isPunctuation("}")) { //$NON-NLS-1$
+				parseStatement();
+				if (isPunctuation(";")) { //$NON-NLS-1$
+					advance();
+				}
+			}
+		}
+
+		private void parseStatement() throws IOException {
+			if (isKeyword("node") || isKeyword("edge") || isKeyword("graph")) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				String kind = token.toLowerCase();
+				advance();
+				Map<String, String> attributes = parseAttributes();
+				if ("node".equals(kind)) { //$NON-NLS-1$
+					nodeDefaults.peek().putAll(attributes);
+				} else if ("edge".equals(kind)) { //$NON-NLS-1$
+					edgeDefaults.peek().putAll(attributes);
+				}
+				return;
+			}
+			boolean isSubgraph = isKeyword("subgraph") || isPunctuation("{"); //$NON-NLS-1$ //$NON-NLS-2$
+			if (!isSubgraph && !tokenIsId) {
+				throw error("statement expected"); //$NON-NLS-1$
+			}
+			String id = isSubgraph ? null : token;
+			if (!isSubgraph) {
+				advance();
+				if (isPunctuation("=")) { //$NON-NLS-1$
+					// graph attribute, not relevant for the structure
+					advance();
+					expectId();
+					return;
+				}
+			}
+			List<String> operand = isSubgraph ? parseSubgraph() : parseNodeId(id);
+			if (isEdgeOp()) {
+				List<List<String>> operands = new ArrayList<>();
+				operands.add(operand);
+				while (isEdgeOp()) {
+					advance();
+					if (isKeyword("subgraph") || isPunctuation("{")) { //$NON-NLS-1$ //$NON-NLS-2$
+						operands.add(parseSubgraph());
+					} else {
+						operands.add(parseNodeId(expectId()));
+					}
+				}
+				Map<String, String> attributes = new HashMap<>(edgeDefaults.peek());
+				attributes.putAll(parseAttributes());
+				String label = attributes.get(LABEL);
+				for (int i = 1; i < operands.size(); i++) {
+					for (String source : operands.get(i - 1)) {
+						for (String target : operands.get(i)) {
+							importer.connect(source, target, directed, label);
+						}
+					}
+				}
+			} else if (!isSubgraph) {
+				Map<String, String> attributes = new HashMap<>(nodeDefaults.peek());
+				attributes.putAll(parseAttributes());
+				String label = attributes.get(LABEL);
+				if (label != null && !"\\N".equals(label)) { //$NON-NLS-1$
+					importer.getNode(id).setText(label);
+				}
+			}
+		}
+
+		/**
+		 * Parses the rest of a node id, after its name has been read.
+		 *
+		 * @return list containing the node id
+		 */
+		private List<String> parseNodeId(String id) throws IOException {
+			// port and compass point are not relevant for the structure
+			while (isPunctuation(":")) { //$NON-NLS-1$
+				advance();
+				expectId();
+			}
+			importer.getNode(id);
+			if (!subgraphNodes.isEmpty()) {
+				subgraphNodes.peek().add(id);
+			}
+			List<String> result = new ArrayList<>(1);
+			result.add(id);
+			return result;
+		}
+
+		/**
+		 * Parses a subgraph.
+		 *
+		 * @return ids of all nodes mentioned in the subgraph
+		 */
+		private List<String> parseSubgraph() throws IOException {
+			if (isKeyword("subgraph")) { //$NON-NLS-1$
+				advance();
+				if (tokenIsId) {
+					advance();
+				}
+			}
+			expect("{"); //$NON-NLS-1$
+			Set<String> mentioned = new LinkedHashSet<>();
+			nodeDefaults.push(new HashMap<>(nodeDefaults.peek()));
+			edgeDefaults.push(new HashMap<>(edgeDefaults.peek()));
+			subgraphNodes.push(mentioned);
+			try {
+				parseStatements();
+			} finally {
+				subgraphNodes.pop();
+				nodeDefaults.pop();
+				edgeDefaults.pop();
+			}
+			expect("}"); //$NON-NLS-1$
+			if (!subgraphNodes.isEmpty()) {
+				subgraphNodes.peek().addAll(mentioned);
+			}
+			return new ArrayList<>(mentioned);
+		}
+
+		private Map<String, String> parseAttributes() throws IOException {
+			Map<String, String> attributes = new HashMap<>();
+			while (isPunctuation("[")) { //$NON-NLS-1$
+				advance();
+				while (!isPunctuation("]")) { //$NON-NLS-1$
+					String name = expectId();
+					String value = "true"; //$NON-NLS-1$
+					if (isPunctuation("=")) { //$NON-NLS-1$
+						advance();
+						value = expectId();
+					}
+					attributes.put(name, value);
+					if (isPunctuation(",") || isPunctuation(";")) { //$NON-NLS-1$ //$NON-NLS-2$
+						advance();
+					}
+				}
+				advance();
+			}
+			return attributes;
+		}
+
+		private boolean isEdgeOp() {
+			return isPunctuation("->") || isPunctuation("--"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		private boolean isKeyword(String keyword) {
+			return tokenIsId && !tokenIsQuoted && keyword.equalsIgnoreCase(token);
+		}
+
+		private boolean isPunctuation(String punctuation) {
+			return token != null && !tokenIsId && punctuation.equals(token);
+		}
+
+		private void expect(String punctuation) throws IOException {
+			if (!isPunctuation(punctuation)) {
+				throw error("'" + punctuation + "' expected"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			advance();
+		}
+
+		private String expectId() throws IOException {
+			if (!tokenIsId) {
+				throw error("id expected"); //$NON-NLS-1$
+			}
+			String id = token;
+			advance();
+			return id;
+		}
+
+		private IOException error(String message) {
+			return new IOException(message + " at line " + line + (token == null ? "" : ": " + token)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+
+		private int read() throws IOException {
+			int c = next;
+			if (c == '\n') {
+				line++;
+				atLineStart = true;
+			} else if (!Character.isWhitespace(c)) {
+				atLineStart = false;
+			}
+			next = reader.read();
+			return c;
+		}
+
+		private void skipWhitespaceAndComments() throws IOException {
+			while (next != EOF) {
+				if (Character.isWhitespace(next)) {
+					read();
+				} else if (next == '#' && atLineStart) {
+					// preprocessor output
+					while (next != EOF && next != '\n') {
+						read();
+					}
+				} else if (next == '/') {
+					read();
+					if (next == '/') {
+						while (next != EOF && next != '\n') {
+							read();
+						}
+					} else if (next == '*') {
+						read();
+						int previous = 0;
+						while (next != EOF && !(previous == '*' && next == '/')) {
+							previous = read();
+						}
+						read();
+					} else {
+						throw error("unexpected '/'"); //$NON-NLS-1$
+					}
+				} else {
+					return;
+				}
+			}
+		}
+
+		private void advance() throws IOException {
+			skipWhitespaceAndComments();
+			tokenIsQuoted = false;
+			tokenIsId = true;
+			if (next == EOF) {
+				token = null;
+				tokenIsId = false;
+				return;
+			}
+			StringBuilder builder = new StringBuilder();
+			if (next == '"') {
+				readQuoted(builder);
+				skipWhitespaceAndComments();
+				while (next == '+') {
+					read();
+					skipWhitespaceAndComments();
+					if (next != '"') {
+						throw error("string expected after '+'"); //$NON-NLS-1$
+					}
+					readQuoted(builder);
+					skipWhitespaceAndComments();
+				}
+				tokenIsQuoted = true;
+			} else if (next == '<') {
+				read();
+				int depth = 1;
+				while (next != EOF) {
+					int c = read();
+					if (c == '<') {
+						depth++;
+					} else if (c == '>' && --depth == 0) {
+						break;
+					}
+					builder.append((char) c);
+				}
+				tokenIsQuoted = true;
+			} else if (next == '-') {
+				builder.append((char) read());
+				if (next == '>' || next == '-') {
+					// edge operator
+					builder.append((char) read());
+					tokenIsId = false;
+				} else {
+					// negative number
+					readIdPart(builder);
+				}
+			} else if (isIdPart(next) || next == '.') {
+				readIdPart(builder);
+			} else {
+				builder.append((char) read());
+				tokenIsId = false;
+			}
+			token = builder.toString();
+		}
+
+		private void readIdPart(StringBuilder builder) throws IOException {
+			while (next != EOF && (isIdPart(next) || next == '.')) {
+				builder.append((char) read());
+			}
+		}
+
+		private void readQuoted(StringBuilder builder) throws IOException {
+			read();
+			while (next != EOF && next != '"') {
+				int c = read();
+				if (c == '\\' && next != EOF) {
+					int escaped = read();
+					switch (escaped) {
+					case '"':
+						builder.append('"');
+						break;
+					case '\n':
+						// line continuation
+						break;
+					case 'n':
+					case 'l':
+					case 'r':
+						builder.append('\n');
+						break;
+					default:
+						builder.append('\\').append((char) escaped);
+					}
+				} else {
+					builder.append((char) c);
+				}
+			}
+			if (next == EOF) {
+				throw error("unterminated string"); //$NON-NLS-1$
+			}
+			read();
+		}
+
+		private static boolean isIdPart(int c) {
+			return c == '_' || Character.isLetterOrDigit(c) || c >= 0x80;
+		}
+	}
+
+	/**
+	 * Streaming GraphML reader.
+	 */
+	private static class GraphMLParser {
+		private final GraphImporter importer;
+		private final Set<String> nodeLabelKeys = new HashSet<>();
+		private final Set<String> edgeLabelKeys = new HashSet<>();
+		private final Deque<Boolean> directedGraphs = new ArrayDeque<>();
+
+		GraphMLParser(GraphImporter importer) {
+			this.importer = importer;
+		}
+
+		void parse(InputStream input) throws XMLStreamException, IOException {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+			factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+			XMLStreamReader reader = factory.createXMLStreamReader(input);
+			try {
+				// node which is currently open, to assign its label
+				Deque<GraphNode> openNodes = new ArrayDeque<>();
+				String edgeSource = null, edgeTarget = null, edgeLabel = null;
+				boolean edgeDirected = false, inEdge = false;
+				while (reader.hasNext()) {
+					if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+						if (reader.getEventType() == XMLStreamConstants.END_ELEMENT) {
+							String name = reader.getLocalName();
+							if ("node".equals(name)) { //$NON-NLS-1$
+								openNodes.pop();
+							} else if ("graph".equals(name)) { //$NON-NLS-1$
+								directedGraphs.pop();
+							} else if ("edge".equals(name) && inEdge) { //$NON-NLS-1$
+								importer.connect(edgeSource, edgeTarget, edgeDirected, edgeLabel);
+								inEdge = false;
+							}
+						}
+						continue;
+					}
+					String name = reader.getLocalName();
+					if ("key".equals(name)) { //$NON-NLS-1$
+						if (LABEL.equalsIgnoreCase(reader.getAttributeValue(null, "attr.name"))) { //$NON-NLS-1$
+							String id = reader.getAttributeValue(null, "id"); //$NON-NLS-1$
+							String domain = reader.getAttributeValue(null, "for"); //$NON-NLS-1$
+							if (domain == null || "node".equals(domain) || "all".equals(domain)) { //$NON-NLS-1$ //$NON-NLS-2$
+								nodeLabelKeys.add(id);
+							}
+							if (domain == null || "edge".equals(domain) || "all".equals(domain)) { //$NON-NLS-1$ //$NON-NLS-2$
+								edgeLabelKeys.add(id);
+							}
+						}
+					} else if ("graph".equals(name)) { //$NON-NLS-1$
+						String edgeDefault = reader.getAttributeValue(null, "edgedefault"); //$NON-NLS-1$
+						directedGraphs.push(edgeDefault == null ? isDirected()
+								: Boolean.valueOf("directed".equals(edgeDefault))); //$NON-NLS-1$
+					} else if ("node".equals(name)) { //$NON-NLS-1$
+						openNodes.push(importer.getNode(requireAttribute(reader, "id"))); //$NON-NLS-1$
+					} else if ("edge".equals(name)) { //$NON-NLS-1$
+						edgeSource = requireAttribute(reader, "source"); //$NON-NLS-1$
+						edgeTarget = requireAttribute(reader, "target"); //$NON-NLS-1$
+						String directed = reader.getAttributeValue(null, "directed"); //$NON-NLS-1$
+						edgeDirected = directed == null ? isDirected().booleanValue() : Boolean.parseBoolean(directed);
+						edgeLabel = null;
+						inEdge = true;
+					} else if ("data".equals(name)) { //$NON-NLS-1$
+						String key = reader.getAttributeValue(null, "key"); //$NON-NLS-1$
+						if (inEdge && edgeLabelKeys.contains(key)) {
+							edgeLabel = reader.getElementText();
+						} else if (!inEdge && !openNodes.isEmpty() && nodeLabelKeys.contains(key)) {
+							openNodes.peek().setText(reader.getElementText());
+						}
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		}
+
+		private Boolean isDirected() {
+			return directedGraphs.isEmpty() ? Boolean.FALSE : directedGraphs.peek();
+		}
+
+		private static String requireAttribute(XMLStreamReader reader, String name) throws IOException {
+			String value = reader.getAttributeValue(null, name);
+			if (value == null) {
+				throw new IOException("Missing attribute '" + name + "' of element '" + reader.getLocalName() //$NON-NLS-1$ //$NON-NLS-2$
+						+ "' at line " + reader.getLocation().getLineNumber()); //$NON-NLS-1$
+			}
+			return value;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.zest.core.widgets;
+
+import org.eclipse.zest.layouts.LayoutAlgorithm;
+
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * Receives the timings of the work done by all graphs: layouts, validation of
+ * figures, painting and hit-testing. An instrumentation is installed for all
+ * graphs with {@link Graph#setInstrumentation(GraphInstrumentation)}; when
+ * there is none, graphs don't even measure the time.
+ * <p>
+ * All methods are called on the UI thread, right after the work, and should
+ * return quickly. Durations are in nanoseconds.
+ * </p>
+ *
+ * @see JfrGraphInstrumentation
+ * @since 1.16
+ */
+public interface GraphInstrumentation {
+
+	/**
+	 * Called before a layout algorithm is applied to a graph or to one of its
+	 * containers.
+	 *
+	 * @param graph           the graph
+	 * @param algorithm       the applied algorithm
+	 * @param nodeCount       number of nodes of the laid out graph or container
+	 * @param connectionCount number of connections of the laid out graph or
+	 *                        container
+	 */
+	public default void layoutStarted(Graph graph, LayoutAlgorithm algorithm, int nodeCount, int connectionCount) {
+	}
+
+	/**
+	 * Called after a layout algorithm has been applied to a graph or to one of
+	 * its containers.
+	 *
+	 * @param graph           the graph
+	 * @param algorithm       the applied algorithm
+	 * @param nodeCount       number of nodes of the laid out graph or container
+	 * @param connectionCount number of connections of the laid out graph or
+	 *                        container
+	 * @param duration        time taken by the algorithm
+	 */
+	public default void layoutFinished(Graph graph, LayoutAlgorithm algorithm, int nodeCount, int connectionCount,
+			long duration) {
+	}
+
+	/**
+	 * Called after the invalid figures of a graph have been validated.
+	 *
+	 * @param graph       the graph
+	 * @param figureCount number of figures which were invalid
+	 * @param duration    time taken by the validation
+	 */
+	public default void figuresValidated(Graph graph, int figureCount, long duration) {
+	}
+
+	/**
+	 * Called after a region of a graph has been painted.
+	 *
+	 * @param graph    the graph
+	 * @param damage   the painted region, in the coordinates of the canvas
+	 * @param duration time taken by the painting
+	 */
+	public default void damageRepaired(Graph graph, Rectangle damage, long duration) {
+	}
+
+	/**
+	 * Called after the figure at a point of a graph has been looked up.
+	 *
+	 * @param graph    the graph
+	 * @param x        x coordinate of the point
+	 * @param y        y coordinate of the point
+	 * @param figure   the found figure, or null
+	 * @param duration time taken by the lookup
+	 */
+	public default void hitTested(Graph graph, int x, int y, IFigure figure, long duration) {
+	}
+}
@@ -19,7 +19,6 @@ import java.util.List;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.graphics.Color;
 import org.eclipse.swt.graphics.Font;
-import org.eclipse.swt.graphics.FontData;
 import org.eclipse.swt.graphics.Image;
 import org.eclipse.swt.widgets.Display;
 
@@ -63,17 +62,14 @@ public class GraphNode extends GraphItem {
 	private List<GraphConnection> sourceConnections;
 	private List<GraphConnection> targetConnections;
 
-	private Color foreColor;
-	private Color backColor;
-	private Color highlightColor;
+	/**
+	 * Colors, border width and font, shared with the nodes styled alike.
+	 */
+	private GraphNodeStyle sharedStyle;
 	// @tag ADJACENT : Removed highlight adjacent
 	// private Color highlightAdjacentColor;
-	private Color borderColor;
-	private Color borderHighlightColor;
-	private int borderWidth;
 	private PrecisionPoint currentLocation;
 	protected Dimension size;
-	private Font font;
 	private boolean cacheLabel;
 	private boolean visible = true;
 	/**
@@ -105,6 +101,24 @@ public class GraphNode extends GraphItem {
 	private boolean isDisposed = false;
 	private boolean hasCustomTooltip;
 
+	/**
+	 * Listener following the bounds of the label created by
+	 * {@link #createFigureForModel()}, or null if the figure is another one.
+	 */
+	private FigureListener labelListener;
+
+	/**
+	 * True while this node has no figure, because it's outside of the visible
+	 * region of a graph with virtual figures.
+	 */
+	private boolean figureReleased;
+
+	/**
+	 * Size of this node while its figure is released, or null if it has to be
+	 * measured.
+	 */
+	private Dimension releasedSize;
+
 	public GraphNode(IContainer graphModel, int style) {
 		this(graphModel, style, (Object) null);
 	}
@@ -148,7 +162,12 @@ public class GraphNode extends GraphItem {
 		super(graphModel.getGraph(), style, data);
 		initModel(graphModel, text, image);
 		if (modelFigure == null) {
-			initFigure();
+			if (graph.getFigureVirtualizer() != null && isVirtualCandidate()) {
+				// created once the node is scrolled into view
+				figureReleased = true;
+			} else {
+				initFigure();
+			}
 		}
 		if (this.parent instanceof IContainer2) {
 			((IContainer2)this.parent).addNode(this);
@@ -173,20 +192,16 @@ public class GraphNode extends GraphItem {
 	protected void initModel(IContainer parent, String text, Image image) {
 		this.nodeStyle |= parent.getGraph().getNodeStyle();
 		this.parent = parent;
-		this.sourceConnections = new ArrayList<>();
-		this.targetConnections = new ArrayList<>();
-		this.foreColor = parent.getGraph().DARK_BLUE;
-		this.backColor = parent.getGraph().LIGHT_BLUE;
-		this.highlightColor = parent.getGraph().HIGHLIGHT_COLOR;
+		this.sourceConnections = new IndexedList<>();
+		this.targetConnections = new IndexedList<>();
+		this.sharedStyle = GraphNodeStyle.of(parent.getGraph().DARK_BLUE, parent.getGraph().LIGHT_BLUE,
+				parent.getGraph().HIGHLIGHT_COLOR, ColorConstants.lightGray, ColorConstants.blue, 1,
+				Display.getDefault().getSystemFont());
 		// @tag ADJACENT : Removed highlight adjacent
 		// this.highlightAdjacentColor = ColorConstants.orange;
 		this.nodeStyle = SWT.NONE;
-		this.borderColor = ColorConstants.lightGray;
-		this.borderHighlightColor = ColorConstants.blue;
-		this.borderWidth = 1;
 		this.currentLocation = new PrecisionPoint(0, 0);
 		this.size = new Dimension(-1, -1);
-		this.font = Display.getDefault().getSystemFont();
 		this.graph = parent.getGraph();
 		this.cacheLabel = false;
 		this.setText(text);
@@ -195,8 +210,8 @@ public class GraphNode extends GraphItem {
 			this.setImage(image);
 		}
 
-		if (font == null) {
-			font = Display.getDefault().getSystemFont();
+		if (sharedStyle.getFont() == null) {
+			sharedStyle = sharedStyle.withFont(Display.getDefault().getSystemFont());
 		}
 
 	}
@@ -232,16 +247,16 @@ public class GraphNode extends GraphItem {
 		}
 		super.dispose();
 		this.isDisposed = true;
-		while (!getSourceConnections().isEmpty()) {
-			GraphConnection connection = getSourceConnections().get(0);
+		while (!sourceConnections.isEmpty()) {
+			GraphConnection connection = sourceConnections.get(0);
 			if (!connection.isDisposed()) {
 				connection.dispose();
 			} else {
 				removeSourceConnection(connection);
 			}
 		}
-		while (!getTargetConnections().isEmpty()) {
-			GraphConnection connection = getTargetConnections().get(0);
+		while (!targetConnections.isEmpty()) {
+			GraphConnection connection = targetConnections.get(0);
 			if (!connection.isDisposed()) {
 				connection.dispose();
 			} else {
@@ -287,6 +302,62 @@ public class GraphNode extends GraphItem {
 		return new ArrayList<>(targetConnections);
 	}
 
+	/**
+	 * Returns the number of source connections. Together with
+	 * {@link #getSourceConnection(int)} it allows to iterate over the source
+	 * connections without copying them.
+	 *
+	 * @return number of source connections
+	 * @since 1.16
+	 */
+	public int getSourceConnectionCount() {
+		return sourceConnections.size();
+	}
+
+	/**
+	 * Returns the source connection at given position.
+	 *
+	 * @param index position of the connection, between 0 and
+	 *              {@link #getSourceConnectionCount()} - 1
+	 * @return the source connection
+	 * @since 1.16
+	 */
+	public GraphConnection getSourceConnection(int index) {
+		return sourceConnections.get(index);
+	}
+
+	/**
+	 * Returns the number of target connections. Together with
+	 * {@link #getTargetConnection(int)} it allows to iterate over the target
+	 * connections without copying them.
+	 *
+	 * @return number of target connections
+	 * @since 1.16
+	 */
+	public int getTargetConnectionCount() {
+		return targetConnections.size();
+	}
+
+	/**
+	 * Returns the target connection at given position.
+	 *
+	 * @param index position of the connection, between 0 and
+	 *              {@link #getTargetConnectionCount()} - 1
+	 * @return the target connection
+	 * @since 1.16
+	 */
+	public GraphConnection getTargetConnection(int index) {
+		return targetConnections.get(index);
+	}
+
+	boolean hasSourceConnection(GraphConnection connection) {
+		return sourceConnections.contains(connection);
+	}
+
+	boolean hasTargetConnection(GraphConnection connection) {
+		return targetConnections.contains(connection);
+	}
+
 	/**
 	 * Returns the bounds of this node. It is just the combination of the location
 	 * and the size.
@@ -324,6 +395,7 @@ public class GraphNode extends GraphItem {
 			currentLocation.setPreciseX(x);
 			currentLocation.setPreciseY(y);
 			refreshLocation();
+			graph.virtualNodeMoved(this);
 			if (getGraphModel().isDynamicLayoutEnabled() && parent instanceof IContainer2) {
 				((InternalLayoutContext)((IContainer2)parent).getLayoutContext()).fireNodeMovedEvent(this.getLayout());
 			}
@@ -348,6 +420,12 @@ public class GraphNode extends GraphItem {
 			}
 			return modelSize;
 		}
+		if (size.height < 0 && size.width < 0 && figureReleased) {
+			if (releasedSize == null) {
+				releasedSize = graph.getFigureVirtualizer().measure(this);
+			}
+			return releasedSize.getCopy();
+		}
 		return size.getCopy();
 	}
 
@@ -355,14 +433,42 @@ public class GraphNode extends GraphItem {
 	 * Get the foreground colour for this node
 	 */
 	public Color getForegroundColor() {
-		return foreColor;
+		return sharedStyle.getForegroundColor();
 	}
 
 	/**
 	 * Set the foreground colour for this node
 	 */
 	public void setForegroundColor(Color c) {
-		this.foreColor = c;
+		sharedStyle = sharedStyle.withForegroundColor(c);
+		updateFigureForModel(modelFigure);
+	}
+
+	/**
+	 * Gets the colors, border width and font of this node.
+	 *
+	 * @return the style, shared with the nodes styled alike
+	 * @since 1.16
+	 */
+	public GraphNodeStyle getSharedStyle() {
+		return sharedStyle;
+	}
+
+	/**
+	 * Sets all the colors, the border width and the font of this node at once,
+	 * updating its figure only once.
+	 *
+	 * @param style the new style
+	 * @since 1.16
+	 */
+	public void setSharedStyle(GraphNodeStyle style) {
+		if (style == null) {
+			throw new IllegalArgumentException("Style must not be null"); //$NON-NLS-1$
+		}
+		if (style == sharedStyle) {
+			return;
+		}
+		this.sharedStyle = style;
 		updateFigureForModel(modelFigure);
 	}
 
@@ -372,7 +478,7 @@ public class GraphNode extends GraphItem {
 	 * figure has been set.
 	 */
 	public Color getBackgroundColor() {
-		return backColor;
+		return sharedStyle.getBackgroundColor();
 	}
 
 	/**
@@ -382,7 +488,7 @@ public class GraphNode extends GraphItem {
 	 * @param c
 	 */
 	public void setBackgroundColor(Color c) {
-		backColor = c;
+		sharedStyle = sharedStyle.withBackgroundColor(c);
 		updateFigureForModel(modelFigure);
 	}
 
@@ -411,7 +517,7 @@ public class GraphNode extends GraphItem {
 	 * @param c the border color.
 	 */
 	public void setBorderColor(Color c) {
-		borderColor = c;
+		sharedStyle = sharedStyle.withBorderColor(c);
 		updateFigureForModel(modelFigure);
 	}
 
@@ -421,7 +527,7 @@ public class GraphNode extends GraphItem {
 	 * @param c the highlighted border color.
 	 */
 	public void setBorderHighlightColor(Color c) {
-		this.borderHighlightColor = c;
+		sharedStyle = sharedStyle.withBorderHighlightColor(c);
 		updateFigureForModel(modelFigure);
 	}
 
@@ -429,14 +535,14 @@ public class GraphNode extends GraphItem {
 	 * Get the highlight colour for this node
 	 */
 	public Color getHighlightColor() {
-		return highlightColor;
+		return sharedStyle.getHighlightColor();
 	}
 
 	/**
 	 * Set the highlight colour for this node
 	 */
 	public void setHighlightColor(Color c) {
-		this.highlightColor = c;
+		sharedStyle = sharedStyle.withHighlightColor(c);
 	}
 
 	/**
@@ -468,6 +574,10 @@ public class GraphNode extends GraphItem {
 		if (highlighted == HIGHLIGHT_ON) {
 			return;
 		}
+		if (figureReleased) {
+			// highlighted nodes keep their figures
+			graph.getFigureVirtualizer().restore(this);
+		}
 		// @tag ADJACENT : Removed highlight adjacent
 		/*
 		 * if (ZestStyles.checkStyle(getNodeStyle(),
@@ -479,8 +589,9 @@ public class GraphNode extends GraphItem {
 		 * (GraphConnection) iter.next(); conn.highlight();
 		 * conn.getSource().highlightAdjacent(); } }
 		 */
-		if (nodeFigure.getParent() instanceof ZestRootLayer) {
-			((ZestRootLayer)nodeFigure.getParent()).highlightNode(nodeFigure);
+		ZestRootLayer rootLayer = ZestRootLayer.findRootLayer(nodeFigure);
+		if (rootLayer != null) {
+			rootLayer.highlightNode(nodeFigure);
 		}
 		highlighted = HIGHLIGHT_ON;
 		updateFigureForModel(modelFigure);
@@ -510,8 +621,9 @@ public class GraphNode extends GraphItem {
 		 * (GraphConnection) iter.next(); conn.unhighlight(); if (conn.getSource() !=
 		 * this) { conn.getSource().unhighlight(); } } } }
 		 */
-		if (nodeFigure.getParent() instanceof ZestRootLayer) {
-			((ZestRootLayer)nodeFigure.getParent()).unHighlightNode(nodeFigure);
+		ZestRootLayer rootLayer = nodeFigure == null ? null : ZestRootLayer.findRootLayer(nodeFigure);
+		if (rootLayer != null) {
+			rootLayer.unHighlightNode(nodeFigure);
 		}
 		highlighted = HIGHLIGHT_NONE;
 		updateFigureForModel(modelFigure);
@@ -532,7 +644,7 @@ public class GraphNode extends GraphItem {
 		}
 		nodeFigure.getParent().setConstraint(nodeFigure, bounds);
 
-		if (isFisheyeEnabled) {
+		if (isFisheyeEnabled && fishEyeFigure.getParent() != null) {
 			Rectangle fishEyeBounds = calculateFishEyeBounds();
 			if (fishEyeBounds != null) {
 				fishEyeFigure.getParent().translateToRelative(fishEyeBounds);
@@ -571,24 +683,24 @@ public class GraphNode extends GraphItem {
 	 */
 
 	public Color getBorderColor() {
-		return borderColor;
+		return sharedStyle.getBorderColor();
 	}
 
 	public int getBorderWidth() {
-		return borderWidth;
+		return sharedStyle.getBorderWidth();
 	}
 
 	public void setBorderWidth(int width) {
-		this.borderWidth = width;
+		sharedStyle = sharedStyle.withBorderWidth(width);
 		updateFigureForModel(modelFigure);
 	}
 
 	public Font getFont() {
-		return font;
+		return sharedStyle.getFont();
 	}
 
 	public void setFont(Font font) {
-		this.font = font;
+		sharedStyle = sharedStyle.withFont(font);
 		updateFigureForModel(modelFigure);
 	}
 
@@ -604,7 +716,7 @@ public class GraphNode extends GraphItem {
 		}
 		super.setText(string);
 
-		if (nodeFigure != null) {
+		if (nodeFigure != null || figureReleased) {
 			updateFigureForModel(modelFigure);
 		}
 	}
@@ -617,7 +729,7 @@ public class GraphNode extends GraphItem {
 	@Override
 	public void setImage(Image image) {
 		super.setImage(image);
-		if (nodeFigure != null) {
+		if (nodeFigure != null || figureReleased) {
 			updateFigureForModel(modelFigure);
 		}
 	}
@@ -659,6 +771,7 @@ public class GraphNode extends GraphItem {
 			size.width = (int) width;
 			size.height = (int) height;
 			refreshLocation();
+			graph.virtualNodeMoved(this);
 		}
 	}
 
@@ -669,7 +782,7 @@ public class GraphNode extends GraphItem {
 	 * getBorderHighlightColor()
 	 */
 	public Color getBorderHighlightColor() {
-		return borderHighlightColor;
+		return sharedStyle.getBorderHighlightColor();
 	}
 
 	public boolean cacheLabel() {
@@ -681,11 +794,17 @@ public class GraphNode extends GraphItem {
 	}
 
 	/**
-	 * Returns the figure of the whole node.
+	 * Returns the figure of the whole node. In a graph with virtual figures, the
+	 * figure of a node outside of the visible region is created by this method,
+	 * and released again later.
 	 *
 	 * @return nodeFigure
+	 * @see Graph#setVirtualFigures(boolean)
 	 */
 	public IFigure getNodeFigure() {
+		if (figureReleased) {
+			graph.getFigureVirtualizer().restore(this);
+		}
 		return this.nodeFigure;
 	}
 
@@ -693,12 +812,16 @@ public class GraphNode extends GraphItem {
 	public void setVisible(boolean visible) {
 		// graph.addRemoveFigure(this, visible);
 		this.visible = visible;
-		this.getNodeFigure().setVisible(visible);
-		for (GraphConnection connection : getSourceConnections()) {
+		if (figureReleased) {
+			graph.invalidateVirtualFigures();
+		} else {
+			this.getNodeFigure().setVisible(visible);
+		}
+		for (GraphConnection connection : sourceConnections) {
 			connection.setVisible(visible);
 		}
 
-		for (GraphConnection connection : getTargetConnections()) {
+		for (GraphConnection connection : targetConnections) {
 			connection.setVisible(visible);
 		}
 	}
@@ -747,8 +870,12 @@ public class GraphNode extends GraphItem {
 	 * PRIVATE MEMBERS
 	 **************************************************************************/
 
-	private IFigure fishEyeFigure = null;
-	private Font fishEyeFont = null;
+	/**
+	 * Height of the font of fisheye figures.
+	 */
+	private static final int FISHEYE_FONT_HEIGHT = 12;
+
+	private GraphLabel fishEyeFigure = null;
 	private boolean isFisheyeEnabled;
 
 	protected IFigure fishEye(boolean enable, boolean animate) {
@@ -762,18 +889,20 @@ public class GraphNode extends GraphItem {
 			return null;
 		}
 		if (enable) {
-			// Create the fish eye label
-			fishEyeFigure = createFishEyeFigure();
+			// Get a fish eye label from the pool of the graph
+			fishEyeFigure = getGraphModel().takeFishEyeLabel(cacheLabel());
+			updateFishEyeFigure(fishEyeFigure);
 
 			// Get the current Bounds
 			Rectangle rectangle = calculateFishEyeBounds();
 
-			FontData fontData = Display.getCurrent().getSystemFont().getFontData()[0];
-			fontData.setHeight(12);
-			fishEyeFont = new Font(Display.getCurrent(), fontData);
-			fishEyeFigure.setFont(fishEyeFont);
+			// the scaled font is cached and disposed by the graph
+			fishEyeFigure.setFont(getGraphModel().getScaledFont(Display.getCurrent().getSystemFont(),
+					FISHEYE_FONT_HEIGHT));
 
 			if (rectangle == null) {
+				getGraphModel().releaseFishEyeLabel(fishEyeFigure, cacheLabel());
+				fishEyeFigure = null;
 				return null;
 			}
 
@@ -785,14 +914,13 @@ public class GraphNode extends GraphItem {
 			return fishEyeFigure;
 
 		}
-		// Remove the fisheye and dispose the font
-		this.getGraphModel().removeFishEye(fishEyeFigure, nodeFigure, animate);
-		if (fishEyeFont != null) {
-			this.fishEyeFont.dispose();
-			this.fishEyeFont = null;
+		// Remove the fisheye and give its figure back to the pool
+		if (fishEyeFigure != null) {
+			this.getGraphModel().removeFishEye(fishEyeFigure, nodeFigure, animate);
+			this.getGraphModel().releaseFishEyeLabel(fishEyeFigure, cacheLabel());
+			fishEyeFigure = null;
 		}
 		isFisheyeEnabled = false;
-		this.getGraphModel().removeFishEye(fishEyeFigure, nodeFigure, animate);
 		return null;
 	}
 
@@ -818,6 +946,11 @@ public class GraphNode extends GraphItem {
 
 	protected void updateFigureForModel(IFigure currentFigure) {
 		if (currentFigure == null) {
+			if (figureReleased) {
+				// the text, image or font the size depends on may have changed
+				releasedSize = null;
+				graph.virtualNodeMoved(this);
+			}
 			return;
 		}
 
@@ -868,28 +1001,36 @@ public class GraphNode extends GraphItem {
 		refreshLocation();
 
 		if (isFisheyeEnabled) {
-			IFigure newFisheyeFigure = createFishEyeFigure();
-			if (graph.replaceFishFigure(this.fishEyeFigure, newFisheyeFigure)) {
-				this.fishEyeFigure = newFisheyeFigure;
-			}
+			// update the fisheye figure in place, keeping its font
+			Font fishEyeFont = fishEyeFigure.getFont();
+			updateFishEyeFigure(fishEyeFigure);
+			fishEyeFigure.setFont(fishEyeFont);
 		}
 	}
 
 	protected IFigure createFigureForModel() {
 		GraphNode node = this;
 		boolean cacheLabel = (this).cacheLabel();
-		GraphLabel label = new GraphLabel(node.getText(), node.getImage(), cacheLabel);
-		label.setFont(this.font);
+		FigureVirtualizer virtualizer = graph.getFigureVirtualizer();
+		GraphLabel label = virtualizer == null ? null : virtualizer.takeLabel(cacheLabel);
+		if (label == null) {
+			label = new GraphLabel(node.getText(), node.getImage(), cacheLabel);
+		} else {
+			label.setText(node.getText());
+			label.setIcon(node.getImage());
+		}
+		label.setFont(getFont());
 		if (checkStyle(ZestStyles.NODES_HIDE_TEXT)) {
 			label.setText(""); //$NON-NLS-1$
 		}
 		updateFigureForModel(label);
-		label.addFigureListener(new FigureListener() {
-			private Dimension previousSize = label.getBounds().getSize();
+		Dimension initialSize = label.getBounds().getSize();
+		labelListener = new FigureListener() {
+			private Dimension previousSize = initialSize;
 
 			@Override
 			public void figureMoved(IFigure source) {
-				if (Animation.isAnimating() || getLayout().isMinimized()) {
+				if (Animation.isAnimating() || getGraphModel().isLayoutAnimating() || getLayout().isMinimized()) {
 					return;
 				}
 				Rectangle newBounds = nodeFigure.getBounds();
@@ -902,25 +1043,26 @@ public class GraphNode extends GraphItem {
 					if (parent instanceof IContainer2) {
 						((InternalLayoutContext)((IContainer2)parent).getLayoutContext()).fireNodeResizedEvent(getLayout());
 					}
+					graph.virtualNodeMoved(GraphNode.this);
 				} else if (currentLocation.x != newBounds.x || currentLocation.y != newBounds.y) {
 					currentLocation = new PrecisionPoint(nodeFigure.getBounds().getTopLeft());
 					if (parent instanceof IContainer2) {
 						((InternalLayoutContext)((IContainer2)parent).getLayoutContext()).fireNodeMovedEvent(getLayout());
 					}
+					graph.virtualNodeMoved(GraphNode.this);
 				}
 			}
-		});
+		};
+		label.addFigureListener(labelListener);
 		return label;
 	}
 
-	private IFigure createFishEyeFigure() {
-		GraphNode node = this;
-		boolean cacheLabel = this.cacheLabel();
-		GraphLabel label = new GraphLabel(node.getText(), node.getImage(), cacheLabel);
-
-		if (!checkStyle(ZestStyles.NODES_HIDE_TEXT)) {
-			label.setText(this.getText());
-		}
+	/**
+	 * Sets the text, icon and colors of this node on given (possibly reused)
+	 * fisheye label.
+	 */
+	private void updateFishEyeFigure(GraphLabel label) {
+		label.setText(this.getText());
 		label.setIcon(getImage());
 
 		// @tag TODO: Add border and foreground colours to highlight
@@ -937,7 +1079,6 @@ public class GraphNode extends GraphItem {
 
 		label.setBorderWidth(getBorderWidth());
 		label.setFont(getFont());
-		return label;
 	}
 
 	@Override
@@ -1108,12 +1249,96 @@ public class GraphNode extends GraphItem {
 	 */
 	@Override
 	IFigure getFigure() {
+		if (figureReleased) {
+			graph.getFigureVirtualizer().restore(this);
+		}
 		if (this.modelFigure == null) {
 			initFigure();
 		}
 		return this.modelFigure;
 	}
 
+	/**
+	 * @return true if this is a plain node directly in a graph, which can do
+	 *         without its figure while it's not visible
+	 */
+	boolean isVirtualCandidate() {
+		return getClass() == GraphNode.class && parent == graph && !graph.getHideNodesEnabled()
+				&& !checkStyle(ZestStyles.NODES_FISHEYE) && !isFisheyeEnabled
+				&& graph.internalGetLayoutContext().getSubgraphFactory() instanceof DefaultSubgraph.DefaultSubgraphFactory;
+	}
+
+	/**
+	 * @return true if the figure of this node may be released now, which requires
+	 *         the figure to be the label created by this node and no connection
+	 *         to be attached to it
+	 */
+	boolean canReleaseFigure() {
+		if (figureReleased || labelListener == null || nodeFigure != modelFigure || !isVirtualCandidate()) {
+			return false;
+		}
+		for (GraphConnection connection : sourceConnections) {
+			if (!connection.isFigureReleased()) {
+				return false;
+			}
+		}
+		for (GraphConnection connection : targetConnections) {
+			if (!connection.isFigureReleased()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	boolean isFigureReleased() {
+		return figureReleased;
+	}
+
+	/**
+	 * Removes the figure of this node from the graph and forgets about it, keeping
+	 * the size of the node.
+	 *
+	 * @return the released figure
+	 */
+	IFigure releaseFigure() {
+		IFigure figure = nodeFigure;
+		releasedSize = getSize();
+		if (figure.getParent() != null) {
+			figure.getParent().remove(figure);
+		}
+		graph.unregisterFigure(figure);
+		if (layout != null) {
+			layout.detachFigure(figure);
+		}
+		figure.removeFigureListener(labelListener);
+		labelListener = null;
+		nodeFigure = null;
+		modelFigure = null;
+		figureReleased = true;
+		return figure;
+	}
+
+	/**
+	 * Creates the figure of this node again and adds it to the graph.
+	 */
+	void restoreFigure() {
+		figureReleased = false;
+		releasedSize = null;
+		initFigure();
+		if (!visible) {
+			nodeFigure.setVisible(false);
+		}
+		graph.getZestRootLayer().addNode(nodeFigure);
+		graph.registerItem(this);
+		if (layout != null) {
+			layout.attachFigure(nodeFigure);
+		}
+		refreshLocation();
+		if (highlighted == HIGHLIGHT_ON) {
+			graph.getZestRootLayer().highlightNode(nodeFigure);
+		}
+	}
+
 	void paint() {
 
 	}
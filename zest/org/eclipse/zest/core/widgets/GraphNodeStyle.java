@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.zest.core.widgets;
+
+import java.util.Arrays;
+
+import org.eclipse.swt.graphics.Color;
+import org.eclipse.swt.graphics.Font;
+
+/**
+ * Immutable set of the colors, border width and font of a {@link GraphNode}.
+ * Styles are interned: nodes styled alike share a single instance, and
+ * restyling a node only replaces its reference to the style.
+ * <p>
+ * Colors and fonts are compared by identity: a graph disposes the colors and
+ * fonts it has created, so an item must keep the very instances it was given,
+ * not equal ones which may belong to another graph.
+ * </p>
+ *
+ * @see GraphNode#setSharedStyle(GraphNodeStyle)
+ * @since 1.16
+ */
+public final class GraphNodeStyle {
+
+	private static final StyleInterner<GraphNodeStyle> INTERNER = new StyleInterner<>();
+
+	private final Color foregroundColor;
+	private final Color backgroundColor;
+	private final Color highlightColor;
+	private final Color borderColor;
+	private final Color borderHighlightColor;
+	private final int borderWidth;
+	private final Font font;
+	private final int hashCode;
+
+	private GraphNodeStyle(Color foregroundColor, Color backgroundColor, Color highlightColor, Color borderColor,
+			Color borderHighlightColor, int borderWidth, Font font) {
+		this.foregroundColor = foregroundColor;
+		this.backgroundColor = backgroundColor;
+		this.highlightColor = highlightColor;
+		this.borderColor = borderColor;
+		this.borderHighlightColor = borderHighlightColor;
+		this.borderWidth = borderWidth;
+		this.font = font;
+		this.hashCode = Arrays.hashCode(new int[] { System.identityHashCode(foregroundColor),
+				System.identityHashCode(backgroundColor), System.identityHashCode(highlightColor),
+				System.identityHashCode(borderColor), System.identityHashCode(borderHighlightColor), borderWidth,
+				System.identityHashCode(font) });
+	}
+
+	/**
+	 * Returns the style with given properties.
+	 *
+	 * @param foregroundColor      color of the text
+	 * @param backgroundColor      color of the node when it's not highlighted
+	 * @param highlightColor       color of the node when it's highlighted
+	 * @param borderColor          color of the border when the node is not
+	 *                             highlighted
+	 * @param borderHighlightColor color of the border when the node is
+	 *                             highlighted
+	 * @param borderWidth          width of the border
+	 * @param font                 font of the text
+	 * @return the shared style
+	 */
+	public static GraphNodeStyle of(Color foregroundColor, Color backgroundColor, Color highlightColor,
+			Color borderColor, Color borderHighlightColor, int borderWidth, Font font) {
+		return INTERNER.intern(new GraphNodeStyle(foregroundColor, backgroundColor, highlightColor, borderColor,
+				borderHighlightColor, borderWidth, font));
+	}
+
+	public Color getForegroundColor() {
+		return foregroundColor;
+	}
+
+	public Color getBackgroundColor() {
+		return backgroundColor;
+	}
+
+	public Color getHighlightColor() {
+		return highlightColor;
+	}
+
+	public Color getBorderColor() {
+		return borderColor;
+	}
+
+	public Color getBorderHighlightColor() {
+		return borderHighlightColor;
+	}
+
+	public int getBorderWidth() {
+		return borderWidth;
+	}
+
+	public Font getFont() {
+		return font;
+	}
+
+	/**
+	 * @return the style with given foreground color and the other properties of
+	 *         this style
+	 */
+	public GraphNodeStyle withForegroundColor(Color color) {
+		if (color == foregroundColor) {
+			return this;
+		}
+		return of(color, backgroundColor, highlightColor, borderColor, borderHighlightColor, borderWidth, font);
+	}
+
+	/**
+	 * @return the style with given background color and the other properties of
+	 *         this style
+	 */
+	public GraphNodeStyle withBackgroundColor(Color color) {
+		if (color == backgroundColor) {
+			return this;
+		}
+		return of(foregroundColor, color, highlightColor, borderColor, borderHighlightColor, borderWidth, font);
+	}
+
+	/**
+	 * @return the style with given highlight color and the other properties of
+	 *         this style
+	 */
+	public GraphNodeStyle withHighlightColor(Color color) {
+		if (color == highlightColor) {
+			return this;
+		}
+		return of(foregroundColor, backgroundColor, color, borderColor, borderHighlightColor, borderWidth, font);
+	}
+
+	/**
+	 * @return the style with given border color and the other properties of this
+	 *         style
+	 */
+	public GraphNodeStyle withBorderColor(Color color) {
+		if (color == borderColor) {
+			return this;
+		}
+		return of(foregroundColor, backgroundColor, highlightColor, color, borderHighlightColor, borderWidth, font);
+	}
+
+	/**
+	 * @return the style with given border highlight color and the other
+	 *         properties of this style
+	 */
+	public GraphNodeStyle withBorderHighlightColor(Color color) {
+		if (color == borderHighlightColor) {
+			return this;
+		}
+		return of(foregroundColor, backgroundColor, highlightColor, borderColor, color, borderWidth, font);
+	}
+
+	/**
+	 * @return the style with given border width and the other properties of this
+	 *         style
+	 */
+	public GraphNodeStyle withBorderWidth(int width) {
+		if (width == borderWidth) {
+			return this;
+		}
+		return of(foregroundColor, backgroundColor, highlightColor, borderColor, borderHighlightColor, width, font);
+	}
+
+	/**
+	 * @return the style with given font and the other properties of this style
+	 */
+	public GraphNodeStyle withFont(Font font) {
+		if (font == this.font) {
+			return this;
+		}
+		return of(foregroundColor, backgroundColor, highlightColor, borderColor, borderHighlightColor, borderWidth,
+				font);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof GraphNodeStyle)) {
+			return false;
+		}
+		GraphNodeStyle other = (GraphNodeStyle) obj;
+		return hashCode == other.hashCode && borderWidth == other.borderWidth && font == other.font
+				&& foregroundColor == other.foregroundColor && backgroundColor == other.backgroundColor
+				&& highlightColor == other.highlightColor && borderColor == other.borderColor
+				&& borderHighlightColor == other.borderHighlightColor;
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+}
@@ -27,6 +27,11 @@ import org.eclipse.draw2d.geometry.Rectangle;
 /**
  * A ContainerFigure that container buttons and labels for hiding and revealing
  * nodes. This class also provides helper methods for hiding/revealing nodes.
+ * <p>
+ * The buttons and the label are created, and this figure is added to the
+ * figure of the node, only when they are shown for the first time, so that
+ * nodes which are never hovered and have no hidden neighbors don't carry them.
+ * </p>
  *
  * @author Sebastian Hollersbacher
  * @since 1.8
@@ -36,26 +41,40 @@ public class HideNodeHelper extends ContainerFigure {
 
 	private final GraphNode node;
 
-	private final Button hideButton = new Button("-"); //$NON-NLS-1$
-	private final Button revealButton = new Button("+"); //$NON-NLS-1$
+	/**
+	 * The controls, null until they are needed.
+	 */
+	private Button hideButton;
+	private Button revealButton;
 	private int hiddenNodeCount = 0;
-	private final GraphLabel hiddenNodesLabel = new GraphLabel("0", false); //$NON-NLS-1$
+	private GraphLabel hiddenNodesLabel;
 
 	private final HideNodeListener thisHideNodeListener;
 	private final List<HideNodeListener> hideNodeListeners = new CopyOnWriteArrayList<>();
 
 	/**
-	 * Create a HideNodeHelper and add it to the node's nodeFigure
+	 * Create a HideNodeHelper, which adds itself to the node's nodeFigure when its
+	 * buttons or label are shown for the first time
 	 *
 	 * @param node
 	 */
 	public HideNodeHelper(GraphNode node) {
 		this.node = node;
 		thisHideNodeListener = new HideNodeListener(node);
-		createHideButtons(node.getNodeFigure());
 	}
 
-	private void createHideButtons(IFigure figure) {
+	/**
+	 * Creates the buttons and the label if they don't exist yet.
+	 */
+	private void createHideButtons() {
+		if (hideButton != null) {
+			return;
+		}
+		IFigure figure = node.getNodeFigure();
+		hideButton = new Button("-"); //$NON-NLS-1$
+		revealButton = new Button("+"); //$NON-NLS-1$
+		hiddenNodesLabel = new GraphLabel("0", false); //$NON-NLS-1$
+
 		// create buttons and label for hiding nodes
 		hideButton.setVisible(false);
 		revealButton.setVisible(false);
@@ -100,6 +119,12 @@ public class HideNodeHelper extends ContainerFigure {
 	 * @param visible
 	 */
 	public void setHideButtonVisible(boolean visible) {
+		if (hideButton == null) {
+			if (!visible) {
+				return;
+			}
+			createHideButtons();
+		}
 		hideButton.setVisible(visible);
 		updateHideButtonFigure();
 	}
@@ -111,6 +136,7 @@ public class HideNodeHelper extends ContainerFigure {
 	 */
 	public void setRevealButtonVisible(boolean visible) {
 		if (hiddenNodeCount > 0) {
+			createHideButtons();
 			revealButton.setVisible(visible);
 			updateHideButtonFigure();
 		}
@@ -121,6 +147,9 @@ public class HideNodeHelper extends ContainerFigure {
 	 */
 	public void resetCounter() {
 		hiddenNodeCount = 0;
+		if (hideButton == null) {
+			return;
+		}
 		hideButton.setVisible(false);
 		revealButton.setVisible(false);
 		hiddenNodesLabel.setVisible(false);
@@ -217,6 +246,7 @@ public class HideNodeHelper extends ContainerFigure {
 
 		private void increaseHiddenNodes() {
 			hiddenNodeCount++;
+			createHideButtons();
 			hiddenNodesLabel.setVisible(true);
 			hiddenNodesLabel.setText(Integer.toString(hiddenNodeCount));
 			updateHideButtonFigure();
@@ -224,6 +254,9 @@ public class HideNodeHelper extends ContainerFigure {
 
 		private void decreaseHiddenNodes() {
 			hiddenNodeCount--;
+			if (hiddenNodesLabel == null) {
+				return;
+			}
 			hiddenNodesLabel.setVisible(hiddenNodeCount > 0); // true if hidden node still exists
 			hiddenNodesLabel.setText(Integer.toString(hiddenNodeCount));
 			updateHideButtonFigure();
@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.zest.core.widgets;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A list of distinct elements that keeps their insertion order and supports
+ * {@link #contains(Object)} and {@link #remove(Object)} in constant time.
+ * <p>
+ * Removed elements leave an empty slot behind, which is reclaimed by a later
+ * {@link #add(Object)} when the storage is full, or by a later
+ * {@link #remove(Object)} once there are more empty slots than elements.
+ * Removing elements from the front, as done when items are disposed one by
+ * one, never needs a reclaim, and removing through an iterator never reclaims,
+ * since that would move the elements the iterator hasn't reached yet. Reading
+ * never moves elements either: while there are empty slots, {@link #get(int)}
+ * and {@link #indexOf(Object)} find the position of an element through a count
+ * of the used slots, built on first use, in logarithmic time. Adding an element
+ * that is already in the list has no effect, null elements are not permitted
+ * and elements can't be inserted at or replaced by index.
+ * </p>
+ *
+ * @param <E> type of the elements
+ */
+final class IndexedList<E> extends AbstractList<E> implements RandomAccess {
+
+	private Object[] elements = new Object[10];
+
+	/**
+	 * Slot of every element in {@link #elements}.
+	 */
+	private final Map<Object, Integer> slots = new HashMap<>();
+
+	/**
+	 * All slots before this one are empty.
+	 */
+	private int head;
+
+	/**
+	 * All slots starting with this one are empty.
+	 */
+	private int end;
+
+	/**
+	 * Number of empty slots between {@link #head} and {@link #end}.
+	 */
+	private int holes;
+
+	/**
+	 * Binary indexed tree counting the used slots of {@link #elements}, or null if
+	 * it has to be built. Only needed while there are empty slots.
+	 */
+	private int[] usedSlots;
+
+	@Override
+	public int size() {
+		return end - head - holes;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		Objects.checkIndex(index, size());
+		if (holes == 0) {
+			return (E) elements[head + index];
+		}
+		return (E) elements[findSlot(index)];
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return slots.containsKey(o);
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		if (!slots.containsKey(o)) {
+			return -1;
+		}
+		int slot = slots.get(o).intValue();
+		if (holes == 0) {
+			return slot - head;
+		}
+		return countUsedSlots(slot);
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		return indexOf(o);
+	}
+
+	@Override
+	public boolean add(E e) {
+		Objects.requireNonNull(e);
+		if (slots.containsKey(e)) {
+			return false;
+		}
+		if (end == elements.length) {
+			if (head + holes >= elements.length / 2) {
+				compact();
+			} else {
+				elements = Arrays.copyOf(elements, elements.length * 2);
+				usedSlots = null;
+			}
+		}
+		elements[end] = e;
+		slots.put(e, Integer.valueOf(end));
+		updateUsedSlots(end, 1);
+		end++;
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public E remove(int index) {
+		E element = get(index);
+		remove(element);
+		return element;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		return remove(o, true);
+	}
+
+	/**
+	 * Removes given element, reclaiming the empty slots if allowed and there are
+	 * more of them than elements.
+	 */
+	private boolean remove(Object o, boolean mayReclaim) {
+		Integer slot = slots.remove(o);
+		if (slot == null) {
+			return false;
+		}
+		int i = slot.intValue();
+		elements[i] = null;
+		updateUsedSlots(i, -1);
+		if (i == head) {
+			head++;
+			while (head < end && elements[head] == null) {
+				head++;
+				holes--;
+			}
+		} else {
+			holes++;
+		}
+		if (head == end) {
+			head = end = holes = 0;
+		} else if (mayReclaim && holes > size()) {
+			// amortized over the removals which left the empty slots
+			compact();
+		}
+		modCount++;
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(elements, head, end, null);
+		slots.clear();
+		head = end = holes = 0;
+		usedSlots = null;
+		modCount++;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Itr();
+	}
+
+	/**
+	 * Moves all elements to the front of the storage, closing the empty slots.
+	 */
+	private void compact() {
+		int target = 0;
+		for (int i = head; i < end; i++) {
+			Object element = elements[i];
+			if (element != null) {
+				elements[target] = element;
+				slots.put(element, Integer.valueOf(target));
+				target++;
+			}
+		}
+		Arrays.fill(elements, target, end, null);
+		head = 0;
+		end = target;
+		holes = 0;
+		usedSlots = null;
+		// slots of the elements have changed, so running iterators are invalid
+		modCount++;
+	}
+
+	/**
+	 * Returns the slot of the element at given index, while there are empty slots.
+	 */
+	private int findSlot(int index) {
+		int[] tree = getUsedSlots();
+		int slot = 0;
+		int remaining = index + 1;
+		for (int step = Integer.highestOneBit(elements.length); step > 0; step >>= 1) {
+			int next = slot + step;
+			if (next <= elements.length && tree[next] < remaining) {
+				slot = next;
+				remaining -= tree[next];
+			}
+		}
+		return slot;
+	}
+
+	/**
+	 * Returns the number of used slots before given one.
+	 */
+	private int countUsedSlots(int slot) {
+		int[] tree = getUsedSlots();
+		int count = 0;
+		for (int i = slot; i > 0; i -= i & -i) {
+			count += tree[i];
+		}
+		return count;
+	}
+
+	private int[] getUsedSlots() {
+		if (usedSlots == null) {
+			int[] tree = new int[elements.length + 1];
+			for (int i = 1; i <= elements.length; i++) {
+				if (elements[i - 1] != null) {
+					tree[i]++;
+				}
+				int parent = i + (i & -i);
+				if (parent <= elements.length) {
+					tree[parent] += tree[i];
+				}
+			}
+			usedSlots = tree;
+		}
+		return usedSlots;
+	}
+
+	private void updateUsedSlots(int slot, int delta) {
+		if (usedSlots != null) {
+			for (int i = slot + 1; i <= elements.length; i += i & -i) {
+				usedSlots[i] += delta;
+			}
+		}
+	}
+
+	/**
+	 * Iterates over the slots directly. Removing through the iterator only empties
+	 * the slot, so that the slots it hasn't reached yet stay where they are.
+	 */
+	private class Itr implements Iterator<E> {
+		private int cursor = head;
+		private int lastSlot = -1;
+		private int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			while (cursor < end && elements[cursor] == null) {
+				cursor++;
+			}
+			return cursor < end;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() {
+			checkForComodification();
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			lastSlot = cursor++;
+			return (E) elements[lastSlot];
+		}
+
+		@Override
+		public void remove() {
+			if (lastSlot < 0) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			IndexedList.this.remove(elements[lastSlot], false);
+			lastSlot = -1;
+			expectedModCount = modCount;
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+}
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.zest.core.widgets;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.swt.graphics.GC;
+
+import org.eclipse.draw2d.DeferredUpdateManager;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * Update manager of a graph which reports the timings of validation and
+ * painting to the {@link Graph#getInstrumentation() instrumentation}. Without
+ * an instrumentation, it behaves exactly like its superclass.
+ */
+final class InstrumentedUpdateManager extends DeferredUpdateManager {
+
+	private Graph graph;
+
+	/**
+	 * Figures invalidated since the last validation, only collected while there
+	 * is an instrumentation.
+	 */
+	private final Set<IFigure> invalidFigures = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	private boolean isValidating = false;
+
+	/**
+	 * Region passed to the painting listeners during the current repair, or
+	 * null.
+	 */
+	private Rectangle paintedRegion;
+
+	void setGraph(Graph graph) {
+		this.graph = graph;
+	}
+
+	@Override
+	public synchronized void addInvalidFigure(IFigure figure) {
+		super.addInvalidFigure(figure);
+		if (Graph.getInstrumentation() != null) {
+			invalidFigures.add(figure);
+		}
+	}
+
+	@Override
+	public synchronized void performValidation() {
+		GraphInstrumentation instrumentation = Graph.getInstrumentation();
+		if (instrumentation == null || graph == null || isValidating || invalidFigures.isEmpty()) {
+			if (instrumentation == null && !invalidFigures.isEmpty()) {
+				invalidFigures.clear();
+			}
+			super.performValidation();
+			return;
+		}
+		isValidating = true;
+		long start = System.nanoTime();
+		try {
+			super.performValidation();
+		} finally {
+			isValidating = false;
+		}
+		long duration = System.nanoTime() - start;
+		// includes the figures invalidated while validating
+		int figureCount = invalidFigures.size();
+		invalidFigures.clear();
+		instrumentation.figuresValidated(graph, figureCount, duration);
+	}
+
+	@Override
+	protected void repairDamage() {
+		GraphInstrumentation instrumentation = Graph.getInstrumentation();
+		if (instrumentation == null || graph == null) {
+			super.repairDamage();
+			return;
+		}
+		paintedRegion = null;
+		long start = System.nanoTime();
+		super.repairDamage();
+		long duration = System.nanoTime() - start;
+		if (paintedRegion != null) {
+			instrumentation.damageRepaired(graph, paintedRegion, duration);
+			paintedRegion = null;
+		}
+	}
+
+	@Override
+	protected void paint(GC gc) {
+		GraphInstrumentation instrumentation = Graph.getInstrumentation();
+		if (instrumentation == null || graph == null) {
+			super.paint(gc);
+			return;
+		}
+		Rectangle region = new Rectangle(gc.getClipping());
+		long start = System.nanoTime();
+		super.paint(gc);
+		instrumentation.damageRepaired(graph, region, System.nanoTime() - start);
+	}
+
+	@Override
+	protected void firePainting(Rectangle damage, Map<IFigure, Rectangle> dirtyRegions) {
+		super.firePainting(damage, dirtyRegions);
+		if (Graph.getInstrumentation() != null) {
+			paintedRegion = damage.getCopy();
+		}
+	}
+}
@@ -15,6 +15,7 @@ package org.eclipse.zest.core.widgets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -51,6 +52,12 @@ class InternalLayoutContext implements LayoutContext {
 	private boolean backgorundLayoutEnabled = true;
 	private boolean externalLayoutInvocation = false;
 
+	/**
+	 * Changes recorded during the current batch, null if nothing has changed
+	 * since the batch began or if the graph is not in a batch.
+	 */
+	private PendingChanges pendingChanges;
+
 	/**
 	 * @param graph the graph owning this context
 	 */
@@ -105,7 +112,12 @@ class InternalLayoutContext implements LayoutContext {
 			return;
 		}
 		eventsOn = false;
-		if (animationHint) {
+		// the graph itself is animated by a layout transition, containers still by
+		// draw2d
+		LayoutTransition transition = null;
+		if (animationHint && container instanceof Graph) {
+			transition = LayoutTransition.begin((Graph) container);
+		} else if (animationHint) {
 			Animation.markBegin();
 		}
 		for (GraphNode node : container.getNodes()) {
@@ -118,7 +130,9 @@ class InternalLayoutContext implements LayoutContext {
 			DefaultSubgraph subgraph = (DefaultSubgraph) subgraph2;
 			subgraph.applyLayoutChanges();
 		}
-		if (animationHint) {
+		if (transition != null) {
+			transition.play(Graph.ANIMATION_TIME);
+		} else if (animationHint) {
 			Animation.run(Graph.ANIMATION_TIME);
 		}
 		eventsOn = true;
@@ -347,7 +361,7 @@ class InternalLayoutContext implements LayoutContext {
 
 	void applyMainAlgorithm() {
 		if (backgorundLayoutEnabled && mainAlgorithm != null) {
-			mainAlgorithm.applyLayout(true);
+			runAlgorithm(mainAlgorithm, true);
 			flushChanges(false);
 		}
 	}
@@ -373,18 +387,183 @@ class InternalLayoutContext implements LayoutContext {
 	void applyLayout(boolean clean) {
 		if (layoutAlgorithm != null) {
 			externalLayoutInvocation = true;
-			layoutAlgorithm.applyLayout(clean);
+			LayoutCache layoutCache = container.getGraph().getLayoutCache();
+			if (clean && layoutCache != null && subgraphs.isEmpty()) {
+				applyCachedLayout(layoutCache);
+			} else {
+				runAlgorithm(layoutAlgorithm, clean);
+			}
 			externalLayoutInvocation = false;
 		}
 	}
 
+	/**
+	 * Applies given algorithm, reporting its duration to the instrumentation of
+	 * the graphs if there is one.
+	 */
+	private void runAlgorithm(LayoutAlgorithm algorithm, boolean clean) {
+		GraphInstrumentation instrumentation = Graph.getInstrumentation();
+		if (instrumentation == null) {
+			algorithm.applyLayout(clean);
+			return;
+		}
+		Graph graph = container.getGraph();
+		int nodeCount = container.getNodes().size();
+		int connectionCount = container.getConnections().size();
+		instrumentation.layoutStarted(graph, algorithm, nodeCount, connectionCount);
+		long start = System.nanoTime();
+		algorithm.applyLayout(clean);
+		instrumentation.layoutFinished(graph, algorithm, nodeCount, connectionCount, System.nanoTime() - start);
+	}
+
+	/**
+	 * Applies the layout stored in given cache or, if there is none yet, runs the
+	 * layout algorithm and stores its result. Subgraphs are not cached, so this
+	 * is only used when there are no subgraphs in this context.
+	 */
+	private void applyCachedLayout(LayoutCache layoutCache) {
+		NodeLayout[] nodes = getNodes();
+		String fingerprint = layoutCache.computeFingerprint(layoutAlgorithm, getBounds(), nodes, getConnections());
+		if (!layoutCache.restore(fingerprint, nodes)) {
+			runAlgorithm(layoutAlgorithm, true);
+			if (subgraphs.isEmpty()) {
+				layoutCache.store(fingerprint, nodes);
+			}
+		}
+	}
+
 	void checkChangesAllowed() {
 		if (!backgorundLayoutEnabled && !externalLayoutInvocation) {
 			throw new RuntimeException("Layout not allowed to perform changes in layout context!"); //$NON-NLS-1$
 		}
 	}
 
+	/**
+	 * Changes recorded while the graph is in a batch, sent to the listeners of
+	 * this context when the batch ends.
+	 */
+	private static final class PendingChanges {
+		final Set<NodeLayout> addedNodes = new LinkedHashSet<>();
+		final Set<ConnectionLayout> addedConnections = new LinkedHashSet<>();
+		final Set<NodeLayout> removedNodes = new LinkedHashSet<>();
+		final Set<ConnectionLayout> removedConnections = new LinkedHashSet<>();
+		final Set<NodeLayout> movedNodes = new LinkedHashSet<>();
+		final Set<NodeLayout> resizedNodes = new LinkedHashSet<>();
+		final Set<SubgraphLayout> movedSubgraphs = new LinkedHashSet<>();
+		final Set<SubgraphLayout> resizedSubgraphs = new LinkedHashSet<>();
+		boolean boundsChanged = false;
+
+		void nodeAdded(NodeLayout node) {
+			addedNodes.add(node);
+		}
+
+		void nodeRemoved(NodeLayout node) {
+			movedNodes.remove(node);
+			resizedNodes.remove(node);
+			// a node added and removed in the same batch is not reported at all
+			if (!addedNodes.remove(node)) {
+				removedNodes.add(node);
+			}
+		}
+
+		void connectionAdded(ConnectionLayout connection) {
+			addedConnections.add(connection);
+		}
+
+		void connectionRemoved(ConnectionLayout connection) {
+			if (!addedConnections.remove(connection)) {
+				removedConnections.add(connection);
+			}
+		}
+
+		void nodeMoved(NodeLayout node) {
+			// the location of an added node is reported by the added event
+			if (!addedNodes.contains(node)) {
+				movedNodes.add(node);
+			}
+		}
+
+		void nodeResized(NodeLayout node) {
+			if (!addedNodes.contains(node)) {
+				resizedNodes.add(node);
+			}
+		}
+	}
+
+	/**
+	 * Returns the changes of the current batch, or null if the graph is not in a
+	 * batch (or if the event comes from applying a layout, in which case it is
+	 * dropped anyway).
+	 */
+	private PendingChanges getPendingChanges() {
+		if (!eventsOn || !container.getGraph().isBatching()) {
+			return null;
+		}
+		if (pendingChanges == null) {
+			pendingChanges = new PendingChanges();
+			container.getGraph().addBatchedContext(this);
+		}
+		return pendingChanges;
+	}
+
+	/**
+	 * Sends the changes recorded during the batch which has just ended, each kind
+	 * of change in one event, and applies the main algorithm at most once.
+	 */
+	void fireBatchedEvents() {
+		PendingChanges changes = pendingChanges;
+		pendingChanges = null;
+		if (changes == null) {
+			return;
+		}
+		boolean apply = false;
+		if (!changes.removedNodes.isEmpty() || !changes.removedConnections.isEmpty()) {
+			apply |= !notifyStructureRemoved(
+					changes.removedNodes.toArray(new NodeLayout[changes.removedNodes.size()]),
+					changes.removedConnections.toArray(new ConnectionLayout[changes.removedConnections.size()]));
+		}
+		if (!changes.addedNodes.isEmpty() || !changes.addedConnections.isEmpty()) {
+			apply |= !notifyStructureChanged(changes.addedNodes.toArray(new NodeLayout[changes.addedNodes.size()]),
+					changes.addedConnections.toArray(new ConnectionLayout[changes.addedConnections.size()]));
+		}
+		// a resize implies a move
+		changes.movedNodes.removeAll(changes.resizedNodes);
+		changes.movedSubgraphs.removeAll(changes.resizedSubgraphs);
+		if (!changes.movedNodes.isEmpty() || !changes.resizedNodes.isEmpty() || !changes.movedSubgraphs.isEmpty()
+				|| !changes.resizedSubgraphs.isEmpty()) {
+			NodeLayout[] movedNodes = changes.movedNodes.toArray(new NodeLayout[changes.movedNodes.size()]);
+			NodeLayout[] resizedNodes = changes.resizedNodes.toArray(new NodeLayout[changes.resizedNodes.size()]);
+			SubgraphLayout[] movedSubgraphs = changes.movedSubgraphs
+					.toArray(new SubgraphLayout[changes.movedSubgraphs.size()]);
+			SubgraphLayout[] resizedSubgraphs = changes.resizedSubgraphs
+					.toArray(new SubgraphLayout[changes.resizedSubgraphs.size()]);
+			boolean intercepted = false;
+			LayoutListener[] listeners = layoutListeners.toArray(new LayoutListener[layoutListeners.size()]);
+			for (int i = 0; i < listeners.length && !intercepted; i++) {
+				intercepted = listeners[i].layoutChanged(this, movedNodes, resizedNodes, movedSubgraphs,
+						resizedSubgraphs);
+			}
+			apply |= !intercepted;
+		}
+		if (changes.boundsChanged) {
+			boolean intercepted = false;
+			ContextListener[] listeners = contextListeners.toArray(new ContextListener[contextListeners.size()]);
+			for (int i = 0; i < listeners.length && !intercepted; i++) {
+				intercepted = listeners[i].boundsChanged(this);
+			}
+			apply |= !intercepted;
+		}
+		if (apply) {
+			applyMainAlgorithm();
+		}
+	}
+
 	void fireNodeAddedEvent(NodeLayout node) {
+		PendingChanges changes = getPendingChanges();
+		if (changes != null) {
+			changes.nodeAdded(node);
+			return;
+		}
 		boolean intercepted = !eventsOn;
 		GraphStructureListener[] listeners = graphStructureListeners
 				.toArray(new GraphStructureListener[graphStructureListeners.size()]);
@@ -397,6 +576,11 @@ class InternalLayoutContext implements LayoutContext {
 	}
 
 	void fireNodeRemovedEvent(NodeLayout node) {
+		PendingChanges changes = getPendingChanges();
+		if (changes != null) {
+			changes.nodeRemoved(node);
+			return;
+		}
 		boolean intercepted = !eventsOn;
 		GraphStructureListener[] listeners = graphStructureListeners
 				.toArray(new GraphStructureListener[graphStructureListeners.size()]);
@@ -415,6 +599,11 @@ class InternalLayoutContext implements LayoutContext {
 			return;
 		}
 		if (sourceContext == this) {
+			PendingChanges changes = getPendingChanges();
+			if (changes != null) {
+				changes.connectionAdded(connection);
+				return;
+			}
 			boolean intercepted = !eventsOn;
 			GraphStructureListener[] listeners = graphStructureListeners
 					.toArray(new GraphStructureListener[graphStructureListeners.size()]);
@@ -429,6 +618,80 @@ class InternalLayoutContext implements LayoutContext {
 		}
 	}
 
+	void fireStructureChangedEvent(NodeLayout[] addedNodes, ConnectionLayout[] addedConnections) {
+		ConnectionLayout[] connections = getOwnConnections(addedConnections);
+		PendingChanges changes = getPendingChanges();
+		if (changes != null) {
+			for (NodeLayout node : addedNodes) {
+				changes.nodeAdded(node);
+			}
+			for (ConnectionLayout connection : connections) {
+				changes.connectionAdded(connection);
+			}
+			return;
+		}
+		if (eventsOn && !notifyStructureChanged(addedNodes, connections)) {
+			applyMainAlgorithm();
+		}
+	}
+
+	void fireStructureRemovedEvent(NodeLayout[] removedNodes, ConnectionLayout[] removedConnections) {
+		ConnectionLayout[] connections = getOwnConnections(removedConnections);
+		PendingChanges changes = getPendingChanges();
+		if (changes != null) {
+			for (ConnectionLayout connection : connections) {
+				changes.connectionRemoved(connection);
+			}
+			for (NodeLayout node : removedNodes) {
+				changes.nodeRemoved(node);
+			}
+			return;
+		}
+		if (eventsOn && !notifyStructureRemoved(removedNodes, connections)) {
+			applyMainAlgorithm();
+		}
+	}
+
+	/**
+	 * Returns the connections whose both ends belong to this context.
+	 */
+	private ConnectionLayout[] getOwnConnections(ConnectionLayout[] connections) {
+		List<ConnectionLayout> ownConnections = new ArrayList<>(connections.length);
+		for (ConnectionLayout connection : connections) {
+			if (((InternalNodeLayout) connection.getSource()).getOwnerLayoutContext() == this
+					&& ((InternalNodeLayout) connection.getTarget()).getOwnerLayoutContext() == this) {
+				ownConnections.add(connection);
+			}
+		}
+		return ownConnections.toArray(new ConnectionLayout[ownConnections.size()]);
+	}
+
+	/**
+	 * @return true if one of the listeners has intercepted the event
+	 */
+	private boolean notifyStructureChanged(NodeLayout[] addedNodes, ConnectionLayout[] addedConnections) {
+		boolean intercepted = false;
+		GraphStructureListener[] listeners = graphStructureListeners
+				.toArray(new GraphStructureListener[graphStructureListeners.size()]);
+		for (int i = 0; i < listeners.length && !intercepted; i++) {
+			intercepted = listeners[i].structureChanged(this, addedNodes, addedConnections);
+		}
+		return intercepted;
+	}
+
+	/**
+	 * @return true if one of the listeners has intercepted the event
+	 */
+	private boolean notifyStructureRemoved(NodeLayout[] removedNodes, ConnectionLayout[] removedConnections) {
+		boolean intercepted = false;
+		GraphStructureListener[] listeners = graphStructureListeners
+				.toArray(new GraphStructureListener[graphStructureListeners.size()]);
+		for (int i = 0; i < listeners.length && !intercepted; i++) {
+			intercepted = listeners[i].structureRemoved(this, removedNodes, removedConnections);
+		}
+		return intercepted;
+	}
+
 	void fireConnectionRemovedEvent(ConnectionLayout connection) {
 		InternalLayoutContext sourceContext = ((InternalNodeLayout) connection.getSource()).getOwnerLayoutContext();
 		InternalLayoutContext targetContext = ((InternalNodeLayout) connection.getTarget()).getOwnerLayoutContext();
@@ -436,6 +699,11 @@ class InternalLayoutContext implements LayoutContext {
 			return;
 		}
 		if (sourceContext == this) {
+			PendingChanges changes = getPendingChanges();
+			if (changes != null) {
+				changes.connectionRemoved(connection);
+				return;
+			}
 			boolean intercepted = !eventsOn;
 			GraphStructureListener[] listeners = graphStructureListeners
 					.toArray(new GraphStructureListener[graphStructureListeners.size()]);
@@ -446,11 +714,16 @@ class InternalLayoutContext implements LayoutContext {
 				applyMainAlgorithm();
 			}
 		} else {
-			sourceContext.fireConnectionAddedEvent(connection);
+			sourceContext.fireConnectionRemovedEvent(connection);
 		}
 	}
 
 	void fireBoundsChangedEvent() {
+		PendingChanges changes = getPendingChanges();
+		if (changes != null) {
+			changes.boundsChanged = true;
+			return;
+		}
 		boolean intercepted = !eventsOn;
 		ContextListener[] listeners = contextListeners.toArray(new ContextListener[contextListeners.size()]);
 		for (int i = 0; i < listeners.length && !intercepted; i++) {
@@ -472,9 +745,14 @@ class InternalLayoutContext implements LayoutContext {
 		if (eventsOn) {
 			node.refreshLocation();
 		}
+		node.setLocation(node.getNode().getLocation().x, node.getNode().getLocation().y);
+		PendingChanges changes = getPendingChanges();
+		if (changes != null) {
+			changes.nodeMoved(node);
+			return;
+		}
 		boolean intercepted = !eventsOn;
 		LayoutListener[] listeners = layoutListeners.toArray(new LayoutListener[layoutListeners.size()]);
-		node.setLocation(node.getNode().getLocation().x, node.getNode().getLocation().y);
 		for (int i = 0; i < listeners.length && !intercepted; i++) {
 			intercepted = listeners[i].nodeMoved(this, node);
 		}
@@ -488,6 +766,11 @@ class InternalLayoutContext implements LayoutContext {
 			node.refreshSize();
 			node.refreshLocation();
 		}
+		PendingChanges changes = getPendingChanges();
+		if (changes != null) {
+			changes.nodeResized(node);
+			return;
+		}
 		boolean intercepted = !eventsOn;
 		LayoutListener[] listeners = layoutListeners.toArray(new LayoutListener[layoutListeners.size()]);
 		for (int i = 0; i < listeners.length && !intercepted; i++) {
@@ -502,6 +785,11 @@ class InternalLayoutContext implements LayoutContext {
 		if (eventsOn) {
 			subgraph.refreshLocation();
 		}
+		PendingChanges changes = getPendingChanges();
+		if (changes != null) {
+			changes.movedSubgraphs.add(subgraph);
+			return;
+		}
 		boolean intercepted = !eventsOn;
 		LayoutListener[] listeners = layoutListeners.toArray(new LayoutListener[layoutListeners.size()]);
 		for (int i = 0; i < listeners.length && !intercepted; i++) {
@@ -517,6 +805,11 @@ class InternalLayoutContext implements LayoutContext {
 			subgraph.refreshSize();
 			subgraph.refreshLocation();
 		}
+		PendingChanges changes = getPendingChanges();
+		if (changes != null) {
+			changes.resizedSubgraphs.add(subgraph);
+			return;
+		}
 		boolean intercepted = !eventsOn;
 		LayoutListener[] listeners = layoutListeners.toArray(new LayoutListener[layoutListeners.size()]);
 		for (int i = 0; i < listeners.length && !intercepted; i++) {
@@ -526,4 +819,4 @@ class InternalLayoutContext implements LayoutContext {
 			applyMainAlgorithm();
 		}
 	}
-}
\ No newline at end of file
+}
@@ -61,8 +61,26 @@ class InternalNodeLayout implements NodeLayout {
 	public InternalNodeLayout(GraphNode graphNode) {
 		this.node = graphNode;
 		this.ownerLayoutContext = (InternalLayoutContext) ((IContainer2) node.parent).getLayoutContext();
-		graphNode.nodeFigure.addFigureListener(figureListener);
-		figureToNode.put(graphNode.nodeFigure, graphNode);
+		if (graphNode.nodeFigure != null) {
+			attachFigure(graphNode.nodeFigure);
+		}
+	}
+
+	/**
+	 * Starts following given figure of the node, which may be created after this
+	 * layout in a graph with virtual figures.
+	 */
+	void attachFigure(IFigure figure) {
+		figure.addFigureListener(figureListener);
+		figureToNode.put(figure, node);
+	}
+
+	/**
+	 * Stops following given figure, which the node has released.
+	 */
+	void detachFigure(IFigure figure) {
+		figure.removeFigureListener(figureListener);
+		figureToNode.remove(figure);
 	}
 
 	@Override
@@ -243,12 +261,14 @@ class InternalNodeLayout implements NodeLayout {
 	@Override
 	public ConnectionLayout[] getIncomingConnections() {
 		List<ConnectionLayout> result = new ArrayList<>();
-		for (GraphConnection connection : node.getTargetConnections()) {
+		for (int i = 0; i < node.getTargetConnectionCount(); i++) {
+			GraphConnection connection = node.getTargetConnection(i);
 			if (!ownerLayoutContext.isLayoutItemFiltered(connection)) {
 				result.add(connection.getLayout());
 			}
 		}
-		for (GraphConnection connection : node.getSourceConnections()) {
+		for (int i = 0; i < node.getSourceConnectionCount(); i++) {
+			GraphConnection connection = node.getSourceConnection(i);
 			if (!connection.isDirected() && !ownerLayoutContext.isLayoutItemFiltered(connection)) {
 				result.add(connection.getLayout());
 			}
@@ -259,12 +279,14 @@ class InternalNodeLayout implements NodeLayout {
 	@Override
 	public ConnectionLayout[] getOutgoingConnections() {
 		List<ConnectionLayout> result = new ArrayList<>();
-		for (GraphConnection connection : node.getSourceConnections()) {
+		for (int i = 0; i < node.getSourceConnectionCount(); i++) {
+			GraphConnection connection = node.getSourceConnection(i);
 			if (!ownerLayoutContext.isLayoutItemFiltered(connection)) {
 				result.add(connection.getLayout());
 			}
 		}
-		for (GraphConnection connection : node.getTargetConnections()) {
+		for (int i = 0; i < node.getTargetConnectionCount(); i++) {
+			GraphConnection connection = node.getTargetConnection(i);
 			if (!connection.isDirected() && !ownerLayoutContext.isLayoutItemFiltered(connection)) {
 				result.add(connection.getLayout());
 			}
@@ -334,6 +356,16 @@ class InternalNodeLayout implements NodeLayout {
 		figureToNode.remove(node.nodeFigure);
 	}
 
+	/**
+	 * Marks this node layout as disposed without notifying the layout context and
+	 * without updating its subgraph. Used when many nodes are removed at once, in
+	 * which case the caller takes care of both.
+	 */
+	void disposeQuietly() {
+		isDisposed = true;
+		figureToNode.remove(node.nodeFigure);
+	}
+
 	boolean isDisposed() {
 		return isDisposed;
 	}
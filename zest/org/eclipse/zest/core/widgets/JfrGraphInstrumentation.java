@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.zest.core.widgets;
+
+import org.eclipse.zest.layouts.LayoutAlgorithm;
+
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Records the timings of graphs as Java Flight Recorder events, in the "Zest"
+ * category. Events are only created when they are enabled in the running
+ * recording. The time an event measures is in its "Elapsed Time" field, since
+ * the events are committed after the work.
+ * <p>
+ * Besides {@link Graph#setInstrumentation(GraphInstrumentation)}, this
+ * instrumentation is installed at startup when the system property
+ * {@value Graph#JFR_PROPERTY} is set to <code>true</code>.
+ * </p>
+ *
+ * @since 1.16
+ */
+public final class JfrGraphInstrumentation implements GraphInstrumentation {
+
+	@Name("org.eclipse.zest.Layout")
+	@Label("Graph Layout")
+	@Category("Zest")
+	@Description("Application of a layout algorithm to a graph or container")
+	@StackTrace(false)
+	static final class LayoutEvent extends Event {
+		@Label("Algorithm")
+		String algorithm;
+
+		@Label("Nodes")
+		int nodeCount;
+
+		@Label("Connections")
+		int connectionCount;
+
+		@Label("Elapsed Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long elapsedTime;
+	}
+
+	@Name("org.eclipse.zest.Validation")
+	@Label("Graph Validation")
+	@Category("Zest")
+	@Description("Validation of the invalid figures of a graph")
+	@StackTrace(false)
+	static final class ValidationEvent extends Event {
+		@Label("Figures")
+		int figureCount;
+
+		@Label("Elapsed Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long elapsedTime;
+	}
+
+	@Name("org.eclipse.zest.Paint")
+	@Label("Graph Paint")
+	@Category("Zest")
+	@Description("Painting of a damaged region of a graph")
+	@StackTrace(false)
+	static final class PaintEvent extends Event {
+		@Label("X")
+		int x;
+
+		@Label("Y")
+		int y;
+
+		@Label("Width")
+		int width;
+
+		@Label("Height")
+		int height;
+
+		@Label("Elapsed Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long elapsedTime;
+	}
+
+	@Name("org.eclipse.zest.HitTest")
+	@Label("Graph Hit Test")
+	@Category("Zest")
+	@Description("Lookup of the figure at a point of a graph")
+	@StackTrace(false)
+	static final class HitTestEvent extends Event {
+		@Label("X")
+		int x;
+
+		@Label("Y")
+		int y;
+
+		@Label("Figure")
+		String figure;
+
+		@Label("Elapsed Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long elapsedTime;
+	}
+
+	@Override
+	public void layoutFinished(Graph graph, LayoutAlgorithm algorithm, int nodeCount, int connectionCount,
+			long duration) {
+		LayoutEvent event = new LayoutEvent();
+		if (event.isEnabled()) {
+			event.algorithm = algorithm == null ? null : algorithm.getClass().getName();
+			event.nodeCount = nodeCount;
+			event.connectionCount = connectionCount;
+			event.elapsedTime = duration;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void figuresValidated(Graph graph, int figureCount, long duration) {
+		ValidationEvent event = new ValidationEvent();
+		if (event.isEnabled()) {
+			event.figureCount = figureCount;
+			event.elapsedTime = duration;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void damageRepaired(Graph graph, Rectangle damage, long duration) {
+		PaintEvent event = new PaintEvent();
+		if (event.isEnabled()) {
+			event.x = damage.x;
+			event.y = damage.y;
+			event.width = damage.width;
+			event.height = damage.height;
+			event.elapsedTime = duration;
+			event.commit();
+		}
+	}
+
+	@Override
+	public void hitTested(Graph graph, int x, int y, IFigure figure, long duration) {
+		HitTestEvent event = new HitTestEvent();
+		if (event.isEnabled()) {
+			event.x = x;
+			event.y = y;
+			event.figure = figure == null ? null : figure.getClass().getName();
+			event.elapsedTime = duration;
+			event.commit();
+		}
+	}
+}
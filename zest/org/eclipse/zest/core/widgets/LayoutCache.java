@@ -0,0 +1,289 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.zest.core.widgets;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.eclipse.zest.layouts.LayoutAlgorithm;
+import org.eclipse.zest.layouts.dataStructures.DisplayIndependentDimension;
+import org.eclipse.zest.layouts.dataStructures.DisplayIndependentPoint;
+import org.eclipse.zest.layouts.dataStructures.DisplayIndependentRectangle;
+import org.eclipse.zest.layouts.interfaces.ConnectionLayout;
+import org.eclipse.zest.layouts.interfaces.NodeLayout;
+
+/**
+ * Remembers the results of layout algorithms, so that laying out a graph which
+ * has already been laid out before doesn't have to run the algorithm again.
+ * <p>
+ * Results are keyed by a fingerprint of the layout input: the text, size and
+ * order of all nodes, the connections between them, the layout bounds and the
+ * layout algorithm. Since algorithms don't expose their parameters in a uniform
+ * way, only the algorithm class is part of the fingerprint by default. Use
+ * {@link #setParameterProvider(Function)} to add the relevant parameters.
+ * </p>
+ * <p>
+ * The cache holds at most a fixed number of results and evicts the least
+ * recently used one when full. If it is created with a file, the entries are
+ * read from that file on creation and written back by {@link #save()}. One
+ * instance can be shared by several graphs, but it must only be accessed from
+ * the UI thread.
+ * </p>
+ *
+ * @see Graph#setLayoutCache(LayoutCache)
+ * @since 1.16
+ */
+public class LayoutCache {
+
+	private static final int FILE_VERSION = 2;
+
+	/**
+	 * Number of values stored per node: x, y, width, height and the minimized
+	 * flag.
+	 */
+	private static final int VALUES_PER_NODE = 5;
+
+	private final int maxEntries;
+	private final File file;
+	private final Map<String, double[]> entries;
+	private Function<LayoutAlgorithm, ?> parameterProvider;
+	private boolean dirty;
+
+	/**
+	 * Creates an in-memory cache.
+	 *
+	 * @param maxEntries maximum number of layout results to keep
+	 */
+	public LayoutCache(int maxEntries) {
+		this(maxEntries, null);
+	}
+
+	/**
+	 * Creates a cache that is persisted in the given file. Entries already stored
+	 * in the file are loaded immediately; an unreadable file is ignored.
+	 *
+	 * @param maxEntries maximum number of layout results to keep
+	 * @param file       file to load the cache from and save it to, or null
+	 */
+	public LayoutCache(int maxEntries, File file) {
+		if (maxEntries <= 0) {
+			throw new IllegalArgumentException("Cache size must be positive: " + maxEntries); //$NON-NLS-1$
+		}
+		this.maxEntries = maxEntries;
+		this.file = file;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, double[]> eldest) {
+				return size() > LayoutCache.this.maxEntries;
+			}
+		};
+		if (file != null && file.isFile()) {
+			try {
+				load();
+			} catch (IOException e) {
+				entries.clear();
+			}
+		}
+	}
+
+	/**
+	 * Sets the function used to describe the parameters of a layout algorithm.
+	 * The string value of its result becomes part of the fingerprint, so two runs
+	 * of the same algorithm class with different settings don't share results.
+	 *
+	 * @param parameterProvider function returning the algorithm parameters, or
+	 *                          null to use only the algorithm class
+	 */
+	public void setParameterProvider(Function<LayoutAlgorithm, ?> parameterProvider) {
+		this.parameterProvider = parameterProvider;
+	}
+
+	/**
+	 * @return number of layout results currently held
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Removes all entries from this cache.
+	 */
+	public void clear() {
+		if (!entries.isEmpty()) {
+			entries.clear();
+			dirty = true;
+		}
+	}
+
+	/**
+	 * Writes the entries of this cache to its file. Does nothing if the cache has
+	 * no file or hasn't changed since it was loaded or last saved.
+	 *
+	 * @throws IOException if the file can't be written
+	 */
+	public void save() throws IOException {
+		if (file == null || !dirty) {
+			return;
+		}
+		try (DataOutputStream out = new DataOutputStream(
+				new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(FILE_VERSION);
+			out.writeInt(entries.size());
+			// iteration order is least recently used first, which is restored
+			// when reading the entries back in the same order
+			for (Map.Entry<String, double[]> entry : entries.entrySet()) {
+				out.writeUTF(entry.getKey());
+				double[] values = entry.getValue();
+				out.writeInt(values.length);
+				for (double value : values) {
+					out.writeDouble(value);
+				}
+			}
+		}
+		dirty = false;
+	}
+
+	private void load() throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != FILE_VERSION) {
+				return;
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				String fingerprint = in.readUTF();
+				double[] values = new double[in.readInt()];
+				for (int j = 0; j < values.length; j++) {
+					values[j] = in.readDouble();
+				}
+				entries.put(fingerprint, values);
+			}
+		}
+		dirty = false;
+	}
+
+	/**
+	 * Computes the fingerprint of laying out given nodes and connections with
+	 * given algorithm.
+	 */
+	String computeFingerprint(LayoutAlgorithm algorithm, DisplayIndependentRectangle bounds, NodeLayout[] nodes,
+			ConnectionLayout[] connections) {
+		StringBuilder input = new StringBuilder();
+		input.append(algorithm.getClass().getName()).append('\n');
+		if (parameterProvider != null) {
+			appendText(input, String.valueOf(parameterProvider.apply(algorithm))).append('\n');
+		}
+		input.append(bounds.width).append(',').append(bounds.height).append('\n');
+
+		Map<NodeLayout, Integer> indices = new IdentityHashMap<>(nodes.length);
+		for (int i = 0; i < nodes.length; i++) {
+			NodeLayout node = nodes[i];
+			indices.put(node, Integer.valueOf(i));
+			DisplayIndependentDimension size = node.getSize();
+			input.append('n');
+			if (node instanceof InternalNodeLayout) {
+				appendText(input, ((InternalNodeLayout) node).getNode().getText());
+			}
+			input.append('|').append(size.width).append(',').append(size.height);
+			input.append(node.isMovable() ? 'm' : '-').append(node.isResizable() ? 'r' : '-').append('\n');
+		}
+		for (ConnectionLayout connection : connections) {
+			Integer source = indices.get(connection.getSource());
+			Integer target = indices.get(connection.getTarget());
+			input.append('c').append(source == null ? -1 : source.intValue()).append(',')
+					.append(target == null ? -1 : target.intValue()).append(',').append(connection.getWeight())
+					.append(connection.isDirected() ? 'd' : '-').append('\n');
+		}
+		return digest(input);
+	}
+
+	/**
+	 * Appends given text prefixed by its length, so that no text can be mistaken
+	 * for the separators and values following it.
+	 */
+	private static StringBuilder appendText(StringBuilder input, String text) {
+		return input.append(text.length()).append(':').append(text);
+	}
+
+	/**
+	 * Applies the cached layout result for given fingerprint to the nodes.
+	 *
+	 * @return true if there was a cached result, false otherwise
+	 */
+	boolean restore(String fingerprint, NodeLayout[] nodes) {
+		double[] values = entries.get(fingerprint);
+		if (values == null || values.length != nodes.length * VALUES_PER_NODE) {
+			return false;
+		}
+		for (int i = 0; i < nodes.length; i++) {
+			int offset = i * VALUES_PER_NODE;
+			NodeLayout node = nodes[i];
+			boolean minimized = values[offset + 4] != 0;
+			if (node.isMinimized() != minimized) {
+				node.setMinimized(minimized);
+			}
+			if (node.isResizable()) {
+				node.setSize(values[offset + 2], values[offset + 3]);
+			}
+			if (node.isMovable()) {
+				node.setLocation(values[offset], values[offset + 1]);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stores the current layout of the nodes as the result for given fingerprint.
+	 */
+	void store(String fingerprint, NodeLayout[] nodes) {
+		double[] values = new double[nodes.length * VALUES_PER_NODE];
+		for (int i = 0; i < nodes.length; i++) {
+			int offset = i * VALUES_PER_NODE;
+			DisplayIndependentPoint location = nodes[i].getLocation();
+			DisplayIndependentDimension size = nodes[i].getSize();
+			values[offset] = location.x;
+			values[offset + 1] = location.y;
+			values[offset + 2] = size.width;
+			values[offset + 3] = size.height;
+			values[offset + 4] = nodes[i].isMinimized() ? 1 : 0;
+		}
+		entries.put(fingerprint, values);
+		dirty = true;
+	}
+
+	private static String digest(CharSequence input) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+			byte[] hash = digest.digest(input.toString().getBytes(StandardCharsets.UTF_8));
+			StringBuilder result = new StringBuilder(hash.length * 2);
+			for (byte b : hash) {
+				result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return result.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.zest.core.widgets;
+
+import java.util.List;
+
+import org.eclipse.swt.SWT;
+import org.eclipse.swt.widgets.Listener;
+
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.Polyline;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * Animates the figures of a graph from their bounds before a layout to their
+ * bounds after it. Unlike draw2d's {@code Animation}, which plays in a loop on
+ * the UI thread, every frame is scheduled with {@code Display.timerExec}, so
+ * the UI keeps handling events while the transition plays. Each graph has its
+ * own transition, so several graphs can animate at the same time.
+ * <p>
+ * A transition is {@link #begin(Graph) begun} before the layout is applied and
+ * {@link #play(int) played} afterwards. Beginning another transition on the
+ * same graph, or pressing a mouse button on it, finishes the running one right
+ * away. Layouts which move more figures than
+ * {@link Graph#getAnimationFigureLimit()} are not animated.
+ * </p>
+ */
+final class LayoutTransition {
+
+	/**
+	 * Time between two frames, for about 60 frames per second.
+	 */
+	private static final int FRAME_INTERVAL = 16;
+
+	private final Graph graph;
+	private IFigure[] figures;
+
+	/**
+	 * Bounds of the figures before the layout, four values per figure.
+	 */
+	private int[] initialBounds;
+
+	/**
+	 * Bounds of the figures after the layout, four values per figure.
+	 */
+	private int[] finalBounds;
+
+	private int count;
+	private long startTime;
+	private int duration;
+	private boolean isPlaying = false;
+	private final Listener mouseDownListener = event -> finish();
+
+	private LayoutTransition(Graph graph) {
+		this.graph = graph;
+	}
+
+	/**
+	 * Records the current bounds of the figures of given graph, finishing the
+	 * transition which may be playing on it.
+	 */
+	static LayoutTransition begin(Graph graph) {
+		LayoutTransition previous = graph.getLayoutTransition();
+		if (previous != null) {
+			previous.finish();
+		}
+		LayoutTransition transition = new LayoutTransition(graph);
+		List<IFigure> all = graph.getZestRootLayer().getFigures();
+		transition.figures = new IFigure[all.size()];
+		transition.initialBounds = new int[all.size() * 4];
+		for (IFigure figure : all) {
+			// connections follow their end points
+			if (!(figure instanceof Polyline)) {
+				transition.figures[transition.count] = figure;
+				put(transition.initialBounds, transition.count, figure.getBounds());
+				transition.count++;
+			}
+		}
+		return transition;
+	}
+
+	/**
+	 * Validates the graph to get the bounds set by the layout and starts moving
+	 * the figures towards them.
+	 *
+	 * @param duration length of the transition in milliseconds
+	 */
+	void play(int duration) {
+		graph.getLightweightSystem().getUpdateManager().performValidation();
+		// keep only the figures which have moved
+		finalBounds = new int[count * 4];
+		int moved = 0;
+		for (int i = 0; i < count; i++) {
+			IFigure figure = figures[i];
+			if (figure.getParent() == null) {
+				continue;
+			}
+			Rectangle bounds = figure.getBounds();
+			if (bounds.x == initialBounds[i * 4] && bounds.y == initialBounds[i * 4 + 1]
+					&& bounds.width == initialBounds[i * 4 + 2] && bounds.height == initialBounds[i * 4 + 3]) {
+				continue;
+			}
+			figures[moved] = figure;
+			System.arraycopy(initialBounds, i * 4, initialBounds, moved * 4, 4);
+			put(finalBounds, moved, bounds);
+			moved++;
+		}
+		for (int i = moved; i < count; i++) {
+			figures[i] = null;
+		}
+		count = moved;
+		if (count == 0 || count > graph.getAnimationFigureLimit() || duration <= 0) {
+			graph.getLightweightSystem().getUpdateManager().performUpdate();
+			return;
+		}
+		this.duration = duration;
+		isPlaying = true;
+		graph.setLayoutTransition(this);
+		graph.addListener(SWT.MouseDown, mouseDownListener);
+		startTime = System.currentTimeMillis();
+		apply(0);
+		graph.getDisplay().timerExec(FRAME_INTERVAL, this::nextFrame);
+	}
+
+	boolean isPlaying() {
+		return isPlaying;
+	}
+
+	/**
+	 * Moves the figures to their final bounds and stops the transition.
+	 */
+	void finish() {
+		if (!isPlaying) {
+			return;
+		}
+		isPlaying = false;
+		if (graph.getLayoutTransition() == this) {
+			graph.setLayoutTransition(null);
+		}
+		if (graph.isDisposed()) {
+			return;
+		}
+		graph.removeListener(SWT.MouseDown, mouseDownListener);
+		apply(1);
+		graph.getLightweightSystem().getUpdateManager().performUpdate();
+	}
+
+	private void nextFrame() {
+		if (!isPlaying) {
+			return;
+		}
+		if (graph.isDisposed()) {
+			finish();
+			return;
+		}
+		long elapsed = System.currentTimeMillis() - startTime;
+		if (elapsed >= duration) {
+			finish();
+			return;
+		}
+		apply((float) elapsed / duration);
+		graph.getDisplay().timerExec(FRAME_INTERVAL, this::nextFrame);
+	}
+
+	private void apply(float progress) {
+		float remaining = 1 - progress;
+		Rectangle bounds = new Rectangle();
+		for (int i = 0; i < count; i++) {
+			if (figures[i].getParent() == null) {
+				continue;
+			}
+			int j = i * 4;
+			bounds.setBounds(Math.round(progress * finalBounds[j] + remaining * initialBounds[j]),
+					Math.round(progress * finalBounds[j + 1] + remaining * initialBounds[j + 1]),
+					Math.round(progress * finalBounds[j + 2] + remaining * initialBounds[j + 2]),
+					Math.round(progress * finalBounds[j + 3] + remaining * initialBounds[j + 3]));
+			figures[i].setBounds(bounds);
+		}
+	}
+
+	private static void put(int[] array, int index, Rectangle bounds) {
+		array[index * 4] = bounds.x;
+		array[index * 4 + 1] = bounds.y;
+		array[index * 4 + 2] = bounds.width;
+		array[index * 4 + 3] = bounds.height;
+	}
+}
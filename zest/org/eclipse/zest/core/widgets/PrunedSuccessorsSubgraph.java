@@ -166,8 +166,9 @@ class PrunedSuccessorsSubgraph extends DefaultSubgraph {
 
 	private static void addLabelForFigure(IFigure figure, GraphLabel label) {
 		IFigure parent = figure.getParent();
-		if (parent instanceof ZestRootLayer) {
-			((ZestRootLayer) parent).addDecoration(figure, label);
+		ZestRootLayer rootLayer = ZestRootLayer.findRootLayer(figure);
+		if (rootLayer != null) {
+			rootLayer.addDecoration(figure, label);
 		} else {
 			if (parent.getChildren().contains(label)) {
 				parent.remove(label);
@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.zest.core.widgets;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Table of the styles in use, so that equal styles are shared by all items. A
+ * style is kept only as long as some item refers to it.
+ */
+final class StyleInterner<T> {
+
+	private final Map<T, WeakReference<T>> styles = new WeakHashMap<>();
+
+	/**
+	 * Returns the style equal to given one which is already in use, or given
+	 * style if there is none.
+	 */
+	synchronized T intern(T style) {
+		WeakReference<T> reference = styles.get(style);
+		T interned = reference == null ? null : reference.get();
+		if (interned == null) {
+			styles.put(style, new WeakReference<>(style));
+			interned = style;
+		}
+		return interned;
+	}
+}
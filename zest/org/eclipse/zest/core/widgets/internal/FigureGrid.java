@@ -0,0 +1,340 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ ******************************************************************************/
+package org.eclipse.zest.core.widgets.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.draw2d.FigureListener;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.Polyline;
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.PointList;
+import org.eclipse.draw2d.geometry.Rectangle;
+
+/**
+ * Uniform grid of the bounds of the children of a figure, used to find the
+ * children at a point without testing all of them.
+ * <p>
+ * Every figure is registered in all cells its bounds (expanded by a small
+ * margin, since connections accept points slightly outside of their bounds)
+ * intersect. Lines are registered only in the cells along their segments.
+ * Figures covering too many cells are kept in a separate list which is always
+ * searched. The grid follows the bounds of the figures by listening to
+ * their moves. Since the cells of a line include those of its children (like
+ * the label of a connection), which its locators may move on their own, a line
+ * is registered again when one of its children moves.
+ * </p>
+ */
+final class FigureGrid implements FigureListener {
+
+	private static final int CELL_SIZE = 128;
+
+	private static final int MARGIN = 8;
+
+	private static final int MAX_CELLS_PER_FIGURE = 256;
+
+	private static final class Entry {
+		long order;
+		/**
+		 * Cells the figure is registered in, or null if it's a large figure.
+		 */
+		Set<Long> cells;
+		/**
+		 * Bounds the cells have been computed from.
+		 */
+		Rectangle bounds;
+		/**
+		 * Children of a line which are followed, or null.
+		 */
+		List<IFigure> children;
+	}
+
+	private final Map<Long, Set<IFigure>> cells = new HashMap<>();
+	private final Map<IFigure, Entry> entries = new HashMap<>();
+	private final Set<IFigure> largeFigures = new HashSet<>();
+	/**
+	 * Line registered with each followed child.
+	 */
+	private final Map<IFigure, IFigure> lineChildren = new HashMap<>();
+	private long nextOrder = 0;
+
+	/**
+	 * Adds a figure which is painted above all figures added before.
+	 */
+	void add(IFigure figure) {
+		Entry entry = new Entry();
+		entry.order = nextOrder++;
+		entries.put(figure, entry);
+		register(figure, entry);
+		figure.addFigureListener(this);
+	}
+
+	void remove(IFigure figure) {
+		Entry entry = entries.remove(figure);
+		if (entry != null) {
+			unregister(figure, entry);
+			figure.removeFigureListener(this);
+		}
+	}
+
+	void clear() {
+		for (IFigure figure : entries.keySet()) {
+			figure.removeFigureListener(this);
+		}
+		for (IFigure child : lineChildren.keySet()) {
+			child.removeFigureListener(this);
+		}
+		lineChildren.clear();
+		entries.clear();
+		cells.clear();
+		largeFigures.clear();
+		nextOrder = 0;
+	}
+
+	/**
+	 * Updates the painting order of the figures after one was inserted in the
+	 * middle of the children list.
+	 */
+	void reorder(List<? extends IFigure> children) {
+		nextOrder = 0;
+		for (IFigure child : children) {
+			Entry entry = entries.get(child);
+			if (entry != null) {
+				entry.order = nextOrder++;
+			}
+		}
+	}
+
+	/**
+	 * Returns the index of a figure in given children, which must be the figures
+	 * of this grid in the order they are painted, or -1 if the figure is not in
+	 * this grid. Takes logarithmic time, since the painting order of the figures
+	 * increases along the children.
+	 */
+	int indexOf(IFigure figure, List<? extends IFigure> children) {
+		Entry entry = entries.get(figure);
+		if (entry == null) {
+			return -1;
+		}
+		int low = 0;
+		int high = children.size() - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			long order = entries.get(children.get(middle)).order;
+			if (order < entry.order) {
+				low = middle + 1;
+			} else if (order > entry.order) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the figures whose bounds may contain given point, topmost first.
+	 */
+	List<IFigure> getFiguresAt(int x, int y) {
+		Set<IFigure> cell = cells.get(key(column(x), row(y)));
+		if (cell == null && largeFigures.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<IFigure> result = new ArrayList<>(largeFigures);
+		if (cell != null) {
+			result.addAll(cell);
+		}
+		result.sort((a, b) -> Long.compare(entries.get(b).order, entries.get(a).order));
+		return result;
+	}
+
+	/**
+	 * Returns the figures whose bounds may intersect given region, in the order
+	 * they are painted. Returns null if the region covers more cells than there are
+	 * figures, since then it's faster to look at all figures.
+	 */
+	List<IFigure> getFiguresIn(Rectangle region) {
+		int minColumn = column(region.x);
+		int maxColumn = column(region.right());
+		int minRow = row(region.y);
+		int maxRow = row(region.bottom());
+		if ((long) (maxColumn - minColumn + 1) * (maxRow - minRow + 1) > entries.size()) {
+			return null;
+		}
+		Set<IFigure> found = new HashSet<>(largeFigures);
+		for (int column = minColumn; column <= maxColumn; column++) {
+			for (int row = minRow; row <= maxRow; row++) {
+				Set<IFigure> cell = cells.get(key(column, row));
+				if (cell != null) {
+					found.addAll(cell);
+				}
+			}
+		}
+		List<IFigure> result = new ArrayList<>(found);
+		result.sort((a, b) -> Long.compare(entries.get(a).order, entries.get(b).order));
+		return result;
+	}
+
+	@Override
+	public void figureMoved(IFigure source) {
+		Entry entry = entries.get(source);
+		if (entry == null) {
+			IFigure line = lineChildren.get(source);
+			if (line != null) {
+				entry = entries.get(line);
+				unregister(line, entry);
+				register(line, entry);
+			}
+			return;
+		}
+		if (!(source instanceof Polyline) && entry.cells != null && sameCells(entry.bounds, source.getBounds())) {
+			return;
+		}
+		unregister(source, entry);
+		register(source, entry);
+	}
+
+	private void register(IFigure figure, Entry entry) {
+		entry.bounds = figure.getBounds().getCopy();
+		Set<Long> figureCells = new HashSet<>();
+		boolean isLarge;
+		if (figure instanceof Polyline) {
+			// a line only needs the cells along its segments, not all cells of
+			// its (possibly huge) bounds
+			isLarge = !addPolylineCells((Polyline) figure, figureCells);
+			entry.children = new ArrayList<>(figure.getChildren());
+			for (IFigure child : entry.children) {
+				lineChildren.put(child, figure);
+				child.addFigureListener(this);
+			}
+		} else {
+			isLarge = !addCells(entry.bounds, MARGIN, figureCells);
+		}
+		if (isLarge) {
+			entry.cells = null;
+			largeFigures.add(figure);
+			return;
+		}
+		entry.cells = figureCells;
+		for (Long key : figureCells) {
+			cells.computeIfAbsent(key, k -> new HashSet<>(4)).add(figure);
+		}
+	}
+
+	private void unregister(IFigure figure, Entry entry) {
+		if (entry.children != null) {
+			for (IFigure child : entry.children) {
+				lineChildren.remove(child);
+				child.removeFigureListener(this);
+			}
+			entry.children = null;
+		}
+		if (entry.cells == null) {
+			largeFigures.remove(figure);
+			return;
+		}
+		for (Long key : entry.cells) {
+			Set<IFigure> cell = cells.get(key);
+			if (cell != null) {
+				cell.remove(figure);
+				if (cell.isEmpty()) {
+					cells.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the cells along the segments of a polyline and the cells of its
+	 * children (like labels of connections).
+	 *
+	 * @return false if the polyline covers too many cells
+	 */
+	private static boolean addPolylineCells(Polyline polyline, Set<Long> result) {
+		int margin = MARGIN + (int) (polyline.getLineWidthFloat() / 2);
+		PointList points = polyline.getPoints();
+		Point start = new Point();
+		Point end = new Point();
+		Rectangle part = new Rectangle();
+		for (int i = 0; i < points.size(); i++) {
+			points.getPoint(end, i);
+			if (i == 0) {
+				start.setLocation(end);
+			}
+			// split the segment into parts of half a cell, so that the bounds of
+			// each part intersect at most four cells
+			int length = Math.max(Math.abs(end.x - start.x), Math.abs(end.y - start.y));
+			int steps = Math.max(1, (length + CELL_SIZE / 2 - 1) / (CELL_SIZE / 2));
+			for (int step = 0; step < steps; step++) {
+				int x1 = start.x + (end.x - start.x) * step / steps;
+				int y1 = start.y + (end.y - start.y) * step / steps;
+				int x2 = start.x + (end.x - start.x) * (step + 1) / steps;
+				int y2 = start.y + (end.y - start.y) * (step + 1) / steps;
+				part.setBounds(Math.min(x1, x2), Math.min(y1, y2), Math.abs(x2 - x1), Math.abs(y2 - y1));
+				if (!addCells(part, margin, result)) {
+					return false;
+				}
+			}
+			start.setLocation(end);
+		}
+		for (IFigure child : polyline.getChildren()) {
+			if (!addCells(child.getBounds(), MARGIN, result)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds the cells intersecting given bounds expanded by given margin.
+	 *
+	 * @return false if the figure covers too many cells
+	 */
+	private static boolean addCells(Rectangle bounds, int margin, Set<Long> result) {
+		int minColumn = column(bounds.x - margin);
+		int maxColumn = column(bounds.right() + margin);
+		int minRow = row(bounds.y - margin);
+		int maxRow = row(bounds.bottom() + margin);
+		if ((long) (maxColumn - minColumn + 1) * (maxRow - minRow + 1) + result.size() > MAX_CELLS_PER_FIGURE) {
+			return false;
+		}
+		for (int column = minColumn; column <= maxColumn; column++) {
+			for (int row = minRow; row <= maxRow; row++) {
+				result.add(key(column, row));
+			}
+		}
+		return true;
+	}
+
+	private static boolean sameCells(Rectangle oldBounds, Rectangle newBounds) {
+		return column(oldBounds.x - MARGIN) == column(newBounds.x - MARGIN)
+				&& column(oldBounds.right() + MARGIN) == column(newBounds.right() + MARGIN)
+				&& row(oldBounds.y - MARGIN) == row(newBounds.y - MARGIN)
+				&& row(oldBounds.bottom() + MARGIN) == row(newBounds.bottom() + MARGIN);
+	}
+
+	private static int column(int x) {
+		return Math.floorDiv(x, CELL_SIZE);
+	}
+
+	private static int row(int y) {
+		return Math.floorDiv(y, CELL_SIZE);
+	}
+
+	private static Long key(int column, int row) {
+		return Long.valueOf(((long) column << 32) | (row & 0xFFFFFFFFL));
+	}
+}
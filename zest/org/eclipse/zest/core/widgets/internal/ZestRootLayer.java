@@ -14,12 +14,23 @@
 package org.eclipse.zest.core.widgets.internal;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.draw2d.FreeformLayer;
+import org.eclipse.draw2d.FreeformLayout;
+import org.eclipse.draw2d.Graphics;
 import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.LayoutListener;
+import org.eclipse.draw2d.LayoutManager;
+import org.eclipse.draw2d.Polyline;
+import org.eclipse.draw2d.TreeSearch;
+import org.eclipse.draw2d.geometry.Point;
+import org.eclipse.draw2d.geometry.Rectangle;
 
 /**
  * The root figure for Zest. The figure is broken up into following segments:
@@ -30,7 +41,9 @@ import org.eclipse.draw2d.IFigure;
  * <li>The Highlighted Connections</li>
  * <li>The Highlighted Nodes</li>
  * </ol>
- *
+ * Each segment is a separate child layer, so the figures added to this root
+ * layer are children of these layers, not of the root layer itself. Use
+ * {@link #findRootLayer(IFigure)} to get the root layer of a figure.
  */
 public class ZestRootLayer extends FreeformLayer {
 
@@ -48,21 +61,88 @@ public class ZestRootLayer extends FreeformLayer {
 
 	public static final int NUMBER_OF_LAYERS = 6;
 
-	private final int[] itemsInLayer = new int[NUMBER_OF_LAYERS];
+	private final ItemLayer[] layers = new ItemLayer[NUMBER_OF_LAYERS];
+
+	/**
+	 * Decorations of every decorated figure. Decorations are kept in the layer of
+	 * the decorated figure, right after it, and move with it to other layers.
+	 */
+	private final Map<IFigure, List<IFigure>> decorations = new HashMap<>();
+
+	/**
+	 * The decorated figure of every decoration figure.
+	 */
+	private final Map<IFigure, IFigure> decoratedFigures = new HashMap<>();
+
+	/**
+	 * If true, figures are being moved to another layer and their decorations must
+	 * be kept.
+	 */
+	private boolean isMovingFigures = false;
+
+	/**
+	 * The layer each figure has to move to, collected since
+	 * {@link #deferLayerChanges()}, or null if layer changes are applied right
+	 * away.
+	 */
+	private Map<IFigure, Integer> deferredLayerChanges = null;
+
+	private static final int FULL_DETAIL = 0;
+
+	private static final int SIMPLIFIED_DETAIL = 1;
+
+	private static final int MINIMAL_DETAIL = 2;
+
+	/**
+	 * Scale below which figures are painted simplified, or NaN if the thresholds
+	 * of the enclosing root layer apply.
+	 */
+	private double simplifiedScale = Double.NaN;
+
+	/**
+	 * Scale below which connections are not painted at all.
+	 */
+	private double minimalScale = Double.NaN;
+
+	/**
+	 * If true, painting looks up the figures within the painted region in the grid
+	 * of each layer instead of going through all figures.
+	 */
+	private boolean paintVisibleRegionOnly = false;
+
+	public ZestRootLayer() {
+		for (int i = 0; i < NUMBER_OF_LAYERS; i++) {
+			layers[i] = new ItemLayer();
+			super.add(layers[i], null, -1);
+		}
+	}
 
 	/**
-	 * Set of all figures that are decorations for other figures. A decoration
-	 * figure is always put one position (or more if there's more than one
-	 * decoration for the same figure) after the decorated figure in children list.
+	 * Returns the root layer that given figure has been added to.
+	 *
+	 * @param figure the figure
+	 * @return the root layer or null if the figure isn't on any root layer
 	 */
-	private final Set<IFigure> decoratingFigures = new HashSet<>();
+	public static ZestRootLayer findRootLayer(IFigure figure) {
+		IFigure parent = figure.getParent();
+		if (parent instanceof ItemLayer) {
+			return (ZestRootLayer) parent.getParent();
+		}
+		return null;
+	}
 
 	/**
-	 * If true, it indicates that a figure is added using a proper method and its
-	 * layer is known. Otherwise, Figure#add() method was used and layer must be
-	 * guessed
+	 * Returns the figures added to this root layer, in the order they are painted.
+	 *
+	 * @return a new list of the figures on all layers
 	 */
-	private boolean isLayerKnown = false;
+	public List<IFigure> getFigures() {
+		List<IFigure> result = new ArrayList<>();
+		for (ItemLayer layer : layers) {
+			result.addAll(layer.getChildren());
+		}
+		return result;
+	}
 
 	/**
 	 * Adds a node to the ZestRootLayer
@@ -97,117 +177,497 @@ public class ZestRootLayer extends FreeformLayer {
 		changeFigureLayer(connectionFigure, CONNECTIONS_LAYER);
 	}
 
-	private void changeFigureLayer(IFigure figure, int newLayer) {
-		List<IFigure> decorations = getDecorations(figure);
-		remove(figure);
+	/**
+	 * Collects the layer changes made by highlighting and unhighlighting figures
+	 * until {@link #applyLayerChanges()} is called, which moves all the figures at
+	 * once. Moving a figure one at a time finds it in its layer in logarithmic
+	 * time, but shifts the figures painted after it, so this is much faster when
+	 * many figures are (un)highlighted together.
+	 */
+	public void deferLayerChanges() {
+		if (deferredLayerChanges == null) {
+			deferredLayerChanges = new LinkedHashMap<>();
+		}
+	}
 
-		addFigure(figure, newLayer);
-		for (IFigure decoration : decorations) {
-			addDecoration(figure, decoration);
+	/**
+	 * Moves the figures whose layer has been changed since
+	 * {@link #deferLayerChanges()} to their new layers, in the order they have
+	 * been changed. Figures which have been removed from this root layer in the
+	 * meantime are left alone.
+	 */
+	public void applyLayerChanges() {
+		Map<IFigure, Integer> changes = deferredLayerChanges;
+		deferredLayerChanges = null;
+		if (changes == null || changes.isEmpty()) {
+			return;
+		}
+		Map<ItemLayer, Set<IFigure>> removed = new HashMap<>();
+		List<IFigure> moved = new ArrayList<>(changes.size());
+		List<Integer> newLayers = new ArrayList<>(changes.size());
+		for (Map.Entry<IFigure, Integer> change : changes.entrySet()) {
+			IFigure figure = change.getKey();
+			if (findRootLayer(figure) != this) {
+				continue;
+			}
+			removed.computeIfAbsent((ItemLayer) figure.getParent(), layer -> new HashSet<>()).add(figure);
+			List<IFigure> figureDecorations = decorations.get(figure);
+			if (figureDecorations != null) {
+				for (IFigure decoration : figureDecorations) {
+					if (findRootLayer(decoration) == this) {
+						removed.computeIfAbsent((ItemLayer) decoration.getParent(), layer -> new HashSet<>())
+								.add(decoration);
+					}
+				}
+			}
+			moved.add(figure);
+			newLayers.add(change.getValue());
+		}
+		if (moved.isEmpty()) {
+			return;
+		}
+		isMovingFigures = true;
+		try {
+			for (Map.Entry<ItemLayer, Set<IFigure>> entry : removed.entrySet()) {
+				entry.getKey().removeChildren(entry.getValue());
+			}
+			for (int i = 0; i < moved.size(); i++) {
+				ItemLayer layer = layers[newLayers.get(i).intValue()];
+				IFigure figure = moved.get(i);
+				layer.add(figure);
+				List<IFigure> figureDecorations = decorations.get(figure);
+				if (figureDecorations != null) {
+					for (IFigure decoration : figureDecorations) {
+						if (decoration.getParent() == null) {
+							layer.add(decoration);
+						}
+					}
+				}
+			}
+		} finally {
+			isMovingFigures = false;
 		}
 
 		this.invalidate();
 		this.repaint();
 	}
 
-	private List<IFigure> getDecorations(IFigure figure) {
-		List<IFigure> result = new ArrayList<>();
-		int index = getChildren().indexOf(figure);
-		if (index == -1) {
-			return result;
+	private void changeFigureLayer(IFigure figure, int newLayer) {
+		if (deferredLayerChanges != null) {
+			// the last change wins, and decides the painting order
+			deferredLayerChanges.remove(figure);
+			deferredLayerChanges.put(figure, Integer.valueOf(newLayer));
+			return;
 		}
-		for (index++; index < getChildren().size(); index++) {
-			IFigure nextFigure = getChildren().get(index);
-			if (!decoratingFigures.contains(nextFigure)) {
-				break;
+		List<IFigure> figureDecorations = decorations.get(figure);
+		isMovingFigures = true;
+		try {
+			// adding a figure removes it from its current layer
+			layers[newLayer].add(figure);
+			if (figureDecorations != null) {
+				for (IFigure decoration : figureDecorations) {
+					layers[newLayer].add(decoration);
+				}
 			}
-			result.add(nextFigure);
+		} finally {
+			isMovingFigures = false;
 		}
-		return result;
+
+		this.invalidate();
+		this.repaint();
+	}
+
+	public void addFigure(IFigure figure, int layer) {
+		layers[layer].add(figure);
 	}
 
 	/**
-	 *
-	 * @param layer
-	 * @return position after the last element in given layer
+	 * Adds the figure to the layer containing given position, counting the
+	 * figures of all layers in order. Figures added without a position go to the
+	 * top layer.
 	 */
-	private int getPosition(int layer) {
-		int result = 0;
-		for (int i = 0; i <= layer; i++) {
-			result += itemsInLayer[i];
+	@Override
+	public void add(IFigure child, Object constraint, int index) {
+		int layer = NUMBER_OF_LAYERS - 1;
+		int positionInLayer = -1;
+		if (index != -1) {
+			int start = 0;
+			layer = 0;
+			while (layer < NUMBER_OF_LAYERS - 1 && start + layers[layer].getChildren().size() < index) {
+				start += layers[layer].getChildren().size();
+				layer++;
+			}
+			positionInLayer = index - start;
+		}
+		layers[layer].add(child, constraint, positionInLayer);
+	}
+
+	@Override
+	public void remove(IFigure child) {
+		if (child.getParent() instanceof ItemLayer && child.getParent().getParent() == this) {
+			child.getParent().remove(child);
 		}
-		return result;
 	}
 
 	/**
-	 *
-	 * @param position
-	 * @return number of layer containing element at given position
+	 * Removes all figures from this layer at once. Unlike removing the figures one
+	 * by one, this takes time linear in the number of figures.
 	 */
-	private int getLayer(int position) {
-		int layer = 0;
-		int positionInLayer = itemsInLayer[0];
-		while (layer < NUMBER_OF_LAYERS - 1 && positionInLayer <= position) {
-			layer++;
-			positionInLayer += itemsInLayer[layer];
+	@Override
+	public void removeAll() {
+		for (ItemLayer layer : layers) {
+			layer.removeAll();
 		}
-		return layer;
+		decorations.clear();
+		decoratedFigures.clear();
 	}
 
-	public void addFigure(IFigure figure, int layer) {
-		int position = getPosition(layer);
-		itemsInLayer[layer]++;
-		isLayerKnown = true;
-		add(figure, position);
+	/**
+	 * Layout listeners are added to the layers as well, since they contain the
+	 * figures to lay out.
+	 */
+	@Override
+	public void addLayoutListener(LayoutListener listener) {
+		super.addLayoutListener(listener);
+		for (ItemLayer layer : layers) {
+			layer.addLayoutListener(listener);
+		}
 	}
 
 	@Override
-	public void add(IFigure child, Object constraint, int index) {
-		super.add(child, constraint, index);
-		if (!isLayerKnown) {
-			int layer = 0, positionInLayer = itemsInLayer[0];
-			while (positionInLayer < index) {
-				layer++;
-				positionInLayer += itemsInLayer[layer];
-			}
-			if (index == -1) {
-				layer = NUMBER_OF_LAYERS - 1;
+	public void removeLayoutListener(LayoutListener listener) {
+		super.removeLayoutListener(listener);
+		for (ItemLayer layer : layers) {
+			layer.removeLayoutListener(listener);
+		}
+	}
+
+	/**
+	 * Sets the scales at which the figures of this layer are painted with less
+	 * detail. Below the simplified scale, nodes are painted as filled rectangles
+	 * and connections as plain lines, without labels or decorations. Below the
+	 * minimal scale, connections are not painted at all. Root layers nested in
+	 * this one (like the ones of containers) use the same thresholds, unless they
+	 * have been given their own.
+	 *
+	 * @param simplifiedScale scale below which figures are simplified, 0 to never
+	 *                        simplify
+	 * @param minimalScale    scale below which connections are omitted, 0 to
+	 *                        never omit them
+	 */
+	public void setLevelOfDetailThresholds(double simplifiedScale, double minimalScale) {
+		this.simplifiedScale = simplifiedScale;
+		this.minimalScale = minimalScale;
+		repaint();
+	}
+
+	/**
+	 * Sets whether painting visits only the figures within the painted region,
+	 * found through the spatial index of the layers, instead of all figures. This
+	 * makes painting a small part of a large graph faster, at the cost of the index
+	 * lookup when most figures are visible.
+	 *
+	 * @param paintVisibleRegionOnly true to paint only the figures in the region
+	 */
+	public void setPaintVisibleRegionOnly(boolean paintVisibleRegionOnly) {
+		this.paintVisibleRegionOnly = paintVisibleRegionOnly;
+		repaint();
+	}
+
+	private int getLevelOfDetail(double scale) {
+		ZestRootLayer owner = this;
+		while (owner != null && Double.isNaN(owner.simplifiedScale)) {
+			IFigure parent = owner.getParent();
+			while (parent != null && !(parent instanceof ZestRootLayer)) {
+				parent = parent.getParent();
 			}
-			itemsInLayer[layer]++;
+			owner = (ZestRootLayer) parent;
+		}
+		if (owner == null || scale >= owner.simplifiedScale) {
+			return FULL_DETAIL;
 		}
-		isLayerKnown = false;
+		return scale < owner.minimalScale ? MINIMAL_DETAIL : SIMPLIFIED_DETAIL;
 	}
 
-	@Override
-	public void remove(IFigure child) {
-		int position = this.getChildren().indexOf(child);
-		if (position == -1) {
+	public void addDecoration(IFigure decorated, IFigure decorating) {
+		if (findRootLayer(decorated) != this) {
+			throw new RuntimeException("Can't add decoration for a figuer that is not on this ZestRootLayer"); //$NON-NLS-1$
+		}
+		// after the decorated figure and its other decorations, so that they are
+		// painted right after it
+		ItemLayer layer = (ItemLayer) decorated.getParent();
+		List<IFigure> figureDecorations = decorations.computeIfAbsent(decorated, figure -> new ArrayList<>(1));
+		int index = layer.indexOf(decorated) + 1 + figureDecorations.size();
+		layer.add(decorating, null, Math.min(index, layer.getChildren().size()));
+		figureDecorations.add(decorating);
+		decoratedFigures.put(decorating, decorated);
+	}
+
+	/**
+	 * Forgets the decorations of a figure removed from one of the layers, or the
+	 * figure itself if it was a decoration.
+	 */
+	private void figureRemoved(IFigure figure) {
+		IFigure decorated = decoratedFigures.remove(figure);
+		if (decorated != null) {
+			List<IFigure> siblings = decorations.get(decorated);
+			siblings.remove(figure);
+			if (siblings.isEmpty()) {
+				decorations.remove(decorated);
+			}
 			return;
 		}
-		itemsInLayer[getLayer(position)]--;
-		if (decoratingFigures.contains(child)) {
-			decoratingFigures.remove(child);
-			super.remove(child);
-		} else {
-			List<IFigure> decorations = getDecorations(child);
-			super.remove(child);
-			for (IFigure decoration : decorations) {
-				remove(decoration);
+		List<IFigure> figureDecorations = decorations.remove(figure);
+		if (figureDecorations != null) {
+			for (IFigure decoration : figureDecorations) {
+				decoratedFigures.remove(decoration);
+				if (decoration.getParent() != null) {
+					decoration.getParent().remove(decoration);
+				}
 			}
 		}
 	}
 
-	public void addDecoration(IFigure decorated, IFigure decorating) {
-		int position = this.getChildren().indexOf(decorated);
-		if (position == -1) {
-			throw new RuntimeException("Can't add decoration for a figuer that is not on this ZestRootLayer"); //$NON-NLS-1$
+	/**
+	 * One of the segments of the root layer. Its children are kept in a
+	 * {@link FigureGrid}, so that hit-testing only looks at the children near the
+	 * tested point, and a child is found in the children list by its painting
+	 * order in the grid instead of by searching the list.
+	 */
+	private class ItemLayer extends FreeformLayer {
+
+		private final FigureGrid grid = new FigureGrid();
+
+		/**
+		 * True between {@link #addNotify()} and {@link #removeNotify()}, that is when
+		 * removed children must be notified.
+		 */
+		private boolean isRealized = false;
+
+		ItemLayer() {
+			setLayoutManager(new FreeformLayout());
+		}
+
+		@Override
+		public void add(IFigure figure, Object constraint, int index) {
+			super.add(figure, constraint, index);
+			grid.add(figure);
+			if (index != -1 && index != getChildren().size() - 1) {
+				grid.reorder(getChildren());
+			}
+		}
+
+		/**
+		 * Removes given child with the same steps as
+		 * {@link org.eclipse.draw2d.Figure#remove(IFigure)}, except that the child is
+		 * found by {@link #indexOf(IFigure)}.
+		 */
+		@Override
+		public void remove(IFigure child) {
+			if (child == null || child.getParent() != this) {
+				throw new IllegalArgumentException("Figure is not a child"); //$NON-NLS-1$
+			}
+			int index = indexOf(child);
+			if (isRealized) {
+				child.removeNotify();
+			}
+			LayoutManager layoutManager = getLayoutManager();
+			if (layoutManager != null) {
+				layoutManager.remove(child);
+			}
+			child.erase();
+			child.setParent(null);
+			if (index != -1) {
+				getChildren().remove(index);
+			} else {
+				getChildren().remove(child);
+			}
+			revalidate();
+			grid.remove(child);
+			if (!isMovingFigures) {
+				figureRemoved(child);
+			}
+		}
+
+		/**
+		 * Returns the index of given child in logarithmic time, or -1 if it isn't a
+		 * child of this layer.
+		 */
+		int indexOf(IFigure child) {
+			return grid.indexOf(child, getChildren());
+		}
+
+		@Override
+		public void removeAll() {
+			List<? extends IFigure> children = getChildren();
+			if (children.isEmpty()) {
+				return;
+			}
+			LayoutManager layoutManager = getLayoutManager();
+			for (IFigure child : children) {
+				if (isRealized) {
+					child.removeNotify();
+				}
+				if (layoutManager != null) {
+					layoutManager.remove(child);
+				}
+				child.setParent(null);
+			}
+			// the same steps as in Figure#remove(IFigure), except that the children
+			// list is emptied once instead of searching it for every child
+			children.clear();
+			grid.clear();
+			repaint();
+			revalidate();
+		}
+
+		/**
+		 * Removes given children, with the same steps as {@link #remove(IFigure)}
+		 * but searching the children list only once.
+		 */
+		void removeChildren(Set<IFigure> removed) {
+			LayoutManager layoutManager = getLayoutManager();
+			for (IFigure child : removed) {
+				if (isRealized) {
+					child.removeNotify();
+				}
+				if (layoutManager != null) {
+					layoutManager.remove(child);
+				}
+				child.erase();
+				child.setParent(null);
+				grid.remove(child);
+				if (!isMovingFigures) {
+					figureRemoved(child);
+				}
+			}
+			getChildren().removeIf(removed::contains);
+			revalidate();
+		}
+
+		@Override
+		public boolean containsPoint(int x, int y) {
+			if (isOpaque()) {
+				return super.containsPoint(x, y);
+			}
+			Point point = new Point(x, y);
+			translateFromParent(point);
+			for (IFigure child : grid.getFiguresAt(point.x, point.y)) {
+				if (child.containsPoint(point.x, point.y)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		protected IFigure findDescendantAtExcluding(int x, int y, TreeSearch search) {
+			Point point = new Point(x, y);
+			translateFromParent(point);
+			if (!getClientArea(new Rectangle()).contains(point)) {
+				return null;
+			}
+			for (IFigure child : grid.getFiguresAt(point.x, point.y)) {
+				if (child.isVisible()) {
+					IFigure figure = child.findFigureAt(point.x, point.y, search);
+					if (figure != null) {
+						return figure;
+					}
+				}
+			}
+			return null;
+		}
+
+		@Override
+		protected IFigure findMouseEventTargetInDescendantsAt(int x, int y) {
+			Point point = new Point(x, y);
+			translateFromParent(point);
+			if (!getClientArea(new Rectangle()).contains(point)) {
+				return null;
+			}
+			for (IFigure child : grid.getFiguresAt(point.x, point.y)) {
+				if (child.isVisible() && child.isEnabled() && child.containsPoint(point.x, point.y)) {
+					IFigure figure = child.findMouseEventTargetAt(point.x, point.y);
+					if (figure != null) {
+						return figure;
+					}
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Paints simplified children when zoomed out far enough. The top layer, which
+		 * holds figures like the fisheyes, is always painted in full detail.
+		 */
+		@Override
+		protected void paintChildren(Graphics graphics) {
+			int detail = getLevelOfDetail(graphics.getAbsoluteScale());
+			Rectangle clip = graphics.getClip(new Rectangle());
+			List<? extends IFigure> children = paintVisibleRegionOnly ? grid.getFiguresIn(clip) : null;
+			if (detail == FULL_DETAIL || this == layers[TOP_LAYER]) {
+				if (children == null) {
+					super.paintChildren(graphics);
+				} else {
+					paintFullDetail(graphics, children);
+				}
+				return;
+			}
+			if (children == null) {
+				children = getChildren();
+			}
+			for (IFigure child : children) {
+				if (!child.isVisible() || decoratedFigures.containsKey(child) || !child.getBounds().intersects(clip)) {
+					continue;
+				}
+				if (child instanceof Polyline) {
+					if (detail == MINIMAL_DETAIL) {
+						continue;
+					}
+					// only the line, without arrow heads and labels
+					Polyline line = (Polyline) child;
+					graphics.setForegroundColor(line.getForegroundColor());
+					graphics.setLineWidth(line.getLineWidth());
+					graphics.drawPolyline(line.getPoints());
+				} else if (child.getBackgroundColor() != null) {
+					graphics.setBackgroundColor(child.getBackgroundColor());
+					graphics.fillRectangle(child.getBounds());
+				}
+			}
+		}
+
+		/**
+		 * Paints given children the same way as {@link #paintChildren(Graphics)} of
+		 * draw2d paints all of them.
+		 */
+		private void paintFullDetail(Graphics graphics, List<? extends IFigure> children) {
+			Rectangle clip = new Rectangle();
+			for (IFigure child : children) {
+				if (!child.isVisible()) {
+					continue;
+				}
+				Rectangle[] clipping = getClippingStrategy() != null ? getClippingStrategy().getClip(child)
+						: new Rectangle[] { child.getBounds() };
+				for (Rectangle element : clipping) {
+					if (element.intersects(graphics.getClip(clip))) {
+						graphics.clipRect(element);
+						child.paint(graphics);
+						graphics.restoreState();
+					}
+				}
+			}
+		}
+
+		@Override
+		public void addNotify() {
+			super.addNotify();
+			isRealized = true;
+		}
+
+		@Override
+		public void removeNotify() {
+			super.removeNotify();
+			isRealized = false;
 		}
-		itemsInLayer[getLayer(position)]++;
-		isLayerKnown = true;
-		do {
-			position++;
-		} while (position < getChildren().size() && decoratingFigures.contains(getChildren().get(position)));
-		decoratingFigures.add(decorating);
-		add(decorating, position);
 	}
 }
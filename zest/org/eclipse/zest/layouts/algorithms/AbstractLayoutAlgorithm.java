@@ -20,6 +20,13 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.zest.layouts.Filter;
 import org.eclipse.zest.layouts.InvalidLayoutConfiguration;
@@ -63,6 +70,16 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm {
 		public static final int MIN_ENTITY_SIZE = 5;
 		private static final int MIN_TIME_DELAY_BETWEEN_PROGRESS_EVENTS = 1;
 
+		/**
+		 * Executor shared by all asynchronous layouts. It runs at most one layout per
+		 * available processor and queues as many others. When the queue is full, the
+		 * thread requesting a layout runs it itself, which slows down clients that
+		 * request layouts faster than they can be computed. Layouts never wait for
+		 * each other in a worker thread: a layout requested while the one it
+		 * supersedes is still running is only submitted once that one has finished.
+		 */
+		private static final ThreadPoolExecutor LAYOUT_EXECUTOR = createLayoutExecutor();
+
 		private Thread creationThread = null;
 		protected Comparator comparator;
 		protected Filter filter;
@@ -110,7 +127,66 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm {
 		/** A list of LayoutRelationship objects to be added. */
 		private final List<LayoutRelationship> relationshipsToAdd = new ArrayList<>();
 
-		protected boolean layoutStopped = true;
+		protected volatile boolean layoutStopped = true;
+
+		/**
+		 * The asynchronous layout submitted to the executor, until it has finished or
+		 * has been cancelled.
+		 */
+		private LayoutRun asynchronousLayout = null;
+
+		/**
+		 * An asynchronous layout requested while {@link #asynchronousLayout} was still
+		 * running, submitted once that one has finished, or null.
+		 */
+		private LayoutRun pendingLayout = null;
+
+		/**
+		 * Identifies the most recently requested layout. A layout that has been
+		 * superseded by a newer request doesn't apply its results.
+		 */
+		private volatile Object currentLayoutToken = null;
+
+		/**
+		 * Token of the asynchronous layout running in the current thread, if any.
+		 */
+		private final ThreadLocal<Object> runningLayoutToken = new ThreadLocal<>();
+
+		/**
+		 * An asynchronous layout, from its request until it has finished or has
+		 * been cancelled.
+		 */
+		private static final class LayoutRun {
+			/** Set by whichever comes first, the worker thread or the cancellation. */
+			final AtomicBoolean started = new AtomicBoolean();
+			/** The progress listeners registered when the run was requested. */
+			final List<ProgressListener> listeners;
+			final Object token;
+			Runnable task;
+			volatile Future<?> future;
+			volatile boolean finished;
+
+			LayoutRun(List<ProgressListener> listeners, Object token) {
+				this.listeners = listeners;
+				this.token = token;
+			}
+
+			boolean isDone() {
+				return finished;
+			}
+		}
+
+		/**
+		 * Thrown from the progress events of an asynchronous layout which has been
+		 * superseded, to stop it.
+		 */
+		private static final class LayoutSupersededException extends RuntimeException {
+			private static final long serialVersionUID = 1L;
+
+			LayoutSupersededException() {
+				super(null, null, false, false);
+			}
+		}
 
 		protected int layout_styles = 0;
 
@@ -348,7 +424,8 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm {
 		 */
 		@Override
 		public synchronized boolean isRunning() {
-			return !layoutStopped;
+			return !layoutStopped || (asynchronousLayout != null && !asynchronousLayout.isDone())
+					|| pendingLayout != null;
 		}
 
 		/**
@@ -362,6 +439,80 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm {
 			fireProgressEnded(getTotalNumberOfLayoutSteps());
 		}
 
+		/**
+		 * Supersedes the asynchronous layouts of this algorithm. A layout that has not
+		 * started yet is dropped and its listeners are told it has ended. A running
+		 * one is not waited for: it stops at its next progress event and won't apply
+		 * its results.
+		 *
+		 * @return true if a superseded layout is still running
+		 */
+		private boolean cancelAsynchronousLayouts() {
+			currentLayoutToken = null;
+			if (pendingLayout != null) {
+				dropLayout(pendingLayout);
+				pendingLayout = null;
+			}
+			LayoutRun layout = asynchronousLayout;
+			if (layout == null || layout.isDone()) {
+				return false;
+			}
+			layoutStopped = true;
+			if (!layout.started.compareAndSet(false, true)) {
+				return true;
+			}
+			// without a future yet, the worker thread sees the run has been cancelled
+			Future<?> future = layout.future;
+			if (future != null) {
+				future.cancel(false);
+				LAYOUT_EXECUTOR.remove((Runnable) future);
+			}
+			dropLayout(layout);
+			asynchronousLayout = null;
+			return false;
+		}
+
+		/**
+		 * Ends a layout which has been cancelled before it started.
+		 */
+		private void dropLayout(LayoutRun layout) {
+			fireProgressCancelled(layout.listeners, false);
+			layout.finished = true;
+		}
+
+		/**
+		 * Ends the progress of a layout which has been superseded, so that each
+		 * progressStarted event is followed by a progressEnded one.
+		 */
+		private void fireProgressCancelled(List<ProgressListener> listeners, boolean progressStarted) {
+			int totalNumberOfSteps = getTotalNumberOfLayoutSteps();
+			if (!progressStarted) {
+				ProgressEvent event = new ProgressEvent(0, totalNumberOfSteps);
+				listeners.forEach(listener -> listener.progressStarted(event));
+			}
+			ProgressEvent event = new ProgressEvent(totalNumberOfSteps, totalNumberOfSteps);
+			listeners.forEach(listener -> listener.progressEnded(event));
+		}
+
+		private static ThreadPoolExecutor createLayoutExecutor() {
+			int threads = Runtime.getRuntime().availableProcessors();
+			ThreadFactory threadFactory = new ThreadFactory() {
+				private final AtomicInteger count = new AtomicInteger();
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "Zest Layout " + count.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					thread.setPriority(Thread.MIN_PRIORITY);
+					return thread;
+				}
+			};
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(threads), threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		}
+
 		private void setupLayout(LayoutEntity[] entitiesToLayout, LayoutRelationship[] relationshipsToConsider, double x,
 				double y, double width, double height) {
 			internalX = x;
@@ -407,41 +558,59 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm {
 		protected abstract int getCurrentLayoutStep();
 
 		/**
-		 * This actually applies the layout
+		 * This actually applies the layout. Asynchronous layouts run on a thread pool
+		 * shared by all algorithms. A new request supersedes the layout previously
+		 * requested from this algorithm: if it is still queued it is dropped, if it is
+		 * running it stops at its next progress event and its results are discarded.
+		 * It is not waited for, a new asynchronous layout is submitted once it has
+		 * finished and a synchronous one runs right away.
 		 */
 		@Override
-		public synchronized void applyLayout(final LayoutEntity[] entitiesToLayout,
+		public void applyLayout(final LayoutEntity[] entitiesToLayout,
 				final LayoutRelationship[] relationshipsToConsider, final double x, final double y, final double width,
-				final double height, boolean asynchronous, boolean continuous) throws InvalidLayoutConfiguration {
+				final double height, final boolean asynchronous, final boolean continuous)
+				throws InvalidLayoutConfiguration {
 			checkThread();
-			this.internalAsynchronous = asynchronous;
-			this.internalContinuous = continuous;
 
 			if (!isValidConfiguration(asynchronous, continuous)) {
 				throw new InvalidLayoutConfiguration();
 			}
 
-			clearBendPoints(relationshipsToConsider);
+			// a new request supersedes any layout that is still queued or running
+			final Object layoutToken = new Object();
+			final LayoutRun run = asynchronous ? new LayoutRun(new ArrayList<>(progressListeners), layoutToken) : null;
+			boolean submit = false;
+			synchronized (this) {
+				boolean isSupersededRunning = cancelAsynchronousLayouts();
+				currentLayoutToken = layoutToken;
+				if (run != null) {
+					run.task = () -> runAsynchronousLayout(run, entitiesToLayout, relationshipsToConsider, x, y, width,
+							height, continuous);
+					if (isSupersededRunning) {
+						// the superseded layout shares the internal state of this
+						// algorithm, so this one starts once it has finished
+						pendingLayout = run;
+					} else {
+						asynchronousLayout = run;
+						submit = true;
+					}
+				}
+			}
 
-			this.layoutStopped = false;
+			clearBendPoints(relationshipsToConsider);
 
 			// when an algorithm starts, reset the progress event
 			lastProgressEventFired = Calendar.getInstance();
 			if (asynchronous) {
-
-				Thread thread = new Thread(() -> {
-					setupLayout(entitiesToLayout, relationshipsToConsider, x, y, width, height);
-					preLayoutAlgorithm(internalNodes, internalRelationships, internalX, internalY, internalWidth,
-							internalHeight);
-					fireProgressStarted(getTotalNumberOfLayoutSteps());
-
-					applyLayoutInternal(internalNodes, internalRelationships, internalX, internalY, internalWidth,
-							internalHeight);
-					stop();
-				});
-				thread.setPriority(Thread.MIN_PRIORITY);
-				thread.start();
+				if (submit) {
+					submitLayout(run);
+				}
 			} else {
+				synchronized (this) {
+					this.internalAsynchronous = false;
+					this.internalContinuous = continuous;
+					this.layoutStopped = false;
+				}
 
 				// If we are running synchronously then we have to stop this at some
 				// point? right?
@@ -457,6 +626,72 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm {
 
 		}
 
+		private static void submitLayout(LayoutRun run) {
+			run.future = LAYOUT_EXECUTOR.submit(run.task);
+		}
+
+		/**
+		 * Runs an asynchronous layout in a worker thread, then submits the layout
+		 * which has been requested while it was running, if any.
+		 */
+		private void runAsynchronousLayout(LayoutRun run, LayoutEntity[] entitiesToLayout,
+				LayoutRelationship[] relationshipsToConsider, double x, double y, double width, double height,
+				boolean continuous) {
+			if (!run.started.compareAndSet(false, true)) {
+				// cancelled while queued
+				return;
+			}
+			boolean progressStarted = false;
+			boolean stopped = false;
+			runningLayoutToken.set(run.token);
+			try {
+				synchronized (this) {
+					if (currentLayoutToken != run.token) {
+						return;
+					}
+					this.internalAsynchronous = true;
+					this.internalContinuous = continuous;
+					this.layoutStopped = false;
+				}
+				setupLayout(entitiesToLayout, relationshipsToConsider, x, y, width, height);
+				preLayoutAlgorithm(internalNodes, internalRelationships, internalX, internalY, internalWidth,
+						internalHeight);
+				fireProgressStarted(getTotalNumberOfLayoutSteps());
+				progressStarted = true;
+
+				applyLayoutInternal(internalNodes, internalRelationships, internalX, internalY, internalWidth,
+						internalHeight);
+				synchronized (this) {
+					if (currentLayoutToken == run.token) {
+						stop();
+						stopped = true;
+					}
+				}
+			} catch (LayoutSupersededException e) {
+				// stopped by a newer request
+			} finally {
+				runningLayoutToken.remove();
+				if (!stopped) {
+					fireProgressCancelled(run.listeners, progressStarted);
+				}
+				LayoutRun next;
+				synchronized (this) {
+					run.finished = true;
+					if (asynchronousLayout == run) {
+						asynchronousLayout = null;
+					}
+					next = pendingLayout;
+					pendingLayout = null;
+					if (next != null) {
+						asynchronousLayout = next;
+					}
+				}
+				if (next != null) {
+					submitLayout(next);
+				}
+			}
+		}
+
 		/**
 		 * Clear out all old bend points before doing a layout
 		 */
@@ -978,6 +1213,10 @@ public abstract class AbstractLayoutAlgorithm implements LayoutAlgorithm {
 		 * @param totalNumberOfSteps The total number of steps in the algorithm.
 		 */
 		protected void fireProgressEvent(int currentStep, int totalNumberOfSteps) {
+			Object token = runningLayoutToken.get();
+			if (token != null && token != currentLayoutToken) {
+				throw new LayoutSupersededException();
+			}
 			// Update the layout locations to the external nodes
 			Calendar now = Calendar.getInstance();
 			now.add(Calendar.MILLISECOND, -MIN_TIME_DELAY_BETWEEN_PROGRESS_EVENTS);
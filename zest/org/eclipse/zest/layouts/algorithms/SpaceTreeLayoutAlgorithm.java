@@ -16,9 +16,11 @@ package org.eclipse.zest.layouts.algorithms;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Set;
 
 import org.eclipse.zest.layouts.dataStructures.DisplayIndependentDimension;
 import org.eclipse.zest.layouts.dataStructures.DisplayIndependentPoint;
@@ -79,16 +81,36 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 		public boolean expanded = false;
 		public double positionInLayer;
 
+		/**
+		 * Index of this node in its layer, valid only if the layer's index is up to
+		 * date (see {@link SpaceTreeLayer#indexOf(SpaceTreeNode)}).
+		 */
+		private int indexInLayer = -1;
+
 		public SpaceTreeNode(NodeLayout node, TreeLayoutObserver owner) {
 			super(node, owner);
 		}
 
+		public void setPositionInLayer(double positionInLayer) {
+			if (this.positionInLayer != positionInLayer) {
+				recordNodeState(this);
+				this.positionInLayer = positionInLayer;
+			}
+		}
+
+		public void setExpanded(boolean expanded) {
+			if (this.expanded != expanded) {
+				recordNodeState(this);
+				this.expanded = expanded;
+			}
+		}
+
 		@Override
 		protected void addChild(TreeLayoutObserver.TreeNode child2) {
 			super.addChild(child2);
 
 			SpaceTreeNode child = (SpaceTreeNode) child2;
-			child.expanded = false;
+			child.setExpanded(false);
 			child.setSubgraph(null);
 
 			if (child.depth >= 0) {
@@ -118,7 +140,11 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 		public void precomputeTree() {
 			super.precomputeTree();
 			if (this == owner.getSuperRoot()) {
-				expanded = true;
+				setExpanded(true);
+				// nodes' order could change, layers have to be sorted again
+				for (SpaceTreeLayer layer : spaceTreeLayers) {
+					layer.sorted = false;
+				}
 				while (spaceTreeLayers.size() <= this.height) {
 					spaceTreeLayers.add(new SpaceTreeLayer(spaceTreeLayers.size()));
 				}
@@ -130,7 +156,7 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 		}
 
 		public SubgraphLayout collapseAllChildrenIntoSubgraph(SubgraphLayout subgraph, boolean includeYourself) {
-			expanded = false;
+			setExpanded(false);
 			List<NodeLayout> allChildren = new ArrayList<>();
 			LinkedList<SpaceTreeNode> nodesToVisit = new LinkedList<>();
 			nodesToVisit.addLast(this);
@@ -139,7 +165,7 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 				for (SpaceTreeNode child : currentNode.getChildren()) {
 					allChildren.add(child.node);
 					child.setSubgraph(null);
-					child.expanded = false;
+					child.setExpanded(false);
 					nodesToVisit.addLast(child);
 				}
 			}
@@ -299,7 +325,7 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 
 		public void centerParentsTopDown() {
 			if (this == owner.getSuperRoot()) {
-				this.positionInLayer = getAvailableSpace() / 2;
+				setPositionInLayer(getAvailableSpace() / 2);
 			}
 			if (!children.isEmpty() && expanded) {
 				SpaceTreeNode firstChild = getChildren().get(0);
@@ -441,15 +467,72 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 	};
 
 	private class SpaceTreeLayer {
-		public List<SpaceTreeNode> nodes = new ArrayList<>();
+		/**
+		 * Nodes of this layer. The list is replaced with a copy when it's modified
+		 * for the first time after a snapshot was taken, so that the snapshot can
+		 * restore the previous list without copying layers that didn't change.
+		 */
+		private List<SpaceTreeNode> nodes = new ArrayList<>();
 		private final int depth;
 		public double thickness = 0;
 
+		/**
+		 * True if {@link #nodes} is known to be sorted by the nodes' order.
+		 */
+		private boolean sorted = true;
+
+		/**
+		 * True if {@link SpaceTreeNode#indexInLayer} is up to date for all nodes in
+		 * this layer.
+		 */
+		private boolean indexValid = false;
+
+		/**
+		 * Number of the snapshot for which current {@link #nodes} list has been
+		 * recorded, or -1 if it hasn't been recorded yet.
+		 */
+		private int recordedInSnapShot = -1;
+
 		public SpaceTreeLayer(int depth) {
 			this.depth = depth;
 		}
 
+		/**
+		 * Must be called before the list of nodes is modified.
+		 */
+		private void beforeModification() {
+			if (openSnapShots > 0 && recordedInSnapShot != snapShotCount) {
+				StateChange change = new StateChange();
+				change.layer = this;
+				change.layerNodes = nodes;
+				change.sorted = sorted;
+				change.thickness = thickness;
+				stateChanges.add(change);
+				nodes = new ArrayList<>(nodes);
+				recordedInSnapShot = snapShotCount;
+			}
+			indexValid = false;
+		}
+
+		/**
+		 * @param node
+		 * @return position of given node in this layer or -1 if it's not on this
+		 *         layer
+		 */
+		private int indexOf(SpaceTreeNode node) {
+			if (!indexValid) {
+				for (int i = 0; i < nodes.size(); i++) {
+					nodes.get(i).indexInLayer = i;
+				}
+				indexValid = true;
+			}
+			int index = node.indexInLayer;
+			return (index >= 0 && index < nodes.size() && nodes.get(index) == node) ? index : -1;
+		}
+
 		public void addNodes(List<SpaceTreeNode> nodesToAdd) {
+			beforeModification();
+			boolean replacedNodes = false;
 			ListIterator<SpaceTreeNode> layerIterator = nodes.listIterator();
 			SpaceTreeNode previousNode = null;
 			for (SpaceTreeNode nodeToAdd : nodesToAdd) {
@@ -462,7 +545,7 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 					}
 					double expectedPostion = (previousNode == null) ? 0
 							: previousNode.positionInLayer + expectedDistance(previousNode, nodeInLayer);
-					nodeInLayer.positionInLayer = Math.max(nodeInLayer.positionInLayer, expectedPostion);
+					nodeInLayer.setPositionInLayer(Math.max(nodeInLayer.positionInLayer, expectedPostion));
 					previousNode = nodeInLayer;
 				}
 
@@ -470,6 +553,7 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 					layerIterator.add(nodeToAdd);
 				} else if (nodeInLayer.order == nodeToAdd.order) {
 					layerIterator.set(nodeToAdd);
+					replacedNodes = true;
 				} else {
 					if (nodeInLayer.order > nodeToAdd.order) {
 						layerIterator.previous();
@@ -483,31 +567,55 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 				SpaceTreeNode nodeInLayer = layerIterator.next();
 				double expectedPostion = (previousNode == null) ? 0
 						: previousNode.positionInLayer + expectedDistance(previousNode, nodeInLayer);
-				nodeInLayer.positionInLayer = Math.max(nodeInLayer.positionInLayer, expectedPostion);
+				nodeInLayer.setPositionInLayer(Math.max(nodeInLayer.positionInLayer, expectedPostion));
 				previousNode = nodeInLayer;
 			}
 
-			refreshThickness();
+			if (replacedNodes) {
+				refreshThickness();
+			} else {
+				for (SpaceTreeNode nodeToAdd : nodesToAdd) {
+					checkThickness(nodeToAdd);
+				}
+			}
 		}
 
 		public void removeNode(SpaceTreeNode node) {
-			if (nodes.remove(node)) {
+			int index = indexOf(node);
+			if (index != -1) {
+				beforeModification();
+				nodes.remove(index);
 				spaceTreeLayers.get(depth + 1).removeNodes(node.getChildren());
-				refreshThickness();
+				if (getThickness(node) >= thickness) {
+					refreshThickness();
+				}
 			}
 		}
 
 		public void removeNodes(List<SpaceTreeNode> nodesToRemove) {
-			if (this.nodes.removeAll(nodesToRemove)) {
+			boolean thicknessChanged = false;
+			boolean removed = false;
+			for (SpaceTreeNode nodeToRemove : nodesToRemove) {
+				if (indexOf(nodeToRemove) != -1) {
+					removed = true;
+					thicknessChanged = thicknessChanged || getThickness(nodeToRemove) >= thickness;
+				}
+			}
+			if (removed) {
+				beforeModification();
+				Set<SpaceTreeNode> nodesToRemoveSet = new HashSet<>(nodesToRemove);
+				nodes.removeIf(nodesToRemoveSet::contains);
 				SpaceTreeLayer nextLayer = (spaceTreeLayers.get(depth + 1));
 				for (SpaceTreeNode nodeToRemove : nodesToRemove) {
 					nextLayer.removeNodes(nodeToRemove.getChildren());
 				}
-				refreshThickness();
+				if (thicknessChanged) {
+					refreshThickness();
+				}
 			}
 		}
 
-		public void checkThickness(SpaceTreeNode node) {
+		private double getThickness(SpaceTreeNode node) {
 			double nodeThickness = 0;
 			DisplayIndependentDimension size = node.node.getSize();
 			nodeThickness = (direction == TOP_DOWN || direction == BOTTOM_UP) ? size.height : size.width;
@@ -515,7 +623,11 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 				size = node.subgraph.getSize();
 				nodeThickness += (direction == TOP_DOWN || direction == BOTTOM_UP) ? size.height : size.width;
 			}
-			this.thickness = Math.max(this.thickness, nodeThickness);
+			return nodeThickness;
+		}
+
+		public void checkThickness(SpaceTreeNode node) {
+			this.thickness = Math.max(this.thickness, getThickness(node));
 		}
 
 		public void refreshThickness() {
@@ -526,58 +638,66 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 		}
 
 		public void fitNodesWithinBounds(List<SpaceTreeNode> nodeList, double startPosition, double endPosition) {
-			NodeSnapshot[][] snapShot = takeSnapShot();
-			SpaceTreeNode[] nodes = nodeList.toArray(new SpaceTreeNode[nodeList.size()]);
-			double initialStartPosition = nodes[0].positionInLayer;
-			double initialNodesBredth = nodes[nodes.length - 1].positionInLayer - initialStartPosition;
-			double[] desiredPositions = new double[nodes.length];
-			// calculate desired positions for every node, regarding their
-			// initial initial proportions
-			for (int i = 0; i < nodes.length; i++) {
-				double initialPositionAsPercent = (initialNodesBredth > 0)
-						? (nodes[i].positionInLayer - initialStartPosition) / initialNodesBredth
-						: 0;
-				desiredPositions[i] = initialPositionAsPercent * (endPosition - startPosition);
-			}
-			// make sure there's proper distance between each pair of
-			// consecutive nodes
-			for (int i = 1; i < nodes.length; i++) {
-				SpaceTreeNode node = nodes[i];
-				SpaceTreeNode previousNode = nodes[i - 1];
-				double expectedDistance = expectedDistance(previousNode, node);
-				if (desiredPositions[i] - desiredPositions[i - 1] < expectedDistance) {
-					desiredPositions[i] = desiredPositions[i - 1] + expectedDistance;
+			int snapShot = takeSnapShot();
+			try {
+				SpaceTreeNode[] nodes = nodeList.toArray(new SpaceTreeNode[nodeList.size()]);
+				double initialStartPosition = nodes[0].positionInLayer;
+				double initialNodesBredth = nodes[nodes.length - 1].positionInLayer - initialStartPosition;
+				double[] desiredPositions = new double[nodes.length];
+				// calculate desired positions for every node, regarding their
+				// initial initial proportions
+				for (int i = 0; i < nodes.length; i++) {
+					double initialPositionAsPercent = (initialNodesBredth > 0)
+							? (nodes[i].positionInLayer - initialStartPosition) / initialNodesBredth
+							: 0;
+					desiredPositions[i] = initialPositionAsPercent * (endPosition - startPosition);
 				}
-			}
-			// if the above operation caused some nodes to fall out of requested
-			// bounds, push them back
-			if (desiredPositions[nodes.length - 1] > (endPosition - startPosition)) {
-				desiredPositions[nodes.length - 1] = (endPosition - startPosition);
-				for (int i = nodes.length - 1; i > 0; i--) {
+				// make sure there's proper distance between each pair of
+				// consecutive nodes
+				for (int i = 1; i < nodes.length; i++) {
 					SpaceTreeNode node = nodes[i];
 					SpaceTreeNode previousNode = nodes[i - 1];
 					double expectedDistance = expectedDistance(previousNode, node);
-					if (desiredPositions[i] - desiredPositions[i - 1] >= expectedDistance) {
-						break;
+					if (desiredPositions[i] - desiredPositions[i - 1] < expectedDistance) {
+						desiredPositions[i] = desiredPositions[i - 1] + expectedDistance;
+					}
+				}
+				// if the above operation caused some nodes to fall out of requested
+				// bounds, push them back
+				if (desiredPositions[nodes.length - 1] > (endPosition - startPosition)) {
+					desiredPositions[nodes.length - 1] = (endPosition - startPosition);
+					for (int i = nodes.length - 1; i > 0; i--) {
+						SpaceTreeNode node = nodes[i];
+						SpaceTreeNode previousNode = nodes[i - 1];
+						double expectedDistance = expectedDistance(previousNode, node);
+						if (desiredPositions[i] - desiredPositions[i - 1] >= expectedDistance) {
+							break;
+						}
+						desiredPositions[i - 1] = desiredPositions[i] - expectedDistance;
 					}
-					desiredPositions[i - 1] = desiredPositions[i] - expectedDistance;
 				}
-			}
 
-			for (int i = 0; i < nodeList.size(); i++) {
-				SpaceTreeNode node = nodeList.get(i);
-				double desiredPosition = startPosition + desiredPositions[i];
-				moveNode(node, desiredPosition);
-				if (Math.abs(node.positionInLayer - desiredPosition) > 0.5) {
-					startPosition += (node.positionInLayer - desiredPosition);
-					i = -1;
-					revertToShanpshot(snapShot);
+				for (int i = 0; i < nodeList.size(); i++) {
+					SpaceTreeNode node = nodeList.get(i);
+					double desiredPosition = startPosition + desiredPositions[i];
+					moveNode(node, desiredPosition);
+					if (Math.abs(node.positionInLayer - desiredPosition) > 0.5) {
+						startPosition += (node.positionInLayer - desiredPosition);
+						i = -1;
+						revertToShanpshot(snapShot);
+					}
 				}
+			} finally {
+				releaseSnapShot();
 			}
 		}
 
 		public void moveNode(SpaceTreeNode node, double newPosition) {
-			Collections.sort(nodes, (arg0, arg1) -> arg0.order - arg1.order);
+			if (!sorted) {
+				beforeModification();
+				Collections.sort(nodes, (arg0, arg1) -> arg0.order - arg1.order);
+				sorted = true;
+			}
 			double positionInLayerAtStart = node.positionInLayer;
 			if (newPosition >= positionInLayerAtStart) {
 				moveNodeForward(node, newPosition);
@@ -599,103 +719,107 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 		 * @param newPosition
 		 */
 		private void moveNodeForward(SpaceTreeNode nodeToMove, double newPosition) {
-			int nodeIndex = nodes.indexOf(nodeToMove);
+			int nodeIndex = indexOf(nodeToMove);
 			if (nodeIndex == -1) {
 				throw new IllegalArgumentException("node not on this layer"); //$NON-NLS-1$
 			}
 			// move forward -> check space to the 'right'
-			NodeSnapshot[][] snapShot = takeSnapShot();
-			boolean firstRun = true;
-			mainLoop: while (firstRun || nodeToMove.positionInLayer < newPosition) {
-				firstRun = false;
-				double requiredSpace = 0;
-				SpaceTreeNode previousNode = nodeToMove;
-				for (int i = nodeIndex + 1; i < nodes.size(); i++) {
-					SpaceTreeNode nextNode = nodes.get(i);
-					requiredSpace += expectedDistance(previousNode, nextNode);
-					previousNode = nextNode;
-				}
-				requiredSpace += previousNode.spaceRequiredForNode() / 2;
-				if (requiredSpace > getAvailableSpace() - newPosition) {
-					// find nodes to remove
-					boolean removed = false;
-					for (int i = nodeIndex; i < nodes.size(); i++) {
-						SpaceTreeNode nextNode = (nodes.get(i));
-						if (protectedNode == null || (!protectedNode.isAncestorOf(nextNode)
-								&& !nextNode.parent.isAncestorOf(protectedNode))) {
-							collapseNode(nextNode.getParent());
-							if (nextNode.parent == nodeToMove.parent) {
-								break mainLoop;
-							}
-							removed = true;
-							break;
-						}
-					}
-					if (!removed) {
-						// not enough space, but we can't collapse anything...
-						newPosition = getAvailableSpace() - requiredSpace;
-						revertToShanpshot(snapShot);
-						continue mainLoop;
+			int snapShot = takeSnapShot();
+			try {
+				boolean firstRun = true;
+				mainLoop: while (firstRun || nodeToMove.positionInLayer < newPosition) {
+					firstRun = false;
+					double requiredSpace = 0;
+					SpaceTreeNode previousNode = nodeToMove;
+					for (int i = nodeIndex + 1; i < nodes.size(); i++) {
+						SpaceTreeNode nextNode = nodes.get(i);
+						requiredSpace += expectedDistance(previousNode, nextNode);
+						previousNode = nextNode;
 					}
-				}
-				// move the node and all its neighbors to the 'right'
-				SpaceTreeNode currentNodeToMove = nodeToMove;
-				double newPositionForCurrent = newPosition;
-				for (int i = nodeIndex; i < nodes.size(); i++) {
-					currentNodeToMove.positionInLayer = newPositionForCurrent;
-					// move parent if moved node is its first child
-					if (currentNodeToMove.firstChild) {
-						SpaceTreeNode parent = currentNodeToMove.getParent();
-						if (depth > 0 && parent.positionInLayer <= newPositionForCurrent) {
-							SpaceTreeLayer parentLayer = spaceTreeLayers.get(depth - 1);
-							parentLayer.moveNodeForward(parent, newPositionForCurrent);
-							if (parent.positionInLayer < newPositionForCurrent) {
-								double delta = newPositionForCurrent - parent.positionInLayer;
-								newPosition -= delta;
-								revertToShanpshot(snapShot);
-								continue mainLoop;
+					requiredSpace += previousNode.spaceRequiredForNode() / 2;
+					if (requiredSpace > getAvailableSpace() - newPosition) {
+						// find nodes to remove
+						boolean removed = false;
+						for (int i = nodeIndex; i < nodes.size(); i++) {
+							SpaceTreeNode nextNode = (nodes.get(i));
+							if (protectedNode == null || (!protectedNode.isAncestorOf(nextNode)
+									&& !nextNode.parent.isAncestorOf(protectedNode))) {
+								collapseNode(nextNode.getParent());
+								if (nextNode.parent == nodeToMove.parent) {
+									break mainLoop;
+								}
+								removed = true;
+								break;
 							}
 						}
+						if (!removed) {
+							// not enough space, but we can't collapse anything...
+							newPosition = getAvailableSpace() - requiredSpace;
+							revertToShanpshot(snapShot);
+							continue mainLoop;
+						}
 					}
-					// move children if necessary
-					if (currentNodeToMove.expanded && !currentNodeToMove.children.isEmpty()) {
-						SpaceTreeNode lastChild = currentNodeToMove.getChildren()
-								.get(currentNodeToMove.children.size() - 1);
-						if (lastChild.positionInLayer < newPositionForCurrent) {
-							// try to move all the children, that is move the
-							// first child and the rest will be pushed
-							SpaceTreeNode firstChild = currentNodeToMove.getChildren().get(0);
-							SpaceTreeLayer childLayer = spaceTreeLayers.get(depth + 1);
-							double expectedDistanceBetweenChildren = currentNodeToMove.spaceRequiredForChildren()
-									- firstChild.spaceRequiredForNode() / 2 - lastChild.spaceRequiredForNode() / 2;
-							childLayer.moveNodeForward(firstChild,
-									newPositionForCurrent - expectedDistanceBetweenChildren);
-							if (currentNodeToMove.expanded && lastChild.positionInLayer < newPositionForCurrent) {
-								// the previous attempt failed -> try to move
-								// only the last child
-								childLayer.moveNodeForward(lastChild, newPositionForCurrent);
-								if (lastChild.positionInLayer < newPositionForCurrent) {
-									// child couldn't be moved as far as needed
-									// -> move current node back to the position
-									// over the child
-									double delta = newPositionForCurrent - lastChild.positionInLayer;
+					// move the node and all its neighbors to the 'right'
+					SpaceTreeNode currentNodeToMove = nodeToMove;
+					double newPositionForCurrent = newPosition;
+					for (int i = nodeIndex; i < nodes.size(); i++) {
+						currentNodeToMove.setPositionInLayer(newPositionForCurrent);
+						// move parent if moved node is its first child
+						if (currentNodeToMove.firstChild) {
+							SpaceTreeNode parent = currentNodeToMove.getParent();
+							if (depth > 0 && parent.positionInLayer <= newPositionForCurrent) {
+								SpaceTreeLayer parentLayer = spaceTreeLayers.get(depth - 1);
+								parentLayer.moveNodeForward(parent, newPositionForCurrent);
+								if (parent.positionInLayer < newPositionForCurrent) {
+									double delta = newPositionForCurrent - parent.positionInLayer;
 									newPosition -= delta;
 									revertToShanpshot(snapShot);
 									continue mainLoop;
 								}
 							}
 						}
-					}
+						// move children if necessary
+						if (currentNodeToMove.expanded && !currentNodeToMove.children.isEmpty()) {
+							SpaceTreeNode lastChild = currentNodeToMove.getChildren()
+									.get(currentNodeToMove.children.size() - 1);
+							if (lastChild.positionInLayer < newPositionForCurrent) {
+								// try to move all the children, that is move the
+								// first child and the rest will be pushed
+								SpaceTreeNode firstChild = currentNodeToMove.getChildren().get(0);
+								SpaceTreeLayer childLayer = spaceTreeLayers.get(depth + 1);
+								double expectedDistanceBetweenChildren = currentNodeToMove.spaceRequiredForChildren()
+										- firstChild.spaceRequiredForNode() / 2 - lastChild.spaceRequiredForNode() / 2;
+								childLayer.moveNodeForward(firstChild,
+										newPositionForCurrent - expectedDistanceBetweenChildren);
+								if (currentNodeToMove.expanded && lastChild.positionInLayer < newPositionForCurrent) {
+									// the previous attempt failed -> try to move
+									// only the last child
+									childLayer.moveNodeForward(lastChild, newPositionForCurrent);
+									if (lastChild.positionInLayer < newPositionForCurrent) {
+										// child couldn't be moved as far as needed
+										// -> move current node back to the position
+										// over the child
+										double delta = newPositionForCurrent - lastChild.positionInLayer;
+										newPosition -= delta;
+										revertToShanpshot(snapShot);
+										continue mainLoop;
+									}
+								}
+							}
+						}
 
-					if (i < nodes.size() - 1) {
-						SpaceTreeNode nextNode = nodes.get(i + 1);
-						newPositionForCurrent += expectedDistance(currentNodeToMove, nextNode);
-						currentNodeToMove = nextNode;
-						if (currentNodeToMove.positionInLayer > newPositionForCurrent) {
-							break;
+						if (i < nodes.size() - 1) {
+							SpaceTreeNode nextNode = nodes.get(i + 1);
+							newPositionForCurrent += expectedDistance(currentNodeToMove, nextNode);
+							currentNodeToMove = nextNode;
+							if (currentNodeToMove.positionInLayer > newPositionForCurrent) {
+								break;
+							}
 						}
 					}
 				}
+			} finally {
+				releaseSnapShot();
 			}
 		}
 
@@ -707,104 +831,108 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 		 * @param newPosition
 		 */
 		private void moveNodeBackward(SpaceTreeNode nodeToMove, double newPosition) {
-			int nodeIndex = nodes.indexOf(nodeToMove);
+			int nodeIndex = indexOf(nodeToMove);
 			if (nodeIndex == -1) {
 				throw new IllegalArgumentException("node not on this layer"); //$NON-NLS-1$
 			}
 			// move backward -> check space to the 'left'
 			// move and collapse until there's enough space
-			NodeSnapshot[][] snapShot = takeSnapShot();
-			boolean firstRun = true;
-			mainLoop: while (firstRun || nodeToMove.positionInLayer > newPosition) {
-				firstRun = false;
-				double requiredSpace = 0;
-				SpaceTreeNode previousNode = nodeToMove;
-				for (int i = nodeIndex - 1; i >= 0; i--) {
-					SpaceTreeNode nextNode = nodes.get(i);
-					requiredSpace += expectedDistance(previousNode, nextNode);
-					previousNode = nextNode;
-				}
-				requiredSpace += previousNode.spaceRequiredForNode() / 2;
-				if (requiredSpace > newPosition) {
-					// find nodes to remove
-					boolean removed = false;
-					for (int i = nodeIndex; i >= 0; i--) {
-						SpaceTreeNode nextNode = (nodes.get(i));
-						if (protectedNode == null || (!protectedNode.isAncestorOf(nextNode)
-								&& !nextNode.parent.isAncestorOf(protectedNode))) {
-							collapseNode(nextNode.getParent());
-							if (nextNode.parent == nodeToMove.parent) {
-								break mainLoop;
-							}
-							nodeIndex -= nextNode.parent.children.size();
-							removed = true;
-							break;
-						}
-					}
-					if (!removed) {
-						// not enough space, but we can't collapse anything...
-						newPosition = requiredSpace;
-						revertToShanpshot(snapShot);
-						continue mainLoop;
+			int snapShot = takeSnapShot();
+			try {
+				boolean firstRun = true;
+				mainLoop: while (firstRun || nodeToMove.positionInLayer > newPosition) {
+					firstRun = false;
+					double requiredSpace = 0;
+					SpaceTreeNode previousNode = nodeToMove;
+					for (int i = nodeIndex - 1; i >= 0; i--) {
+						SpaceTreeNode nextNode = nodes.get(i);
+						requiredSpace += expectedDistance(previousNode, nextNode);
+						previousNode = nextNode;
 					}
-				}
-				// move the node and all its neighbors to the 'left'
-				SpaceTreeNode currentNodeToMove = nodeToMove;
-				double newPositionForCurrent = newPosition;
-				for (int i = nodeIndex; i >= 0; i--) {
-					currentNodeToMove.positionInLayer = newPositionForCurrent;
-					// move parent if moved node is its last child
-					if (currentNodeToMove.lastChild) {
-						SpaceTreeNode parent = currentNodeToMove.getParent();
-						if (depth > 0 && parent.positionInLayer >= newPositionForCurrent) {
-							SpaceTreeLayer parentLayer = spaceTreeLayers.get(depth - 1);
-							parentLayer.moveNodeBackward(parent, newPositionForCurrent);
-							if (parent.positionInLayer > newPositionForCurrent) {
-								double delta = parent.positionInLayer - newPositionForCurrent;
-								newPosition += delta;
-								revertToShanpshot(snapShot);
-								continue mainLoop;
+					requiredSpace += previousNode.spaceRequiredForNode() / 2;
+					if (requiredSpace > newPosition) {
+						// find nodes to remove
+						boolean removed = false;
+						for (int i = nodeIndex; i >= 0; i--) {
+							SpaceTreeNode nextNode = (nodes.get(i));
+							if (protectedNode == null || (!protectedNode.isAncestorOf(nextNode)
+									&& !nextNode.parent.isAncestorOf(protectedNode))) {
+								collapseNode(nextNode.getParent());
+								if (nextNode.parent == nodeToMove.parent) {
+									break mainLoop;
+								}
+								nodeIndex -= nextNode.parent.children.size();
+								removed = true;
+								break;
 							}
 						}
+						if (!removed) {
+							// not enough space, but we can't collapse anything...
+							newPosition = requiredSpace;
+							revertToShanpshot(snapShot);
+							continue mainLoop;
+						}
 					}
-					// move children if necessary
-					if (currentNodeToMove.expanded && !currentNodeToMove.children.isEmpty()) {
-						SpaceTreeNode firstChild = currentNodeToMove.getChildren().get(0);
-						if (firstChild.positionInLayer > newPositionForCurrent) {
-							// try to move all the children, that is move the
-							// last child and the rest will be pushed
-							SpaceTreeNode lastChild = currentNodeToMove.getChildren()
-									.get(currentNodeToMove.children.size() - 1);
-							SpaceTreeLayer childLayer = spaceTreeLayers.get(depth + 1);
-							double expectedDistanceBetweenChildren = currentNodeToMove.spaceRequiredForChildren()
-									- firstChild.spaceRequiredForNode() / 2 - lastChild.spaceRequiredForNode() / 2;
-							childLayer.moveNodeBackward(lastChild,
-									newPositionForCurrent + expectedDistanceBetweenChildren);
-							if (currentNodeToMove.expanded && firstChild.positionInLayer > newPositionForCurrent) {
-								// the previous attempt failed -> try to move
-								// only the first child
-								childLayer.moveNodeBackward(firstChild, newPositionForCurrent);
-								if (firstChild.positionInLayer > newPositionForCurrent) {
-									// child couldn't be moved as far as needed
-									// -> move current node back to the position
-									// over the child
-									double delta = firstChild.positionInLayer - newPositionForCurrent;
+					// move the node and all its neighbors to the 'left'
+					SpaceTreeNode currentNodeToMove = nodeToMove;
+					double newPositionForCurrent = newPosition;
+					for (int i = nodeIndex; i >= 0; i--) {
+						currentNodeToMove.setPositionInLayer(newPositionForCurrent);
+						// move parent if moved node is its last child
+						if (currentNodeToMove.lastChild) {
+							SpaceTreeNode parent = currentNodeToMove.getParent();
+							if (depth > 0 && parent.positionInLayer >= newPositionForCurrent) {
+								SpaceTreeLayer parentLayer = spaceTreeLayers.get(depth - 1);
+								parentLayer.moveNodeBackward(parent, newPositionForCurrent);
+								if (parent.positionInLayer > newPositionForCurrent) {
+									double delta = parent.positionInLayer - newPositionForCurrent;
 									newPosition += delta;
 									revertToShanpshot(snapShot);
 									continue mainLoop;
 								}
 							}
 						}
-					}
-					if (i > 0) {
-						SpaceTreeNode nextNode = nodes.get(i - 1);
-						newPositionForCurrent -= expectedDistance(currentNodeToMove, nextNode);
-						currentNodeToMove = nextNode;
-						if (currentNodeToMove.positionInLayer < newPositionForCurrent) {
-							break;
+						// move children if necessary
+						if (currentNodeToMove.expanded && !currentNodeToMove.children.isEmpty()) {
+							SpaceTreeNode firstChild = currentNodeToMove.getChildren().get(0);
+							if (firstChild.positionInLayer > newPositionForCurrent) {
+								// try to move all the children, that is move the
+								// last child and the rest will be pushed
+								SpaceTreeNode lastChild = currentNodeToMove.getChildren()
+										.get(currentNodeToMove.children.size() - 1);
+								SpaceTreeLayer childLayer = spaceTreeLayers.get(depth + 1);
+								double expectedDistanceBetweenChildren = currentNodeToMove.spaceRequiredForChildren()
+										- firstChild.spaceRequiredForNode() / 2 - lastChild.spaceRequiredForNode() / 2;
+								childLayer.moveNodeBackward(lastChild,
+										newPositionForCurrent + expectedDistanceBetweenChildren);
+								if (currentNodeToMove.expanded && firstChild.positionInLayer > newPositionForCurrent) {
+									// the previous attempt failed -> try to move
+									// only the first child
+									childLayer.moveNodeBackward(firstChild, newPositionForCurrent);
+									if (firstChild.positionInLayer > newPositionForCurrent) {
+										// child couldn't be moved as far as needed
+										// -> move current node back to the position
+										// over the child
+										double delta = firstChild.positionInLayer - newPositionForCurrent;
+										newPosition += delta;
+										revertToShanpshot(snapShot);
+										continue mainLoop;
+									}
+								}
+							}
+						}
+						if (i > 0) {
+							SpaceTreeNode nextNode = nodes.get(i - 1);
+							newPositionForCurrent -= expectedDistance(currentNodeToMove, nextNode);
+							currentNodeToMove = nextNode;
+							if (currentNodeToMove.positionInLayer < newPositionForCurrent) {
+								break;
+							}
 						}
 					}
 				}
+			} finally {
+				releaseSnapShot();
 			}
 		}
 
@@ -819,7 +947,7 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 		}
 
 		private void collapseNode(SpaceTreeNode node) {
-			node.expanded = false;
+			node.setExpanded(false);
 			SpaceTreeLayer layer = spaceTreeLayers.get(node.depth + 1);
 			layer.removeNodes(node.getChildren());
 			for (SpaceTreeNode child : node.getChildren()) {
@@ -843,7 +971,7 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 				maximizeExpansion(spaceTreeNode);
 				refreshLayout(true);
 			} else if (spaceTreeNode.expanded) {
-				spaceTreeNode.expanded = false;
+				spaceTreeNode.setExpanded(false);
 				spaceTreeLayers.get(spaceTreeNode.depth + 1).removeNodes(spaceTreeNode.getChildren());
 				refreshLayout(true);
 			}
@@ -881,58 +1009,62 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 			nodesInNextLayer.add(nodeToExpand);
 			double spaceRequiredInNextLayer = nodeToExpand.spaceRequiredForNode();
 			for (int layer = 0; !nodesInNextLayer.isEmpty(); layer++) {
-				NodeSnapshot[][] snapShot = takeSnapShot();
-				requiredSpace = Math.max(requiredSpace, spaceRequiredInNextLayer);
-				spaceRequiredInNextLayer = 0;
-
-				nodesInThisLayer = nodesInNextLayer;
-				nodesInNextLayer = new ArrayList<>();
-
-				int numOfNodesWithChildren = 0;
-				for (SpaceTreeNode element : nodesInThisLayer) {
-					SpaceTreeNode node = element;
-					if (!node.children.isEmpty()) {
-						node.expanded = true;
-						spaceRequiredInNextLayer += node.spaceRequiredForChildren();
-						nodesInNextLayer.addAll(node.getChildren());
-						numOfNodesWithChildren++;
+				int snapShot = takeSnapShot();
+				try {
+					requiredSpace = Math.max(requiredSpace, spaceRequiredInNextLayer);
+					spaceRequiredInNextLayer = 0;
+
+					nodesInThisLayer = nodesInNextLayer;
+					nodesInNextLayer = new ArrayList<>();
+
+					int numOfNodesWithChildren = 0;
+					for (SpaceTreeNode element : nodesInThisLayer) {
+						SpaceTreeNode node = element;
+						if (!node.children.isEmpty()) {
+							node.setExpanded(true);
+							spaceRequiredInNextLayer += node.spaceRequiredForChildren();
+							nodesInNextLayer.addAll(node.getChildren());
+							numOfNodesWithChildren++;
+						}
 					}
-				}
 
-				for (SpaceTreeNode node : nodesInNextLayer) {
-					node.expanded = false;
-				}
+					for (SpaceTreeNode node : nodesInNextLayer) {
+						node.setExpanded(false);
+					}
 
-				if (numOfNodesWithChildren == 0) {
-					break;
-				}
+					if (numOfNodesWithChildren == 0) {
+						break;
+					}
 
-				spaceRequiredInNextLayer += branchGap * (numOfNodesWithChildren - 1);
-
-				boolean addedNewLayer = false;
-				if ((spaceRequiredInNextLayer <= requiredSpace || spaceRequiredInNextLayer <= availableSpace
-						|| (layer < 1 && nodeToExpand.depth + layer < 1)) && !nodesInNextLayer.isEmpty()) {
-					// add next layer and center its nodes
-
-					SpaceTreeLayer childLayer = spaceTreeLayers.get(nodeToExpand.depth + layer + 1);
-					childLayer.addNodes(nodesInNextLayer);
-					SpaceTreeNode firstChild = (nodesInNextLayer.get(0));
-					SpaceTreeNode lastChild = (nodesInNextLayer.get(nodesInNextLayer.size() - 1));
-					double boundsWidth = spaceRequiredInNextLayer - firstChild.spaceRequiredForNode() / 2
-							- lastChild.spaceRequiredForNode() / 2;
-					double startPosition = Math.max((availableSpace - boundsWidth) / 2,
-							firstChild.spaceRequiredForNode() / 2);
-					setAvailableSpace(spaceRequiredInNextLayer);
-					childLayer.fitNodesWithinBounds(nodesInNextLayer, startPosition, startPosition + boundsWidth);
-					setAvailableSpace(0);
-					if (nodeToExpand.childrenPositionsOK(nodesInThisLayer) || layer == 0
-							|| nodeToExpand.depth + layer < 1) {
-						addedNewLayer = true;
+					spaceRequiredInNextLayer += branchGap * (numOfNodesWithChildren - 1);
+
+					boolean addedNewLayer = false;
+					if ((spaceRequiredInNextLayer <= requiredSpace || spaceRequiredInNextLayer <= availableSpace
+							|| (layer < 1 && nodeToExpand.depth + layer < 1)) && !nodesInNextLayer.isEmpty()) {
+						// add next layer and center its nodes
+
+						SpaceTreeLayer childLayer = spaceTreeLayers.get(nodeToExpand.depth + layer + 1);
+						childLayer.addNodes(nodesInNextLayer);
+						SpaceTreeNode firstChild = (nodesInNextLayer.get(0));
+						SpaceTreeNode lastChild = (nodesInNextLayer.get(nodesInNextLayer.size() - 1));
+						double boundsWidth = spaceRequiredInNextLayer - firstChild.spaceRequiredForNode() / 2
+								- lastChild.spaceRequiredForNode() / 2;
+						double startPosition = Math.max((availableSpace - boundsWidth) / 2,
+								firstChild.spaceRequiredForNode() / 2);
+						setAvailableSpace(spaceRequiredInNextLayer);
+						childLayer.fitNodesWithinBounds(nodesInNextLayer, startPosition, startPosition + boundsWidth);
+						setAvailableSpace(0);
+						if (nodeToExpand.childrenPositionsOK(nodesInThisLayer) || layer == 0
+								|| nodeToExpand.depth + layer < 1) {
+							addedNewLayer = true;
+						}
 					}
-				}
-				if (!addedNewLayer) {
-					revertToShanpshot(snapShot);
-					break;
+					if (!addedNewLayer) {
+						revertToShanpshot(snapShot);
+						break;
+					}
+				} finally {
+					releaseSnapShot();
 				}
 			}
 			nodeToExpand.centerParentsBottomUp();
@@ -1216,30 +1348,75 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 		return expectedDistance;
 	}
 
-	private class NodeSnapshot {
+	/**
+	 * Single entry of the snapshot journal: either the previous state of a node or
+	 * the previous list of nodes of a layer.
+	 */
+	private class StateChange {
 		SpaceTreeNode node;
 		double position;
 		boolean expanded;
+
+		SpaceTreeLayer layer;
+		List<SpaceTreeNode> layerNodes;
+		boolean sorted;
+		double thickness;
+
+		void revert() {
+			if (node != null) {
+				node.positionInLayer = position;
+				node.expanded = expanded;
+			} else {
+				layer.nodes = layerNodes;
+				layer.sorted = sorted;
+				layer.thickness = thickness;
+				layer.indexValid = false;
+				layer.recordedInSnapShot = -1;
+			}
+		}
+	}
+
+	/**
+	 * Journal of changes made since the oldest open snapshot was taken. Snapshots
+	 * are positions in this journal, so taking one is cheap and reverting to one
+	 * only undoes the changes made after it.
+	 */
+	private final List<StateChange> stateChanges = new ArrayList<>();
+
+	private int openSnapShots = 0;
+
+	private int snapShotCount = 0;
+
+	private void recordNodeState(SpaceTreeNode node) {
+		if (openSnapShots > 0) {
+			StateChange change = new StateChange();
+			change.node = node;
+			change.position = node.positionInLayer;
+			change.expanded = node.expanded;
+			stateChanges.add(change);
+		}
 	}
 
 	/**
-	 * Stores current expansion state of tree nodes and their position in layers
+	 * Starts recording expansion state of tree nodes and their position in
+	 * layers. Every call must be followed by {@link #releaseSnapShot()}.
 	 *
-	 * @return array containing state of all unpruned nodes
+	 * @return snapshot to be used with {@link #revertToShanpshot(int)}
 	 */
-	private NodeSnapshot[][] takeSnapShot() {
-		NodeSnapshot[][] result = new NodeSnapshot[spaceTreeLayers.size()][];
-		for (int i = 0; i < result.length; i++) {
-			SpaceTreeLayer layer = spaceTreeLayers.get(i);
-			result[i] = new NodeSnapshot[layer.nodes.size()];
-			for (int j = 0; j < result[i].length; j++) {
-				result[i][j] = new NodeSnapshot();
-				result[i][j].node = (layer.nodes.get(j));
-				result[i][j].position = result[i][j].node.positionInLayer;
-				result[i][j].expanded = result[i][j].node.expanded;
-			}
+	private int takeSnapShot() {
+		openSnapShots++;
+		snapShotCount++;
+		return stateChanges.size();
+	}
+
+	/**
+	 * Marks the most recently taken snapshot as no longer needed.
+	 */
+	private void releaseSnapShot() {
+		openSnapShots--;
+		if (openSnapShots == 0) {
+			stateChanges.clear();
 		}
-		return result;
 	}
 
 	/**
@@ -1247,15 +1424,9 @@ public class SpaceTreeLayoutAlgorithm extends AbstractLayoutAlgorithm {
 	 *
 	 * @param snapShot state obtained with {@link #takeSnapShot()}
 	 */
-	private void revertToShanpshot(NodeSnapshot[][] snapShot) {
-		for (int i = 0; i < snapShot.length; i++) {
-			SpaceTreeLayer layer = spaceTreeLayers.get(i);
-			layer.nodes.clear();
-			for (int j = 0; j < snapShot[i].length; j++) {
-				snapShot[i][j].node.positionInLayer = snapShot[i][j].position;
-				snapShot[i][j].node.expanded = snapShot[i][j].expanded;
-				layer.nodes.add(snapShot[i][j].node);
-			}
+	private void revertToShanpshot(int snapShot) {
+		for (int i = stateChanges.size() - 1; i >= snapShot; i--) {
+			stateChanges.remove(i).revert();
 		}
 	}
 }
@@ -15,9 +15,13 @@
  *******************************************************************************/
 package org.eclipse.zest.layouts.algorithms;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.zest.layouts.LayoutStyles;
 import org.eclipse.zest.layouts.dataStructures.DisplayIndependentDimension;
@@ -962,6 +966,22 @@ public class SpringLayoutAlgorithm extends AbstractLayoutAlgorithm {
 			return false;
 		}
 
+		@Override
+		public boolean layoutChanged(LayoutContext context, NodeLayout[] movedNodes, NodeLayout[] resizedNodes,
+				SubgraphLayout[] movedSubgraphs, SubgraphLayout[] resizedSubgraphs) {
+			// one pass over the entities instead of one per moved node
+			Set<NodeLayout> moved = Collections.newSetFromMap(new IdentityHashMap<>());
+			moved.addAll(Arrays.asList(movedNodes));
+			moved.addAll(Arrays.asList(resizedNodes));
+			for (int i = 0; i < entities.length; i++) {
+				if (moved.contains(entities[i])) {
+					locationsX[i] = entities[i].getLocation().x;
+					locationsY[i] = entities[i].getLocation().y;
+				}
+			}
+			return false;
+		}
+
 	}
 
 	/**
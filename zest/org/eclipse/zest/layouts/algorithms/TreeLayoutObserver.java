@@ -375,6 +375,31 @@ public class TreeLayoutObserver {
 			return false;
 		}
 
+		@Override
+		public boolean structureChanged(LayoutContext context, NodeLayout[] addedNodes,
+				ConnectionLayout[] addedConnections) {
+			if (treeListeners.isEmpty() && factory.getClass() == TreeNodeFactory.class) {
+				// nobody observes single changes and the tree nodes have no state
+				// of their own, so building the tree from scratch is equivalent
+				recomputeTree();
+				return false;
+			}
+			return GraphStructureListener.super.structureChanged(context, addedNodes, addedConnections);
+		}
+
+		@Override
+		public boolean structureRemoved(LayoutContext context, NodeLayout[] removedNodes,
+				ConnectionLayout[] removedConnections) {
+			if (treeListeners.isEmpty() && factory.getClass() == TreeNodeFactory.class) {
+				for (NodeLayout node : removedNodes) {
+					layoutToTree.remove(node);
+				}
+				recomputeTree();
+				return false;
+			}
+			return GraphStructureListener.super.structureRemoved(context, removedNodes, removedConnections);
+		}
+
 		@Override
 		public boolean connectionAdded(LayoutContext context, ConnectionLayout connection) {
 			TreeNode source = layoutToTree.get(connection.getSource());
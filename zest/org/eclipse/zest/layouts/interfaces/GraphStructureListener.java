@@ -114,4 +114,81 @@ public interface GraphStructureListener {
 	 */
 	public boolean connectionRemoved(LayoutContext context, ConnectionLayout connection);
 
+	/**
+	 * This method is called when many nodes and connections are added to a context
+	 * at once, for example when a graph is imported. It replaces the separate
+	 * {@link #nodeAdded(LayoutContext, NodeLayout)} and
+	 * {@link #connectionAdded(LayoutContext, ConnectionLayout)} events for these
+	 * items. Only connections between nodes laying directly in the node container
+	 * owned by the notifying layout context are passed.
+	 *
+	 * The default implementation calls <code>nodeAdded</code> for each added node
+	 * and then <code>connectionAdded</code> for each added connection, and
+	 * intercepts the event if any of these calls intercepted its event. Listeners
+	 * which can update their state more efficiently for many items at once should
+	 * override it.
+	 *
+	 * If true is returned, it means that the receiving listener has intercepted
+	 * this event. Intercepted events will not be passed to the rest of the
+	 * listeners. If the event is not intercepted by any listener,
+	 * {@link LayoutAlgorithm#applyLayout(boolean) applyLayout(boolean)} will be
+	 * called once on the context's main algorithm.
+	 *
+	 * @param context          the context that fired the event
+	 * @param addedNodes       the added nodes
+	 * @param addedConnections the added connections
+	 * @return true if no further operations after this event are required
+	 * @since 2.1
+	 */
+	public default boolean structureChanged(LayoutContext context, NodeLayout[] addedNodes,
+			ConnectionLayout[] addedConnections) {
+		boolean intercepted = false;
+		for (NodeLayout node : addedNodes) {
+			intercepted |= nodeAdded(context, node);
+		}
+		for (ConnectionLayout connection : addedConnections) {
+			intercepted |= connectionAdded(context, connection);
+		}
+		return intercepted;
+	}
+
+	/**
+	 * This method is called when many nodes and connections are removed from a
+	 * context at once, for example when a graph is cleared. It replaces the
+	 * separate {@link #connectionRemoved(LayoutContext, ConnectionLayout)} and
+	 * {@link #nodeRemoved(LayoutContext, NodeLayout)} events for these items. Only
+	 * connections between nodes laying directly in the node container owned by the
+	 * notifying layout context are passed. When this method is called, all the
+	 * items have already been removed.
+	 *
+	 * The default implementation calls <code>connectionRemoved</code> for each
+	 * removed connection and then <code>nodeRemoved</code> for each removed node,
+	 * and intercepts the event if any of these calls intercepted its event.
+	 * Listeners which can update their state more efficiently for many items at
+	 * once should override it.
+	 *
+	 * If true is returned, it means that the receiving listener has intercepted
+	 * this event. Intercepted events will not be passed to the rest of the
+	 * listeners. If the event is not intercepted by any listener,
+	 * {@link LayoutAlgorithm#applyLayout(boolean) applyLayout(boolean)} will be
+	 * called once on the context's main algorithm.
+	 *
+	 * @param context            the context that fired the event
+	 * @param removedNodes       the removed nodes
+	 * @param removedConnections the removed connections
+	 * @return true if no further operations after this event are required
+	 * @since 2.1
+	 */
+	public default boolean structureRemoved(LayoutContext context, NodeLayout[] removedNodes,
+			ConnectionLayout[] removedConnections) {
+		boolean intercepted = false;
+		for (ConnectionLayout connection : removedConnections) {
+			intercepted |= connectionRemoved(context, connection);
+		}
+		for (NodeLayout node : removedNodes) {
+			intercepted |= nodeRemoved(context, node);
+		}
+		return intercepted;
+	}
+
 }
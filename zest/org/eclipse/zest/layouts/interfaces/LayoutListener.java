@@ -91,4 +91,47 @@ public interface LayoutListener {
 	 */
 	public boolean subgraphResized(LayoutContext context, SubgraphLayout subgraph);
 
+	/**
+	 * This method is called once for all nodes and subgraphs which have been moved
+	 * or resized while the graph was in a batch of changes. Nodes and subgraphs
+	 * which were resized are not listed again as moved.
+	 *
+	 * The default implementation calls <code>nodeMoved</code>,
+	 * <code>nodeResized</code>, <code>subgraphMoved</code> and
+	 * <code>subgraphResized</code> for each of them, and intercepts the event if
+	 * any of these calls intercepted its event. Listeners which can update their
+	 * state more efficiently for many items at once should override it.
+	 *
+	 * If true is returned, it means that the receiving listener has intercepted
+	 * this event. Intercepted events will not be passed to the rest of the
+	 * listeners. If the event is not intercepted by any listener,
+	 * {@link LayoutAlgorithm#applyLayout(boolean) applyLayout(boolean)} will be
+	 * called once on the context's main algorithm.
+	 *
+	 * @param context          the layout context that fired the event
+	 * @param movedNodes       the nodes that have moved
+	 * @param resizedNodes     the nodes that were resized
+	 * @param movedSubgraphs   the subgraphs that have moved
+	 * @param resizedSubgraphs the subgraphs that were resized
+	 * @return true if no further operations after this event are required
+	 * @since 2.1
+	 */
+	public default boolean layoutChanged(LayoutContext context, NodeLayout[] movedNodes, NodeLayout[] resizedNodes,
+			SubgraphLayout[] movedSubgraphs, SubgraphLayout[] resizedSubgraphs) {
+		boolean intercepted = false;
+		for (NodeLayout node : movedNodes) {
+			intercepted |= nodeMoved(context, node);
+		}
+		for (NodeLayout node : resizedNodes) {
+			intercepted |= nodeResized(context, node);
+		}
+		for (SubgraphLayout subgraph : movedSubgraphs) {
+			intercepted |= subgraphMoved(context, subgraph);
+		}
+		for (SubgraphLayout subgraph : resizedSubgraphs) {
+			intercepted |= subgraphResized(context, subgraph);
+		}
+		return intercepted;
+	}
+
 }